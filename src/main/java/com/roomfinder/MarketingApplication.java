@@ -1,5 +1,6 @@
 package com.roomfinder;
 
+import com.roomfinder.marketing.configuration.feign.DownstreamProperties;
 import com.roomfinder.marketing.configuration.firebase.FirebaseProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,7 +13,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
 @EnableFeignClients
 @EnableMongoAuditing
-@EnableConfigurationProperties(FirebaseProperties.class)
+@EnableConfigurationProperties({FirebaseProperties.class, DownstreamProperties.class})
 public class MarketingApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(MarketingApplication.class, args);
@@ -0,0 +1,75 @@
+package com.roomfinder.marketing.configuration.feign;
+
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Holds one bulkhead and one circuit breaker per Feign client, so a slow or failing
+ * service only degrades the endpoints that call it.
+ * Metrics are published as resilience4j_* meters and {@code downstream.calls} tagged by client.
+ */
+@Slf4j
+@Component
+public class DownstreamGuard {
+    private final DownstreamProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+    public DownstreamGuard(DownstreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    public Bulkhead bulkhead(String clientName) {
+        DownstreamProperties.Resilience resilience = properties.forClient(clientName);
+        return bulkheadRegistry.bulkhead(clientName, () -> BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                .maxWaitDuration(resilience.getMaxWait())
+                .build());
+    }
+
+    public CircuitBreaker circuitBreaker(String clientName) {
+        DownstreamProperties.Resilience resilience = properties.forClient(clientName);
+        return circuitBreakerRegistry.circuitBreaker(clientName, () -> CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.TIME_BASED)
+                .slidingWindowSize(resilience.getSlidingWindowSeconds())
+                .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                .failureRateThreshold(resilience.getFailureRateThreshold())
+                // Mở mạch cả khi service chậm dần, không chỉ khi lỗi
+                .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(resilience.getSlowCallDuration())
+                .waitDurationInOpenState(resilience.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(resilience.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordResult(result -> result instanceof Response response && response.status() >= 500)
+                .build());
+    }
+
+    public Duration requestBudget() {
+        return properties.getRequestBudget();
+    }
+
+    public void recordCall(String clientName, String outcome, long durationNanos) {
+        Timer.builder("downstream.calls")
+                .tag("client", clientName)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(durationNanos));
+    }
+}
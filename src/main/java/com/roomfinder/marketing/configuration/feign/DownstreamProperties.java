@@ -0,0 +1,44 @@
+package com.roomfinder.marketing.configuration.feign;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Budgets and isolation limits for calls to other services (user, payment).
+ * Clients without an entry under {@code downstream.clients} use {@code downstream.defaults}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "downstream")
+public class DownstreamProperties {
+    // Total time an incoming request may spend, downstream calls get what is left of it
+    private Duration requestBudget = Duration.ofSeconds(10);
+    private Resilience defaults = new Resilience();
+    private Map<String, Resilience> clients = new HashMap<>();
+
+    public Resilience forClient(String clientName) {
+        return clients.getOrDefault(clientName, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Resilience {
+        // Bulkhead
+        private int maxConcurrentCalls = 20;
+        private Duration maxWait = Duration.ZERO;
+
+        // Circuit breaker
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 50;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        private int slidingWindowSeconds = 30;
+        private int minimumNumberOfCalls = 10;
+        private Duration waitInOpenState = Duration.ofSeconds(15);
+        private int permittedCallsInHalfOpenState = 3;
+    }
+}
@@ -0,0 +1,43 @@
+package com.roomfinder.marketing.configuration.feign;
+
+import com.roomfinder.marketing.utility.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Starts the deadline of each incoming request: the configured budget, shortened when the caller
+ * sends a smaller {@code X-Request-Timeout} (milliseconds).
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    private final DownstreamProperties properties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration budget = properties.getRequestBudget();
+        String requested = request.getHeader(RequestDeadline.HEADER);
+        if (requested != null) {
+            try {
+                Duration callerBudget = Duration.ofMillis(Long.parseLong(requested.trim()));
+                if (!callerBudget.isNegative() && callerBudget.compareTo(budget) < 0) {
+                    budget = callerBudget;
+                }
+            } catch (NumberFormatException ignored) {
+                // Header không hợp lệ thì dùng budget mặc định
+            }
+        }
+        RequestDeadline.start(new ServletRequestAttributes(request), budget);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,95 @@
+package com.roomfinder.marketing.configuration.feign;
+
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.utility.RequestDeadline;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign Client decorator that runs every call of one client inside its bulkhead and circuit breaker,
+ * and caps connect/read timeouts to what is left of the incoming request's deadline.
+ */
+@Slf4j
+public class ResilientFeignClient implements Client {
+    private final Client delegate;
+    private final String clientName;
+    private final DownstreamGuard guard;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientFeignClient(Client delegate, String clientName, DownstreamGuard guard) {
+        this.delegate = delegate;
+        this.clientName = clientName;
+        this.guard = guard;
+        this.bulkhead = guard.bulkhead(clientName);
+        this.circuitBreaker = guard.circuitBreaker(clientName);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        Duration remaining = RequestDeadline.remaining();
+        if (remaining != null && (remaining.isNegative() || remaining.isZero())) {
+            guard.recordCall(clientName, "deadline_exceeded", 0);
+            throw new AppException(ErrorCode.DOWNSTREAM_DEADLINE_EXCEEDED);
+        }
+
+        if (!bulkhead.tryAcquirePermission()) {
+            log.warn("Bulkhead of {} client is full, rejecting {}", clientName, request.url());
+            guard.recordCall(clientName, "rejected", 0);
+            throw new AppException(ErrorCode.DOWNSTREAM_UNAVAILABLE);
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                guard.recordCall(clientName, "short_circuited", 0);
+                throw new AppException(ErrorCode.DOWNSTREAM_UNAVAILABLE);
+            }
+
+            long start = System.nanoTime();
+            try {
+                Response response = remaining == null
+                        ? delegate.execute(request, options)
+                        : delegate.execute(withDeadlineHeader(request, remaining), capTimeouts(options, remaining));
+                long duration = System.nanoTime() - start;
+                circuitBreaker.onResult(duration, TimeUnit.NANOSECONDS, response);
+                guard.recordCall(clientName, response.status() >= 500 ? "server_error" : "success", duration);
+                return response;
+            } catch (IOException | RuntimeException e) {
+                long duration = System.nanoTime() - start;
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, e);
+                guard.recordCall(clientName, "error", duration);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private static Request.Options capTimeouts(Request.Options options, Duration remaining) {
+        long remainingMillis = Math.max(1, remaining.toMillis());
+        return new Request.Options(
+                Math.min(options.connectTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remainingMillis), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+    }
+
+    // Truyền phần budget còn lại cho service phía sau
+    private static Request withDeadlineHeader(Request request, Duration remaining) {
+        Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+        headers.put(RequestDeadline.HEADER, List.of(String.valueOf(Math.max(1, remaining.toMillis()))));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(),
+                request.charset(), request.requestTemplate());
+    }
+}
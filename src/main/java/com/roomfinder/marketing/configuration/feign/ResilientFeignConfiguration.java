@@ -0,0 +1,18 @@
+package com.roomfinder.marketing.configuration.feign;
+
+import feign.Client;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Per-client Feign configuration (not component-scanned on purpose): each client context gets
+ * its own ResilientFeignClient named after the client, e.g. "user" or "payment".
+ */
+public class ResilientFeignConfiguration {
+
+    @Bean
+    public Client feignClient(DownstreamGuard downstreamGuard,
+                              @Value("${spring.cloud.openfeign.client.name}") String clientName) {
+        return new ResilientFeignClient(new Client.Default(null, null), clientName, downstreamGuard);
+    }
+}
@@ -2,6 +2,8 @@
 package com.roomfinder.marketing.configuration.firebase;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageOptions;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.StorageClient;
@@ -25,6 +27,36 @@ public class FirebaseConfig {
         // Delete any existing apps
         FirebaseApp.getApps().forEach(FirebaseApp::delete);
 
+        FirebaseOptions options = FirebaseOptions.builder()
+                .setCredentials(buildCredentials())
+                .setProjectId(firebaseProperties.getConfig().getProjectId())
+                .setStorageBucket(firebaseProperties.getStorage().getBucket())
+                .build();
+
+        // Initialize as default app
+        return FirebaseApp.initializeApp(options);
+    }
+
+    @Bean
+    public StorageClient storageClient(FirebaseApp firebaseApp) {
+        return StorageClient.getInstance(firebaseApp);
+    }
+
+    /**
+     * Storage client dùng chung. StorageClient.bucket() gọi storage.get(bucket) mỗi lần,
+     * nên các thao tác upload/sign dùng thẳng Storage để tránh round trip metadata.
+     * Với service account credentials, signUrl ký cục bộ bằng private key.
+     */
+    @Bean
+    public Storage storage() throws IOException {
+        return StorageOptions.newBuilder()
+                .setCredentials(buildCredentials())
+                .setProjectId(firebaseProperties.getConfig().getProjectId())
+                .build()
+                .getService();
+    }
+
+    private GoogleCredentials buildCredentials() throws IOException {
         // Construct JSON structure for credentials
         String credentialsJson = String.format(
                 "{\n" +
@@ -54,20 +86,6 @@ public class FirebaseConfig {
         ByteArrayInputStream credentialsStream = new ByteArrayInputStream(
                 credentialsJson.getBytes(StandardCharsets.UTF_8));
 
-        GoogleCredentials credentials = GoogleCredentials.fromStream(credentialsStream);
-
-        FirebaseOptions options = FirebaseOptions.builder()
-                .setCredentials(credentials)
-                .setProjectId(firebaseProperties.getConfig().getProjectId())
-                .setStorageBucket(firebaseProperties.getStorage().getBucket())
-                .build();
-
-        // Initialize as default app
-        return FirebaseApp.initializeApp(options);
-    }
-
-    @Bean
-    public StorageClient storageClient(FirebaseApp firebaseApp) {
-        return StorageClient.getInstance(firebaseApp);
+        return GoogleCredentials.fromStream(credentialsStream);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.roomfinder.marketing.configuration.security;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -15,6 +16,8 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @Slf4j
 public class AuthenticationRequestInterceptor implements RequestInterceptor {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     /**
      * Intercepts the Feign request to inject the Authorization header from the current HTTP request.
      *
@@ -22,27 +25,25 @@ public class AuthenticationRequestInterceptor implements RequestInterceptor {
      */
     @Override
     public void apply(RequestTemplate requestTemplate) {
+        // Keep an Authorization header the caller has set explicitly
+        if (requestTemplate.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return;
+        }
+
         // Retrieve current request attributes
         ServletRequestAttributes servletRequestAttributes =
                 (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
 
         // Ensure the servletRequestAttributes is not null
         if (servletRequestAttributes != null) {
-            String authHeader = servletRequestAttributes.getRequest().getHeader("Authorization");
-
-            // Log the extracted header for debugging purposes
-            log.info("Authorization Header: {}", authHeader);
+            String authHeader = servletRequestAttributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
 
             if (StringUtils.hasText(authHeader)) {
-                // Strip 'Bearer ' prefix if it exists
-                if (authHeader.startsWith("Bearer ")) {
-                    authHeader = authHeader.substring(7);
-                    log.info("Authorization Header final: {}", authHeader);
-
-                }
-
-                // Add 'Bearer ' prefix to the token before sending it in the Feign request
-                requestTemplate.header("Authorization", "Bearer " + authHeader);
+                // Forward the header as-is when it already carries the 'Bearer ' prefix
+                requestTemplate.header(HttpHeaders.AUTHORIZATION,
+                        authHeader.startsWith(BEARER_PREFIX) ? authHeader : BEARER_PREFIX + authHeader);
+            } else {
+                log.debug("No Authorization header to propagate for {}", requestTemplate.url());
             }
         }
     }
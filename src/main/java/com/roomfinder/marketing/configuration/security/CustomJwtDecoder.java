@@ -1,24 +1,64 @@
 package com.roomfinder.marketing.configuration.security;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * CustomJwtDecoder is a custom implementation of the JwtDecoder interface.
  * It is responsible for parsing and decoding JWT tokens and extracting their claims.
+ * Decoded tokens are kept in a bounded cache keyed by the SHA-256 hash of the token string
+ * until their expiration time, since clients reuse the same token for many requests.
  */
 @Component
 public class CustomJwtDecoder implements JwtDecoder {
 
+    private final Map<String, Jwt> decodedTokens = new ConcurrentHashMap<>();
+    private final int maxCachedTokens;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
     /**
-     * Decodes a JWT token by parsing it into a SignedJWT and extracting claims from it.
+     * Creates the decoder and registers its cache metrics.
+     *
+     * @param meterRegistry   registry receiving the {@code jwt.decode.cache} hit/miss counters and size gauge
+     * @param maxCachedTokens maximum number of decoded tokens kept in memory; 0 disables the cache
+     */
+    public CustomJwtDecoder(MeterRegistry meterRegistry,
+                            @Value("${security.jwt.cache.max-size:10000}") int maxCachedTokens) {
+        this.maxCachedTokens = maxCachedTokens;
+        this.cacheHits = Counter.builder("jwt.decode.cache")
+                .tag("result", "hit")
+                .description("Decoded JWTs served from the cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("jwt.decode.cache")
+                .tag("result", "miss")
+                .description("JWTs that had to be parsed")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("jwt.decode.cache.size", Tags.empty(), decodedTokens);
+    }
+
+    /**
+     * Decodes a JWT token, returning the cached Jwt when the same token was decoded before
+     * and has not expired yet.
      *
      * @param token the JWT token as a string
      * @return Jwt a decoded Jwt object containing the token's claims and metadata
@@ -26,21 +66,71 @@ public class CustomJwtDecoder implements JwtDecoder {
      */
     @Override
     public Jwt decode(String token) throws JwtException {
+        if (maxCachedTokens <= 0) {
+            return parse(token);
+        }
+
+        String key = hash(token);
+        Instant now = Instant.now();
+        Jwt cached = decodedTokens.get(key);
+        if (cached != null) {
+            if (cached.getExpiresAt() != null && cached.getExpiresAt().isAfter(now)) {
+                cacheHits.increment();
+                return cached;
+            }
+            decodedTokens.remove(key, cached);
+        }
+
+        cacheMisses.increment();
+        Jwt jwt = parse(token);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(now) && hasRoomFor(now)) {
+            decodedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Parses the token into a SignedJWT and builds the Jwt from its header and claims.
+     */
+    private Jwt parse(String token) {
         try {
             // Parse the token into a SignedJWT object to extract claims
             SignedJWT signedJWT = SignedJWT.parse(token);
+            JWTClaimsSet claimsSet = signedJWT.getJWTClaimsSet();
 
             // Return a Jwt object containing the token, issue time, expiration time, header, and claims
             return new Jwt(
                     token,
-                    signedJWT.getJWTClaimsSet().getIssueTime().toInstant(),
-                    signedJWT.getJWTClaimsSet().getExpirationTime().toInstant(),
+                    claimsSet.getIssueTime().toInstant(),
+                    claimsSet.getExpirationTime().toInstant(),
                     signedJWT.getHeader().toJSONObject(),
-                    signedJWT.getJWTClaimsSet().getClaims()
+                    claimsSet.getClaims()
             );
         } catch (ParseException e) {
             // Throw a JwtException if the token is invalid or cannot be parsed
             throw new AppException(ErrorCode.INVALID_TOKEN);
         }
     }
+
+    /**
+     * Makes room for a new entry by dropping expired tokens once the cache is full.
+     *
+     * @return true if the new entry fits within the configured bound
+     */
+    private boolean hasRoomFor(Instant now) {
+        if (decodedTokens.size() < maxCachedTokens) {
+            return true;
+        }
+        decodedTokens.values().removeIf(jwt -> jwt.getExpiresAt() == null || !jwt.getExpiresAt().isAfter(now));
+        return decodedTokens.size() < maxCachedTokens;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
@@ -42,6 +42,7 @@ public class SecurityConfig {
             "/promotional/**",
             "/experience/**",
             "/train/**",
+            "/home",
             "/user/users/quantityUser/",
             "/hospital-room/**"
     };
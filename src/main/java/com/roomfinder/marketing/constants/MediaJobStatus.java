@@ -0,0 +1,8 @@
+package com.roomfinder.marketing.constants;
+
+public enum MediaJobStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED,
+}
@@ -0,0 +1,52 @@
+package com.roomfinder.marketing.constants;
+
+import com.roomfinder.marketing.dto.MediaOwner;
+import com.roomfinder.marketing.repositories.entities.*;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import lombok.Getter;
+
+/**
+ * Entities that own uploaded images: bucket folder, image array path and whether attaching
+ * images activates an entity that has no status yet, and whether only admins may upload (same rules as the
+ * multipart upload endpoints). Targets open to users only accept uploads from their owner or an admin.
+ */
+@Getter
+public enum MediaTarget {
+    POST(RoomSalePostEntity.class, BucketConstants.MARKETING_FOLDER, MediaOwner.ROOM_POST_IMAGES, true, false),
+    HOSPITAL_ROOM(HospitalRoomEntity.class, BucketConstants.MARKETING_FOLDER, MediaOwner.POST_IMAGES, false, false),
+    CAROUSEL(CarouselEntity.class, BucketConstants.CAROUSEL_FOLDER, MediaOwner.POST_IMAGES, false, true),
+    NEWS(NewsEntity.class, BucketConstants.MARKET_AND_TREND_FOLDER, MediaOwner.POST_IMAGES, false, true),
+    CATEGORY(CategoryEntity.class, BucketConstants.CATEGORY_FOLDER, MediaOwner.POST_IMAGES, false, true),
+    // Trạng thái do IncentiveProgramLifecycleService quyết định theo startDate/endDate
+    INCENTIVE_PROGRAM(IncentiveProgramEntity.class, BucketConstants.INCENTIVE_FOLDER, MediaOwner.POST_IMAGES, false, true),
+    REAL_ESTATE_EXPERIENCE(RealEstateExperienceEntity.class, BucketConstants.REAL_ESTATE_EXPERIENCE_FOLDER, MediaOwner.POST_IMAGES, false, true);
+
+    private final Class<?> entityType;
+    private final String folder;
+    private final String imagesPath;
+    private final boolean activateOnUpload;
+    private final boolean adminOnly;
+
+    MediaTarget(Class<?> entityType, BucketConstants folder, String imagesPath, boolean activateOnUpload, boolean adminOnly) {
+        this.entityType = entityType;
+        this.folder = folder.getValue();
+        this.imagesPath = imagesPath;
+        this.activateOnUpload = activateOnUpload;
+        this.adminOnly = adminOnly;
+    }
+
+    /**
+     * Parses a target name from a request, case-insensitively.
+     */
+    public static MediaTarget parse(String target) {
+        if (target != null) {
+            for (MediaTarget value : values()) {
+                if (value.name().equalsIgnoreCase(target)) {
+                    return value;
+                }
+            }
+        }
+        throw new AppException(ErrorCode.INVALID_UPLOAD_REQUEST);
+    }
+}
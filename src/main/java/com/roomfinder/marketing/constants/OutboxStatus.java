@@ -0,0 +1,8 @@
+package com.roomfinder.marketing.constants;
+
+public enum OutboxStatus {
+    NEW,
+    PROCESSING,
+    SENT,
+    COMPENSATED,
+}
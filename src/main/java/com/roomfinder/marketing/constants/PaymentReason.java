@@ -0,0 +1,9 @@
+package com.roomfinder.marketing.constants;
+
+// Lý do trừ tiền, quyết định cách bù trừ khi thanh toán thất bại
+public enum PaymentReason {
+    POST_PACKAGE,
+    // Nhiều bài đăng của một user trong một batch import, trừ tiền bằng một giao dịch
+    POST_PACKAGES,
+    FEATURED_ADS,
+}
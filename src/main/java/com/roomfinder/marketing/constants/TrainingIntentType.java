@@ -0,0 +1,11 @@
+package com.roomfinder.marketing.constants;
+
+public enum TrainingIntentType {
+    ROOM_NAME,
+    ADDRESS,
+    STATUS,
+    AREA,
+    OWNER,
+    UTILITY,
+    PRICING,
+}
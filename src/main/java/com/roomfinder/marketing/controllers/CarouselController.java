@@ -1,12 +1,12 @@
 package com.roomfinder.marketing.controllers;
 
+import com.roomfinder.marketing.constants.MediaTarget;
 import com.roomfinder.marketing.dto.request.CarouselRequest;
 import com.roomfinder.marketing.dto.response.CarouselResponse;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.CarouselFacade;
 import com.roomfinder.marketing.facade.MediaFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,14 +17,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Tag(
         name = "Carousel Controller",
@@ -121,17 +120,20 @@ public class CarouselController {
      *
      * @param id    ID of the carousel to upload images to
      * @param files list of images to upload
-     * @return uploaded image details
+     * @return the queued upload job, poll /media/upload-jobs/{id} for the attached images
      */
     @PostMapping(value = "/upload-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @PreAuthorize("hasRole('ROLE_ADMIN')") // Requires Bearer token with ADMIN role
     @Operation(
             summary = "Upload images for a carousel",
-            description = "This API allows users to upload one or more images for a carousel by providing the carousel ID and image files.",
+            description = "This API allows users to upload one or more images for a carousel by providing the carousel ID and image files. "
+                    + "The images are stored in the background; poll /media/upload-jobs/{id} for the result.",
             responses = {
                     @ApiResponse(
-                            description = "Images uploaded successfully",
-                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Set.class))
+                            description = "Upload queued",
+                            responseCode = "202",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = MediaJobResponse.class))
                     ),
                     @ApiResponse(
                             description = "Not found if the carousel with the provided ID does not exist",
@@ -140,20 +142,10 @@ public class CarouselController {
             },
             security = {@SecurityRequirement(name = "bearerAuth")}
     )
-    public GenericApiResponse<Set<PostImageResponse>> uploadPostImagesCarousel(
+    public GenericApiResponse<MediaJobResponse> uploadPostImagesCarousel(
             @RequestParam String id,
             @RequestPart(value = "files", required = false) List<MultipartFile> files
     ) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesCarousel(id, files);
-
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(
-                        image.getName(),
-                        image.getType(),
-                        image.getUrlImagePost()
-                ))
-                .collect(Collectors.toSet());
-
-        return GenericApiResponse.success(responseImages);
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.CAROUSEL.name(), id, files));
     }
 }
@@ -1,26 +1,25 @@
 package com.roomfinder.marketing.controllers;
 
+import com.roomfinder.marketing.constants.MediaTarget;
 import com.roomfinder.marketing.dto.request.CarouselRequest;
 import com.roomfinder.marketing.dto.response.CategoryResponse;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.CategoryFacade;
 import com.roomfinder.marketing.facade.MediaFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Tag(
         name = "Category Controller",
@@ -115,25 +114,16 @@ public class CategoryController {
      *
      * @param id the ID of the category.
      * @param files list of image files to upload.
-     * @return list of uploaded image details.
+     * @return the queued upload job; poll /media/upload-jobs/{id} for the attached images.
      */
     @PostMapping(value = "/upload-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @PreAuthorize("hasRole('ROLE_ADMIN')") // Requires Bearer token with ADMIN role
     @Operation(summary = "Upload images for a category by ID", security = {@SecurityRequirement(name = "bearerAuth")})
-    public GenericApiResponse<Set<PostImageResponse>> uploadPostImagesCarousel(
+    public GenericApiResponse<MediaJobResponse> uploadPostImagesCarousel(
             @RequestParam String id,
             @RequestPart(value = "files", required = false) List<MultipartFile> files
     ) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesCategory(id, files);
-
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(
-                        image.getName(),
-                        image.getType(),
-                        image.getUrlImagePost()
-                ))
-                .collect(Collectors.toSet());
-
-        return GenericApiResponse.success(responseImages);
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.CATEGORY.name(), id, files));
     }
 }
@@ -0,0 +1,49 @@
+package com.roomfinder.marketing.controllers;
+
+import com.roomfinder.marketing.dto.response.HomeResponse;
+import com.roomfinder.marketing.facade.HomeFacade;
+import com.roomfinder.marketing.model.GenericApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Home Controller", description = "Aggregated data for the home screen.")
+@RestController
+@RequestMapping("/home")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class HomeController {
+
+    HomeFacade homeFacade;
+
+    @GetMapping
+    @Operation(
+            summary = "Get the home screen",
+            description = "Returns carousels, banners, categories, featured and promotional posts, the incentive program "
+                    + "and news in one payload. Sections are loaded concurrently; a section that fails or misses its "
+                    + "deadline is null and listed in `unavailableSections`.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Home screen retrieved successfully",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = HomeResponse.class))
+                    )
+            }
+    )
+    public GenericApiResponse<HomeResponse> getHome(
+            @RequestParam(value = "postSize", defaultValue = "10") int postSize,
+            @RequestParam(value = "newsSize", defaultValue = "10") int newsSize,
+            @RequestParam(value = "incentiveStatus", defaultValue = "ACTIVE") String incentiveStatus
+    ) {
+        return GenericApiResponse.success(homeFacade.getHome(postSize, newsSize, incentiveStatus));
+    }
+}
@@ -1,21 +1,20 @@
 package com.roomfinder.marketing.controllers;
+import com.roomfinder.marketing.constants.MediaTarget;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.HospitalRoomRequest;
 import com.roomfinder.marketing.dto.response.HostpitalRoomResponse;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.HospitalRoomFacade;
 import com.roomfinder.marketing.facade.MediaFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 @Tag(name = "Hospital Room Controller", description = "API create and getAll room near hospital.")
 @RestController
 @RequiredArgsConstructor
@@ -41,11 +40,8 @@ public class HospitalRoomController {
     }
 
     @PostMapping("/upload-images")
-    public GenericApiResponse<Set<PostImageResponse>> uploadImage(@RequestParam String id, @RequestPart(value = "files", required = false) List<MultipartFile> files) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesHospitalRoom(id, files);
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(image.getName(), image.getType(), image.getUrlImagePost()))
-                .collect(Collectors.toSet());
-        return GenericApiResponse.success(responseImages);
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public GenericApiResponse<MediaJobResponse> uploadImage(@RequestParam String id, @RequestPart(value = "files", required = false) List<MultipartFile> files) {
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.HOSPITAL_ROOM.name(), id, files));
     }
 }
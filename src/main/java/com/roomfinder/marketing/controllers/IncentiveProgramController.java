@@ -1,26 +1,25 @@
 package com.roomfinder.marketing.controllers;
 
+import com.roomfinder.marketing.constants.MediaTarget;
 import com.roomfinder.marketing.dto.request.IncentiveProgramRequest;
 import com.roomfinder.marketing.dto.response.IncentiveProgramResponse;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.IncentiveProgramFacade;
 import com.roomfinder.marketing.facade.MediaFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Tag(
         name = "Incentive Program Controller",
@@ -92,6 +91,18 @@ public class IncentiveProgramController {
         return GenericApiResponse.success(incentiveProgramFacade.getIncentiveProgramByStatus(status));
     }
 
+    /**
+     * Retrieve all incentive programs with the given status, newest start date first.
+     *
+     * @param status the status ("active", "pending", etc.)
+     * @return the incentive programs matching the status.
+     */
+    @GetMapping("/get-all-by-status/{status}")
+    @Operation(summary = "Get all incentive programs by status")
+    public GenericApiResponse<List<IncentiveProgramResponse>> getIncentiveProgramsByStatus(@PathVariable String status) {
+        return GenericApiResponse.success(incentiveProgramFacade.getIncentiveProgramsByStatus(status));
+    }
+
     /**
      * Delete an incentive program by ID.
      *
@@ -121,25 +132,16 @@ public class IncentiveProgramController {
      *
      * @param id the program ID.
      * @param files list of image files.
-     * @return uploaded images.
+     * @return the queued upload job; poll /media/upload-jobs/{id} for the attached images.
      */
     @PostMapping(value = "/upload-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @Operation(summary = "Upload images for an incentive program", security = {@SecurityRequirement(name = "bearerAuth")})
-    public GenericApiResponse<Set<PostImageResponse>> uploadPostImagesCarousel(
+    public GenericApiResponse<MediaJobResponse> uploadPostImagesCarousel(
             @RequestParam String id,
             @RequestPart(value = "files", required = false) List<MultipartFile> files
     ) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesIncentiveProgram(id, files);
-
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(
-                        image.getName(),
-                        image.getType(),
-                        image.getUrlImagePost()
-                ))
-                .collect(Collectors.toSet());
-
-        return GenericApiResponse.success(responseImages);
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.INCENTIVE_PROGRAM.name(), id, files));
     }
 }
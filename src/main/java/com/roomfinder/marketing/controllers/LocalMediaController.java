@@ -0,0 +1,83 @@
+package com.roomfinder.marketing.controllers;
+
+import com.roomfinder.marketing.services.UploadSessionService;
+import com.roomfinder.marketing.services.helper.FileTransfers;
+import com.roomfinder.marketing.services.impl.LocalMediaStorage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Serves objects of the local media storage ({@code media.storage.type=local}) and receives
+ * direct uploads issued by upload sessions.
+ */
+@Tag(name = "Local Media Controller", description = "Download and direct-upload files of the local media storage.")
+@RestController
+@RequestMapping(LocalMediaController.FILES_PATH)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local")
+public class LocalMediaController {
+
+    static final String FILES_PATH = "/media/files";
+
+    LocalMediaStorage localMediaStorage;
+    UploadSessionService uploadSessionService;
+
+    @GetMapping("/**")
+    @Operation(summary = "Download a stored file")
+    public void download(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String objectName = objectNameOf(request);
+        Path path = localMediaStorage.existingPath(objectName);
+
+        response.setContentType(MediaTypeFactory.getMediaType(objectName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        // Tên object chứa UUID và không bao giờ bị ghi đè
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+
+        ByteBuffer mapped = localMediaStorage.mappedContent(objectName);
+        if (mapped != null) {
+            response.setContentLengthLong(mapped.remaining());
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (mapped.hasRemaining()) {
+                out.write(mapped);
+            }
+            return;
+        }
+
+        FileTransfers.send(request, response, path, 0, Files.size(path));
+    }
+
+    @PutMapping("/**")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Upload a file to a URL issued by an upload session")
+    public void upload(@RequestParam String uploadToken, HttpServletRequest request) throws IOException {
+        String objectName = objectNameOf(request);
+        long maxSize = uploadSessionService.authorizeDirectUpload(uploadToken, objectName);
+        localMediaStorage.receive(objectName, request.getInputStream(), maxSize);
+    }
+
+    private static String objectNameOf(HttpServletRequest request) {
+        String prefix = request.getContextPath() + FILES_PATH + "/";
+        return UriUtils.decode(request.getRequestURI().substring(prefix.length()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,180 @@
+package com.roomfinder.marketing.controllers;
+
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.dto.request.UploadSessionRequest;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
+import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.UploadSessionResponse;
+import com.roomfinder.marketing.facade.MediaFacade;
+import com.roomfinder.marketing.model.GenericApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Tag(
+        name = "Media Controller",
+        description = "Direct-to-storage uploads and queued upload jobs for images."
+)
+@RequestMapping("/media")
+@RestController
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MediaController {
+
+    MediaFacade mediaFacade;
+
+    /**
+     * Opens an upload session: one short-lived upload URL per declared file.
+     *
+     * @param request target entity and the files to upload
+     * @return session id and upload URLs
+     */
+    @PostMapping("/upload-sessions")
+    @Operation(
+            summary = "Create an upload session",
+            description = "Returns a short-lived URL per file. The client uploads each file with the given method and headers, then calls the complete endpoint.",
+            responses = {
+                    @ApiResponse(
+                            description = "Upload session created",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSessionResponse.class))
+                    ),
+                    @ApiResponse(
+                            description = "Invalid target, file type or size",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Not found if the target entity does not exist",
+                            responseCode = "404"
+                    )
+            },
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public GenericApiResponse<UploadSessionResponse> createUploadSession(@RequestBody UploadSessionRequest request) {
+        return GenericApiResponse.success(mediaFacade.createUploadSession(request));
+    }
+
+    /**
+     * Completes an upload session and attaches the uploaded files to the target entity.
+     *
+     * @param id upload session ID
+     * @return attached image details
+     */
+    @PostMapping("/upload-sessions/{id}/complete")
+    @Operation(
+            summary = "Complete an upload session",
+            description = "Verifies the uploaded files and attaches them to the target entity. Files that were not uploaded are reported in the message.",
+            responses = {
+                    @ApiResponse(
+                            description = "Images attached successfully",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Set.class))
+                    ),
+                    @ApiResponse(
+                            description = "Not found if the session does not exist",
+                            responseCode = "404"
+                    ),
+                    @ApiResponse(
+                            description = "Session was already completed",
+                            responseCode = "409"
+                    ),
+                    @ApiResponse(
+                            description = "Session has expired",
+                            responseCode = "410"
+                    )
+            },
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public GenericApiResponse<Set<PostImageResponse>> completeUploadSession(@PathVariable String id) {
+        MediaUploadResult uploadedImages = mediaFacade.completeUploadSession(id);
+
+        Set<PostImageResponse> responseImages = uploadedImages.getImages().stream()
+                .map(image -> new PostImageResponse(
+                        image.getName(),
+                        image.getType(),
+                        image.getUrlImagePost()
+                ))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        return uploadedImages.hasFailures()
+                ? GenericApiResponse.success(responseImages, uploadedImages.failureSummary())
+                : GenericApiResponse.success(responseImages);
+    }
+
+    /**
+     * Queues a multipart upload and returns immediately with the job id.
+     *
+     * @param target   target entity type, e.g. POST, CAROUSEL
+     * @param targetId ID of the entity the images are attached to
+     * @param files    images to upload
+     * @return the queued job
+     */
+    @PostMapping(value = "/upload-jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(
+            summary = "Queue an image upload",
+            description = "Stages the files and returns a job id right away. The files are stored and attached in the background; poll the job for the result.",
+            responses = {
+                    @ApiResponse(
+                            description = "Upload queued",
+                            responseCode = "202",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = MediaJobResponse.class))
+                    ),
+                    @ApiResponse(
+                            description = "Invalid target or file type",
+                            responseCode = "400"
+                    ),
+                    @ApiResponse(
+                            description = "Not found if the target entity does not exist",
+                            responseCode = "404"
+                    )
+            },
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public GenericApiResponse<MediaJobResponse> enqueueUploadJob(
+            @RequestParam String target,
+            @RequestParam String targetId,
+            @RequestPart(value = "files", required = false) List<MultipartFile> files
+    ) {
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(target, targetId, files));
+    }
+
+    /**
+     * Returns the status of a queued upload, with the attached images once it has completed.
+     *
+     * @param id upload job ID
+     * @return job status and result
+     */
+    @GetMapping("/upload-jobs/{id}")
+    @Operation(
+            summary = "Get an upload job",
+            description = "Status is QUEUED, PROCESSING, COMPLETED or FAILED. Completed jobs list the attached images and any files that failed.",
+            responses = {
+                    @ApiResponse(
+                            description = "Job status",
+                            content = @Content(mediaType = "application/json", schema = @Schema(implementation = MediaJobResponse.class))
+                    ),
+                    @ApiResponse(
+                            description = "Not found if the job does not exist or has expired",
+                            responseCode = "404"
+                    )
+            },
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    public GenericApiResponse<MediaJobResponse> getUploadJob(@PathVariable String id) {
+        return GenericApiResponse.success(mediaFacade.getUploadJob(id));
+    }
+}
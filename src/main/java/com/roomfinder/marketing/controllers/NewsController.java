@@ -1,13 +1,15 @@
 package com.roomfinder.marketing.controllers;
 
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.MediaFacade;
 import com.roomfinder.marketing.facade.NewsFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,14 +17,13 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Tag(
         name = "News Controller",
@@ -109,30 +110,39 @@ public class NewsController {
         return GenericApiResponse.success(newsFacade.getAllNews(page, size));
     }
 
+    /**
+     * Get the news feed, newest first.
+     *
+     * @param cursor {@code nextCursor} of the previous page, empty for the first page.
+     * @param size   number of articles per page.
+     * @return one page of article summaries.
+     */
+    @GetMapping("/feed")
+    @Operation(summary = "Get the news feed",
+            description = "Newest first, paginated with the cursor returned by the previous page. Returns title, excerpt "
+                    + "and first image only; use /get-news/{id} for the full article.")
+    public GenericApiResponse<CursorPageResponse<ArticleSummaryResponse>> getNewsFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10") int size
+    ) {
+        return GenericApiResponse.success(newsFacade.getNewsFeed(cursor, size));
+    }
+
     /**
      * Upload images for a news article.
      *
      * @param id the ID of the news article.
      * @param files list of image files to upload.
-     * @return list of uploaded images for the article.
+     * @return the queued upload job; poll /media/upload-jobs/{id} for the attached images.
      */
     @PostMapping(value = "/upload-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @Operation(summary = "Upload images for a news article", security = {@SecurityRequirement(name = "bearerAuth")})
-    public GenericApiResponse<Set<PostImageResponse>> uploadPostImagesNews(
+    public GenericApiResponse<MediaJobResponse> uploadPostImagesNews(
             @RequestParam String id,
             @RequestPart(value = "files", required = false) List<MultipartFile> files
     ) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesNews(id, files);
-
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(
-                        image.getName(),
-                        image.getType(),
-                        image.getUrlImagePost()
-                ))
-                .collect(Collectors.toSet());
-
-        return GenericApiResponse.success(responseImages);
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.NEWS.name(), id, files));
     }
 }
@@ -1,16 +1,17 @@
 package com.roomfinder.marketing.controllers;
 
+import com.roomfinder.marketing.constants.MediaTarget;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.FilterRequest;
 import com.roomfinder.marketing.dto.request.RoomSalePostRequest;
 import com.roomfinder.marketing.dto.request.SearchPostRequest;
 import com.roomfinder.marketing.dto.response.InfoMarketing;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
+import com.roomfinder.marketing.dto.response.PostImportResponse;
 import com.roomfinder.marketing.dto.response.RoomSalePostResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.MarketingFacade;
 import com.roomfinder.marketing.facade.MediaFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,14 +19,14 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Tag(
         name = "Marketing Controller",
@@ -67,6 +68,18 @@ public class PostController {
         return GenericApiResponse.success(result);
     }
 
+    /**
+     * Create many posts at once from a JSON array or an NDJSON stream of post requests.
+     *
+     * @param body the posts to create.
+     * @return the result of every row.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import posts in bulk", security = {@SecurityRequirement(name = "bearerAuth")})
+    public GenericApiResponse<PostImportResponse> importPosts(InputStream body) {
+        return GenericApiResponse.success(marketingFacade.importPosts(body));
+    }
+
     /**
      * Get paginated list of room posts.
      */
@@ -128,24 +141,15 @@ public class PostController {
     }
 
     /**
-     * Upload images for a post.
+     * Queue images for a post. The images are attached in the background, poll /media/upload-jobs/{id}.
      */
     @PostMapping(value = "/upload-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public GenericApiResponse<Set<PostImageResponse>> uploadPostImages(
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public GenericApiResponse<MediaJobResponse> uploadPostImages(
             @RequestParam String id,
             @RequestPart(value = "files", required = false) List<MultipartFile> files
     ) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesRoomSalePosts(id, files);
-
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(
-                        image.getName(),
-                        image.getType(),
-                        image.getUrlImagePost()
-                ))
-                .collect(Collectors.toSet());
-
-        return GenericApiResponse.success(responseImages);
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.POST.name(), id, files));
     }
 
     /**
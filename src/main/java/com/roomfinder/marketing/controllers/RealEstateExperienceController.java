@@ -1,13 +1,15 @@
 package com.roomfinder.marketing.controllers;
 
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
-import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.MediaFacade;
 import com.roomfinder.marketing.facade.RealEstateExperienceFacade;
-import com.roomfinder.marketing.repositories.entities.PostImage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,14 +19,13 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Tag(
         name = "RealEstateExperience Controller",
@@ -79,6 +80,27 @@ public class RealEstateExperienceController {
         return GenericApiResponse.success(result);
     }
 
+    /**
+     * Get the real estate experience feed, newest first.
+     *
+     * @param cursor {@code nextCursor} of the previous page, empty for the first page.
+     * @param size   number of items per page (default: 10).
+     * @return one page of experience summaries.
+     */
+    @Operation(
+            summary = "Get the real estate experience feed",
+            description = "Newest first, paginated with the cursor returned by the previous page. Returns title, excerpt "
+                    + "and first image only; use /get/{id} for the full article."
+    )
+    @GetMapping("/feed")
+    public GenericApiResponse<CursorPageResponse<ArticleSummaryResponse>> getRealEstateExperienceFeed(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false, defaultValue = "10") int size
+    ) {
+        var result = realEstateExperienceFacade.getRealEstateExperienceFeed(cursor, size);
+        return GenericApiResponse.success(result);
+    }
+
     /**
      * Get detailed information about a real estate experience by ID.
      *
@@ -141,7 +163,7 @@ public class RealEstateExperienceController {
      *
      * @param id ID of the experience post.
      * @param files list of image files to upload.
-     * @return list of uploaded image metadata.
+     * @return the queued upload job; poll /media/upload-jobs/{id} for the attached images.
      */
     @Operation(
             summary = "Upload images for real estate experience",
@@ -150,24 +172,15 @@ public class RealEstateExperienceController {
     )
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping(value = "/upload-images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Images uploaded successfully"),
+            @ApiResponse(responseCode = "202", description = "Upload queued"),
             @ApiResponse(responseCode = "400", description = "Image upload failed")
     })
-    public GenericApiResponse<Set<PostImageResponse>> uploadImagesRealEstateEx(
+    public GenericApiResponse<MediaJobResponse> uploadImagesRealEstateEx(
             @RequestParam String id,
             @RequestPart(value = "files", required = false) List<MultipartFile> files
     ) {
-        Set<PostImage> uploadedImages = mediaFacade.uploadImagesRealEstateExperience(id, files);
-
-        Set<PostImageResponse> responseImages = uploadedImages.stream()
-                .map(image -> new PostImageResponse(
-                        image.getName(),
-                        image.getType(),
-                        image.getUrlImagePost()
-                ))
-                .collect(Collectors.toSet());
-
-        return GenericApiResponse.success(responseImages);
+        return GenericApiResponse.success(mediaFacade.enqueueUploadJob(MediaTarget.REAL_ESTATE_EXPERIENCE.name(), id, files));
     }
 }
@@ -1,20 +1,41 @@
 package com.roomfinder.marketing.controllers;
 
 import com.roomfinder.marketing.dto.GenericResponseAI;
+import com.roomfinder.marketing.dto.response.TrainingDeltaResponse;
+import com.roomfinder.marketing.dto.response.TrainingExportManifest;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.facade.TrainingFacade;
+import com.roomfinder.marketing.services.TrainingExportService;
+import com.roomfinder.marketing.services.helper.FileTransfers;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.List;
 
 @Tag(name = "Training Controller", description = "API for training the chatbot with room-related datasets.")
 @Slf4j
@@ -130,4 +151,129 @@ public class TrainingController {
         var result = trainingFacade.getRoomIntentsPricingDetails();
         return GenericApiResponse.success(result);
     }
+
+    @Operation(
+            summary = "Stream all training intents",
+            description = "Returns every intent family (names, address, status, area, owner, utility, pricing) as NDJSON, one intent per line, "
+                    + "generated in a single pass over the catalog. Room list entries share one tag and should be merged by tag."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Success",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)
+    )
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamIntents() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(trainingFacade::streamIntents);
+    }
+
+    @Operation(
+            summary = "Get training intent changes",
+            description = "Returns intents changed or removed after version `since`, in version order. Start with since=0, "
+                    + "then pass `nextSince` back until `hasMore` is false. Removed intents are listed by id in `removed`."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Success",
+            content = @Content(schema = @Schema(implementation = GenericApiResponse.class))
+    )
+    @GetMapping("/delta")
+    public GenericApiResponse<TrainingDeltaResponse> getDelta(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return GenericApiResponse.success(trainingFacade.getDelta(since, limit));
+    }
+
+    @Operation(
+            summary = "Rebuild the training corpus",
+            description = "Refreshes the materialized intents of every post and removes intents of deleted posts. "
+                    + "Runs nightly; call it once after deploying to build the initial corpus.",
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    @PostMapping("/corpus/reconcile")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public GenericApiResponse<Long> reconcileCorpus() {
+        return GenericApiResponse.success(trainingFacade.reconcileCorpus());
+    }
+
+    @Operation(
+            summary = "Download the training export",
+            description = "Returns the latest gzip-compressed JSONL snapshot of all intents, written periodically in the background. "
+                    + "Supports a single byte range (Range / If-Range) and conditional requests with the ETag (SHA-256 of the file)."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Success",
+            content = @Content(mediaType = "application/gzip")
+    )
+    @GetMapping("/export")
+    public void downloadExport(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        TrainingExportService.Artifact artifact = trainingFacade.getExport();
+        TrainingExportManifest manifest = artifact.manifest();
+        String etag = "\"" + manifest.getSha256() + "\"";
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long size = manifest.getSize();
+        long start = 0;
+        long end = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range khác ETag: file đã đổi, trả lại toàn bộ
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Nhiều range thì trả toàn bộ file, client tải lại từ đầu
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size) + 1;
+                    // HttpRange không kiểm tra range bắt đầu từ cuối file trở đi
+                    if (start >= end) {
+                        throw new IllegalArgumentException("Range starts past the end of the file");
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + size);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(manifest.getFileName()).build().toString());
+        FileTransfers.send(request, response, artifact.file(), start, end);
+    }
+
+    @Operation(
+            summary = "Get the training export manifest",
+            description = "File name, size, SHA-256 checksum and corpus version of the current export."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Success",
+            content = @Content(schema = @Schema(implementation = GenericApiResponse.class))
+    )
+    @GetMapping("/export/manifest")
+    public GenericApiResponse<TrainingExportManifest> getExportManifest() {
+        return GenericApiResponse.success(trainingFacade.getExport().manifest());
+    }
+
+    @Operation(
+            summary = "Write a new training export now",
+            description = "Regenerates the export without waiting for the schedule.",
+            security = {@SecurityRequirement(name = "bearerAuth")}
+    )
+    @PostMapping("/export")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public GenericApiResponse<TrainingExportManifest> runExport() {
+        return GenericApiResponse.success(trainingFacade.runExport());
+    }
 }
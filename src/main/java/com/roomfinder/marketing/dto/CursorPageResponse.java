@@ -0,0 +1,24 @@
+package com.roomfinder.marketing.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset feed. Pass {@code nextCursor} back as {@code cursor} to get the next page;
+ * it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CursorPageResponse<T> {
+    int pageSize;
+    String nextCursor;
+    boolean hasMore;
+    @Builder.Default
+    List<T> data = Collections.emptyList();
+}
@@ -0,0 +1,21 @@
+package com.roomfinder.marketing.dto;
+
+import com.roomfinder.marketing.repositories.entities.PromotionalRoomEntity;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FavoriteWithRoomDto {
+    @Id
+    String id;
+    int userId;
+    Integer index;
+    RoomSalePostEntity room;
+    PromotionalRoomEntity promotional;
+}
@@ -0,0 +1,15 @@
+package com.roomfinder.marketing.dto;
+
+/**
+ * Identifies the document and array field that holds a set of {@code PostImage}s, so background
+ * media work can update the images in place without loading the whole document.
+ *
+ * @param collection Mongo collection of the owning document
+ * @param id         id of the owning document
+ * @param imagesPath path of the image array inside the document
+ */
+public record MediaOwner(String collection, String id, String imagesPath) {
+
+    public static final String POST_IMAGES = "postImages";
+    public static final String ROOM_POST_IMAGES = "roomInfo.postImages";
+}
@@ -0,0 +1,59 @@
+package com.roomfinder.marketing.dto;
+
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Result of a multi-file upload: the images that were stored (in the same order as the
+ * submitted files) and the files that could not be stored.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MediaUploadResult {
+
+    @Builder.Default
+    Set<PostImage> images = new LinkedHashSet<>();
+
+    @Builder.Default
+    List<FailedUpload> failures = List.of();
+
+    public static MediaUploadResult empty() {
+        return MediaUploadResult.builder().build();
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Short summary used as response message when only part of the batch was uploaded.
+     */
+    public String failureSummary() {
+        return String.format("Uploaded %d of %d files. Failed: %s",
+                images.size(),
+                images.size() + failures.size(),
+                failures.stream()
+                        .map(failure -> failure.getName() + " (" + failure.getReason() + ")")
+                        .collect(Collectors.joining(", ")));
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class FailedUpload {
+        int index;
+        String name;
+        String reason;
+    }
+}
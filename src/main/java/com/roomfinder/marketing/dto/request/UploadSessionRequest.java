@@ -0,0 +1,28 @@
+package com.roomfinder.marketing.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UploadSessionRequest {
+    String target; // MediaTarget, e.g. POST, CAROUSEL
+    String targetId;
+    List<UploadFileRequest> files;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class UploadFileRequest {
+        String name;
+        String contentType;
+        long size;
+    }
+}
@@ -0,0 +1,19 @@
+package com.roomfinder.marketing.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ArticleSummaryResponse {
+    String id;
+    String title;
+    String excerpt;
+    PostImageResponse thumbnail;
+    Instant createdDate;
+}
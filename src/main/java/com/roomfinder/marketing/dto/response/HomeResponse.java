@@ -0,0 +1,30 @@
+package com.roomfinder.marketing.dto.response;
+
+import com.roomfinder.marketing.dto.CursorPageResponse;
+import com.roomfinder.marketing.dto.PageResponse;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+/**
+ * Everything the home screen needs in one payload. A section that failed or missed its
+ * deadline is null and listed in {@code unavailableSections}; the client can fetch it from
+ * its own endpoint.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class HomeResponse {
+    List<CarouselResponse> carousels;
+    List<BannerResponse> banners;
+    List<CategoryResponse> categories;
+    PageResponse<RoomSalePostResponse> featuredPosts;
+    PageResponse<RoomSalePostResponse> promotionalPosts;
+    IncentiveProgramResponse incentiveProgram;
+    CursorPageResponse<ArticleSummaryResponse> news;
+    @Builder.Default
+    List<String> unavailableSections = List.of();
+}
@@ -0,0 +1,17 @@
+package com.roomfinder.marketing.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImageVariantResponse {
+    String name;
+    String format;
+    int width;
+    int height;
+    String url;
+}
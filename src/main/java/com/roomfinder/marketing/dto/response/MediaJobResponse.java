@@ -0,0 +1,31 @@
+package com.roomfinder.marketing.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MediaJobResponse {
+    String jobId;
+    String status; // MediaJobStatus
+    String target;
+    String targetId;
+    int attempts;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<PostImageResponse> images;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<MediaUploadResult.FailedUpload> failures;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String error;
+    Instant createdDate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Instant completedAt;
+}
@@ -1,8 +1,11 @@
 package com.roomfinder.marketing.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @Builder
@@ -12,4 +15,14 @@ public class PostImageResponse {
     String name;
     String type;
     String urlImagePost;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    List<ImageVariantResponse> variants;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    String placeholder;
+
+    public PostImageResponse(String name, String type, String urlImagePost) {
+        this.name = name;
+        this.type = type;
+        this.urlImagePost = urlImagePost;
+    }
 }
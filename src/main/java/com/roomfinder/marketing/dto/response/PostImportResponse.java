@@ -0,0 +1,34 @@
+package com.roomfinder.marketing.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PostImportResponse {
+    int total;
+    int imported;
+    int failed;
+    // false khi dừng giữa chừng (JSON lỗi cú pháp, vượt số dòng tối đa hoặc kết nối bị ngắt)
+    boolean complete;
+    List<RowResult> rows;
+
+    @Data
+    @NoArgsConstructor
+    @Builder
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RowResult {
+        // Thứ tự dòng trong payload, bắt đầu từ 1
+        int row;
+        boolean success;
+        String postId;
+        String roomId;
+        String error;
+    }
+}
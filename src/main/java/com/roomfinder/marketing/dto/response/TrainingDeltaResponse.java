@@ -0,0 +1,35 @@
+package com.roomfinder.marketing.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TrainingDeltaResponse {
+    long since;
+    // Gửi lại làm since ở lần gọi sau
+    long nextSince;
+    boolean hasMore;
+    List<TrainingIntentResponse> changed;
+    List<String> removed;
+
+    @Data
+    @NoArgsConstructor
+    @Builder
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class TrainingIntentResponse {
+        String id;
+        String postId;
+        String type;
+        long version;
+        String tag;
+        List<String> patterns;
+        List<String> responses;
+    }
+}
@@ -0,0 +1,25 @@
+package com.roomfinder.marketing.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * Describes the current training export artifact. Written next to the artifact as
+ * {@code manifest.json}; {@code sha256} is the digest of the compressed file and doubles as ETag.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TrainingExportManifest {
+    String fileName;
+    String format; // jsonl+gzip
+    long size;
+    String sha256;
+    // Version của trainingIntents tại thời điểm export, so với /train/delta
+    long corpusVersion;
+    Instant createdAt;
+}
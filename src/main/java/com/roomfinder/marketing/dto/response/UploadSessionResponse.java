@@ -0,0 +1,33 @@
+package com.roomfinder.marketing.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UploadSessionResponse {
+    String sessionId;
+    Instant expiresAt;
+    List<UploadSlot> files;
+
+    @Data
+    @NoArgsConstructor
+    @Builder
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class UploadSlot {
+        int fileId;
+        String name;
+        String uploadUrl;
+        String method;
+        // Header client phải gửi kèm request upload (đã nằm trong chữ ký)
+        Map<String, String> headers;
+    }
+}
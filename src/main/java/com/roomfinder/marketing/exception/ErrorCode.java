@@ -89,10 +89,21 @@ public enum ErrorCode {
     CATEGORY_NOT_FOUND(6004, " CATEGORY not found", HttpStatus.NOT_FOUND),
     CATEGORY_ALREADY_EXISTS(6005, " CATEGORY already exists", HttpStatus.BAD_REQUEST),
 
+    // Downstream service errors
+    DOWNSTREAM_UNAVAILABLE(9001, "Downstream service is temporarily unavailable", HttpStatus.SERVICE_UNAVAILABLE),
+    DOWNSTREAM_DEADLINE_EXCEEDED(9002, "Request deadline exceeded before calling downstream service", HttpStatus.GATEWAY_TIMEOUT),
+
     // Additional errors
     SAVE_FAILED(7001, "Save failed", HttpStatus.BAD_REQUEST),
+    TRAINING_EXPORT_NOT_READY(7002, "Training export is not available yet", HttpStatus.SERVICE_UNAVAILABLE),
+    INVALID_CURSOR(7003, "Invalid page cursor", HttpStatus.BAD_REQUEST),
     IMAGE_NOT_FOUND(8001, "Image not found", HttpStatus.NOT_FOUND),
     FILE_UPLOAD_FAILED(8002, "File upload failed", HttpStatus.BAD_REQUEST),
+    UPLOAD_SESSION_NOT_FOUND(8003, "Upload session not found", HttpStatus.NOT_FOUND),
+    UPLOAD_SESSION_EXPIRED(8004, "Upload session has expired", HttpStatus.GONE),
+    UPLOAD_SESSION_COMPLETED(8005, "Upload session already completed", HttpStatus.CONFLICT),
+    INVALID_UPLOAD_REQUEST(8006, "Invalid upload request", HttpStatus.BAD_REQUEST),
+    MEDIA_JOB_NOT_FOUND(8007, "Upload job not found", HttpStatus.NOT_FOUND),
     USER_SERVICE_UNAVAILABLE(404, "User service unavailable please upgrade or contact administrator", HttpStatus.BAD_REQUEST),
     NO_REMAINING_POSTS(404, "No remaining posts allowed", HttpStatus.BAD_REQUEST);
 
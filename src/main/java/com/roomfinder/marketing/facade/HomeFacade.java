@@ -0,0 +1,102 @@
+package com.roomfinder.marketing.facade;
+
+import com.roomfinder.marketing.dto.CursorPageResponse;
+import com.roomfinder.marketing.dto.PageResponse;
+import com.roomfinder.marketing.dto.response.*;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.services.*;
+import com.roomfinder.marketing.services.helper.ConcurrentSections;
+import com.roomfinder.marketing.utility.RequestDeadline;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds the home screen payload by querying every section concurrently, so latency is that
+ * of the slowest section instead of the sum of seven requests.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class HomeFacade {
+    CarouselService carouselService;
+    BannerService bannerService;
+    CategoryService categoryService;
+    MarketingService marketingService;
+    IncentiveProgramService incentiveProgramService;
+    NewsService newsService;
+    ConcurrentSections concurrentSections;
+
+    @NonFinal
+    @Value("${home.section-timeout:PT1S}")
+    Duration sectionTimeout;
+
+    @NonFinal
+    @Value("${home.max-section-size:50}")
+    int maxSectionSize;
+
+    /**
+     * Loads the home screen.
+     *
+     * @param postSize        number of featured and promotional posts, at most {@code home.max-section-size}
+     * @param newsSize        number of news articles, at most {@code home.max-section-size}
+     * @param incentiveStatus status of the incentive program to show
+     * @return the composite payload, with failed sections left null
+     */
+    public HomeResponse getHome(int postSize, int newsSize, String incentiveStatus) {
+        int postPageSize = sectionSize(postSize);
+        int newsPageSize = sectionSize(newsSize);
+        try (ConcurrentSections.Scope scope = concurrentSections.open(timeout())) {
+            var carousels = scope.fork("carousels", carouselService::getCarousels);
+            var banners = scope.fork("banners", bannerService::getBanners);
+            var categories = scope.fork("categories", categoryService::getCategories);
+            var featured = scope.fork("featuredPosts", () -> marketingService.getPostsFeatured(1, postPageSize));
+            var promotional = scope.fork("promotionalPosts", () -> marketingService.getPostsPromotional(1, postPageSize));
+            var incentive = scope.fork("incentiveProgram",
+                    () -> incentiveProgramService.getInventiveProgramByStatus(incentiveStatus));
+            var news = scope.fork("news", () -> newsService.getNewsFeed(null, newsPageSize));
+
+            List<CarouselResponse> carouselResult = scope.join(carousels);
+            List<BannerResponse> bannerResult = scope.join(banners);
+            List<CategoryResponse> categoryResult = scope.join(categories);
+            PageResponse<RoomSalePostResponse> featuredResult = scope.join(featured);
+            PageResponse<RoomSalePostResponse> promotionalResult = scope.join(promotional);
+            // Không có chương trình ở trạng thái này là bình thường, không phải lỗi
+            IncentiveProgramResponse incentiveResult = scope.join(incentive, HomeFacade::isNotFound);
+            CursorPageResponse<ArticleSummaryResponse> newsResult = scope.join(news);
+
+            return HomeResponse.builder()
+                    .carousels(carouselResult)
+                    .banners(bannerResult)
+                    .categories(categoryResult)
+                    .featuredPosts(featuredResult)
+                    .promotionalPosts(promotionalResult)
+                    .incentiveProgram(incentiveResult)
+                    .news(newsResult)
+                    .unavailableSections(scope.failedSections())
+                    .build();
+        }
+    }
+
+    // Không vượt quá deadline client gửi qua X-Request-Timeout
+    private Duration timeout() {
+        Duration remaining = RequestDeadline.remaining();
+        return remaining != null && remaining.compareTo(sectionTimeout) < 0 ? remaining : sectionTimeout;
+    }
+
+    private int sectionSize(int size) {
+        return Math.max(1, Math.min(size, maxSectionSize));
+    }
+
+    private static boolean isNotFound(Throwable e) {
+        return e instanceof AppException appException
+                && appException.getErrorCode().getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND);
+    }
+}
@@ -39,6 +39,10 @@ public class IncentiveProgramFacade {
         return incentiveProgramService.getInventiveProgramByStatus(status);
     }
 
+    public List<IncentiveProgramResponse> getIncentiveProgramsByStatus(String status) {
+        return incentiveProgramService.getInventiveProgramsByStatus(status);
+    }
+
     public String deleteIncentiveProgram(String id) {
         incentiveProgramService.deleteInventiveProgram(id);
         return "Incentive Program deleted successfully";
@@ -5,13 +5,17 @@ import com.roomfinder.marketing.dto.request.FilterRequest;
 import com.roomfinder.marketing.dto.request.RoomSalePostRequest;
 import com.roomfinder.marketing.dto.request.SearchPostRequest;
 import com.roomfinder.marketing.dto.response.InfoMarketing;
+import com.roomfinder.marketing.dto.response.PostImportResponse;
 import com.roomfinder.marketing.dto.response.RoomSalePostResponse;
 import com.roomfinder.marketing.services.MarketingService;
+import com.roomfinder.marketing.services.PostImportService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
+
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +23,7 @@ import org.springframework.stereotype.Service;
 public class MarketingFacade {
 
     MarketingService marketingService;
+    PostImportService postImportService;
 
 
 
@@ -50,6 +55,16 @@ public class MarketingFacade {
         return marketingService.createPost(request);
     }
 
+    /**
+     * Creates many room sale posts from a JSON array or NDJSON stream.
+     *
+     * @param body the request body
+     * @return the outcome of every row
+     */
+    public PostImportResponse importPosts(InputStream body) {
+        return postImportService.importPosts(body);
+    }
+
     /**
      * Retrieves room sale posts with pagination.
      *
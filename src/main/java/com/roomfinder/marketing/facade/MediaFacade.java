@@ -1,7 +1,11 @@
 package com.roomfinder.marketing.facade;
 
-import com.roomfinder.marketing.repositories.entities.PostImage;
-import com.roomfinder.marketing.services.MediaService;
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.dto.request.UploadSessionRequest;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
+import com.roomfinder.marketing.dto.response.UploadSessionResponse;
+import com.roomfinder.marketing.services.MediaJobService;
+import com.roomfinder.marketing.services.UploadSessionService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -9,37 +13,28 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
-import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class MediaFacade {
 
-    MediaService mediaService;
+    UploadSessionService uploadSessionService;
+    MediaJobService mediaJobService;
 
-    public Set<PostImage> uploadImagesRoomSalePosts(String postId, List<MultipartFile> images) {
-        return mediaService.uploadImagesRoomSalePosts(postId, images);
-    }
-    public Set<PostImage> uploadImagesCarousel(String carouselId, List<MultipartFile> images) {
-        return mediaService.uploadImagesCarousel(carouselId, images);
-    }
-    public Set<PostImage> uploadImagesNews(String newId, List<MultipartFile> images) {
-        return mediaService.uploadImagesNews(newId, images);
-    }
-    public Set<PostImage> uploadImagesCategory(String categoryId, List<MultipartFile> images) {
-        return mediaService.uploadImagesCategory(categoryId, images);
+    public UploadSessionResponse createUploadSession(UploadSessionRequest request) {
+        return uploadSessionService.createSession(request);
     }
 
-    public Set<PostImage> uploadImagesIncentiveProgram(String incentiveId, List<MultipartFile> images) {
-        return mediaService.uploadImagesIncentiveProgram(incentiveId, images);
+    public MediaUploadResult completeUploadSession(String sessionId) {
+        return uploadSessionService.completeSession(sessionId);
     }
-    public Set<PostImage> uploadImagesRealEstateExperience(String realEstateExperienceId, List<MultipartFile> images) {
-        return mediaService.uploadImagesRealEstateExperience(realEstateExperienceId, images);
+
+    public MediaJobResponse enqueueUploadJob(String target, String targetId, List<MultipartFile> images) {
+        return mediaJobService.enqueue(target, targetId, images);
     }
 
-    public Set<PostImage> uploadImagesHospitalRoom(String id,List<MultipartFile> images)
-    {
-        return mediaService.uploadImagesHospitalRoom(id,images);
+    public MediaJobResponse getUploadJob(String jobId) {
+        return mediaJobService.getJob(jobId);
     }
 }
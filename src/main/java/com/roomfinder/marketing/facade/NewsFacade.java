@@ -1,7 +1,9 @@
 package com.roomfinder.marketing.facade;
 
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
 import com.roomfinder.marketing.services.NewsService;
 import lombok.AccessLevel;
@@ -27,6 +29,11 @@ public class NewsFacade {
         return newsService.getAllNews(page, size);
     }
 
+    // getNewsFeed
+    public CursorPageResponse<ArticleSummaryResponse> getNewsFeed(String cursor, int size) {
+        return newsService.getNewsFeed(cursor, size);
+    }
+
     // getNewsById
     public NewsResponse getNewsById(String id) {
         return newsService.getNewsById(id);
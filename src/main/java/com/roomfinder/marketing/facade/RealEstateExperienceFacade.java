@@ -1,7 +1,9 @@
 package com.roomfinder.marketing.facade;
 
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
 import com.roomfinder.marketing.services.RealEstateExperienceService;
 import lombok.AccessLevel;
@@ -28,6 +30,10 @@ public class RealEstateExperienceFacade {
         return realEstateExperienceService.getAllNews(page, size);
     }
 
+    public CursorPageResponse<ArticleSummaryResponse> getRealEstateExperienceFeed(String cursor, int size) {
+        return realEstateExperienceService.getNewsFeed(cursor, size);
+    }
+
     public NewsResponse getRealEstateExperienceById(String id) {
         return realEstateExperienceService.getNewsById(id);
     }
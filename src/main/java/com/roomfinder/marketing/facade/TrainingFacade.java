@@ -1,17 +1,28 @@
 package com.roomfinder.marketing.facade;
 
 import com.roomfinder.marketing.dto.GenericResponseAI;
+import com.roomfinder.marketing.dto.response.TrainingDeltaResponse;
+import com.roomfinder.marketing.dto.response.TrainingExportManifest;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import com.roomfinder.marketing.services.TrainingExportService;
 import com.roomfinder.marketing.services.TrainingService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class TrainingFacade {
     TrainingService trainingService;
+    TrainingCorpusService trainingCorpusService;
+    TrainingExportService trainingExportService;
     public GenericResponseAI getRoomIntents()
     {
         return trainingService.getRoomIntents();
@@ -43,4 +54,30 @@ public class TrainingFacade {
         return trainingService.getRoomIntentsPricingDetails();
     }
 
+    public void streamIntents(OutputStream out) throws IOException
+    {
+        trainingService.streamIntents(out);
+    }
+
+    public TrainingDeltaResponse getDelta(long since, int limit)
+    {
+        return trainingCorpusService.getDelta(since, limit);
+    }
+
+    public long reconcileCorpus()
+    {
+        return trainingCorpusService.reconcile();
+    }
+
+    public TrainingExportService.Artifact getExport()
+    {
+        return trainingExportService.current()
+                .orElseThrow(() -> new AppException(ErrorCode.TRAINING_EXPORT_NOT_READY));
+    }
+
+    public TrainingExportManifest runExport()
+    {
+        return trainingExportService.export();
+    }
+
 }
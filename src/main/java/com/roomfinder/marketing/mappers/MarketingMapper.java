@@ -9,16 +9,18 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = PostImageMapper.class)
 
 public interface MarketingMapper {
 
 
+    @Mapping(target = "expiresAt", ignore = true)
     RoomSalePostEntity toCreateRoomSalePost(RoomSalePostRequest request);
 
     RoomSalePostResponse toResponseRoomSalePost(RoomSalePostEntity entity);
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "roomId",ignore = true)
+    @Mapping(target = "expiresAt", ignore = true)
     void updateRoomSalePost(RoomSalePostRequest request, @MappingTarget RoomSalePostEntity entity);
     @Mapping(source = "roomSalePostEntity.id", target = "id")
     @Mapping(source = "promotionalRoomEntity.roomId", target = "roomId")
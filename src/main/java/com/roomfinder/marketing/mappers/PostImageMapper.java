@@ -0,0 +1,53 @@
+package com.roomfinder.marketing.mappers;
+
+import com.roomfinder.marketing.dto.response.ImageVariantResponse;
+import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.repositories.entities.ImageVariant;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.services.MediaStorage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Maps stored images to responses, resolving the URL clients should load (signed URL for
+ * objects in our bucket). Used by MapStruct mappers through {@code uses}.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PostImageMapper {
+
+    MediaStorage mediaStorage;
+
+    public PostImageResponse toPostImageResponse(PostImage postImage) {
+        if (postImage == null) {
+            return null;
+        }
+        return PostImageResponse.builder()
+                .name(postImage.getName())
+                .type(postImage.getType())
+                .urlImagePost(mediaStorage.resolveImageUrl(postImage.getUrlImagePost()))
+                .variants(toVariantResponses(postImage.getVariants()))
+                .placeholder(postImage.getPlaceholder())
+                .build();
+    }
+
+    private List<ImageVariantResponse> toVariantResponses(List<ImageVariant> variants) {
+        if (variants == null) {
+            return null;
+        }
+        return variants.stream()
+                .map(variant -> ImageVariantResponse.builder()
+                        .name(variant.getName())
+                        .format(variant.getFormat())
+                        .width(variant.getWidth())
+                        .height(variant.getHeight())
+                        .url(mediaStorage.resolveImageUrl(variant.getUrl()))
+                        .build())
+                .toList();
+    }
+}
@@ -35,6 +35,14 @@ public class GenericApiResponse<T> {
                 .build();
     }
 
+    public static <T> GenericApiResponse<T> success(T data, String message) {
+        return GenericApiResponse.<T>builder()
+                .responseCode(101000)
+                .data(data)
+                .message(message)
+                .build();
+    }
+
     @SuppressWarnings("unused")
     public static <T> GenericApiResponse<T> error(String errorMessage) {
         return GenericApiResponse.<T>builder()
@@ -0,0 +1,9 @@
+package com.roomfinder.marketing.repositories;
+
+import com.roomfinder.marketing.repositories.entities.MediaJobEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaJobRepository extends MongoRepository<MediaJobEntity, String> {
+}
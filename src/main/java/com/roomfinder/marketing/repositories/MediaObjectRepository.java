@@ -0,0 +1,14 @@
+package com.roomfinder.marketing.repositories;
+
+import com.roomfinder.marketing.repositories.entities.MediaObjectEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaObjectRepository extends MongoRepository<MediaObjectEntity, String> {
+    Optional<MediaObjectEntity> findByUrl(String url);
+
+    Optional<MediaObjectEntity> findFirstByPerceptualHashAndIdNot(String perceptualHash, String id);
+}
@@ -0,0 +1,9 @@
+package com.roomfinder.marketing.repositories;
+
+import com.roomfinder.marketing.repositories.entities.PaymentOutboxEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PaymentOutboxRepository extends MongoRepository<PaymentOutboxEntity, String> {
+}
@@ -1,20 +1,30 @@
 package com.roomfinder.marketing.repositories;
 
 import com.roomfinder.marketing.model.GenericApiResponse;
+import com.roomfinder.marketing.repositories.datamodel.BalanceDeduction;
 import com.roomfinder.marketing.repositories.clients.PaymentClient;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Slf4j
 @Repository
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class PaymentRepository {
     PaymentClient paymentClient;
+
+    @NonFinal
+    @Value("${payment.service-token}")
+    String serviceToken;
+
     public String minusBalance(int type,String roomId) {
         String result = null;
         GenericApiResponse<String> clientResponse = paymentClient.minusBalance(type,roomId);
@@ -24,4 +34,33 @@ public class PaymentRepository {
         }
         return result;
     }
+
+    /**
+     * Charges {@code userId} outside of a user request, authenticated with the service credential
+     * instead of the user's token.
+     */
+    public String minusBalance(int userId, int type, String roomId, String idempotencyKey) {
+        String result = null;
+        GenericApiResponse<String> clientResponse = paymentClient.minusBalance(type, roomId, userId,
+                "Bearer " + serviceToken, idempotencyKey);
+
+        if (ObjectUtils.isNotEmpty(clientResponse)) {
+            result = clientResponse.getData();
+        }
+        return result;
+    }
+
+    /**
+     * Charges several posts of {@code userId} as one transaction, with the service credential.
+     */
+    public String minusBalances(int userId, List<BalanceDeduction.Item> items, String idempotencyKey) {
+        String result = null;
+        GenericApiResponse<String> clientResponse = paymentClient.minusBalances(
+                new BalanceDeduction(userId, items), "Bearer " + serviceToken, idempotencyKey);
+
+        if (ObjectUtils.isNotEmpty(clientResponse)) {
+            result = clientResponse.getData();
+        }
+        return result;
+    }
 }
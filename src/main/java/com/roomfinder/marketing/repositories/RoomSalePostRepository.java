@@ -23,10 +23,6 @@ public interface RoomSalePostRepository extends MongoRepository<RoomSalePostEnti
     @Query("{ $text: { $search: ?0 } }")
     Page<RoomSalePostEntity> searchByText(String searchTerm, Pageable pageable);
 
-    Page<RoomSalePostEntity> findAllByUserId(int userId, Pageable pageable);
-
-    Page<RoomSalePostEntity> findAllByUserIdAndStatus(int userId, String status, Pageable pageable);
-
     Page<RoomSalePostEntity> findAllByStatusNotIn(List<String> excludedStatuses, Pageable pageable);
 
     @Query("{ 'status': { $nin: ?0 } }")
@@ -0,0 +1,15 @@
+package com.roomfinder.marketing.repositories;
+
+import com.roomfinder.marketing.repositories.entities.TrainingIntentEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TrainingIntentRepository extends MongoRepository<TrainingIntentEntity, String> {
+    List<TrainingIntentEntity> findByPostId(String postId);
+
+    List<TrainingIntentEntity> findByPostIdIn(Collection<String> postIds);
+}
@@ -0,0 +1,9 @@
+package com.roomfinder.marketing.repositories;
+
+import com.roomfinder.marketing.repositories.entities.UploadSessionEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UploadSessionRepository extends MongoRepository<UploadSessionEntity, String> {
+}
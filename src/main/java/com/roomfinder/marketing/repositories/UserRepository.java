@@ -4,13 +4,24 @@ import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.repositories.clients.UserClient;
 import com.roomfinder.marketing.repositories.clients.dto.InfoUserForCount;
 import com.roomfinder.marketing.repositories.clients.dto.UserResponse;
+import jakarta.annotation.PreDestroy;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Slf4j
 @Repository
 @RequiredArgsConstructor
@@ -18,6 +29,23 @@ import org.springframework.stereotype.Repository;
 public class UserRepository {
     UserClient userClient;
 
+    // Cache hồ sơ người dùng theo userId, dùng cho auditing (createdBy/modifiedBy)
+    ConcurrentMap<Integer, CachedProfile> profileCache = new ConcurrentHashMap<>();
+    Set<Integer> refreshingProfiles = ConcurrentHashMap.newKeySet();
+    ExecutorService profileRefreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @NonFinal
+    @Value("${user.profile.cache.ttl:PT10M}")
+    Duration profileTtl;
+
+    @NonFinal
+    @Value("${user.profile.cache.refresh-after:PT5M}")
+    Duration profileRefreshAfter;
+
+    @NonFinal
+    @Value("${user.profile.cache.max-size:10000}")
+    int profileMaxSize;
+
     public UserResponse getMyInfo() {
         UserResponse result = null;
         GenericApiResponse<UserResponse> clientResponse = userClient.getMyInfo();
@@ -27,6 +55,27 @@ public class UserRepository {
         }
         return result;
     }
+
+    /**
+     * Returns the profile of the given user from the local cache. A missing or expired entry is
+     * loaded synchronously; an entry older than the refresh threshold is served as-is while a
+     * background refresh reloads it with the caller's token.
+     */
+    public UserResponse getCachedProfile(int userId, String token) {
+        CachedProfile cached = profileCache.get(userId);
+        Instant now = Instant.now();
+        if (cached != null && cached.loadedAt().plus(profileTtl).isAfter(now)) {
+            if (cached.loadedAt().plus(profileRefreshAfter).isBefore(now)) {
+                refreshProfileAsync(userId, token);
+            }
+            return cached.profile();
+        }
+
+        UserResponse profile = getMyInfo();
+        cacheProfile(userId, profile);
+        return profile;
+    }
+
     public InfoUserForCount quantityUser() {
         InfoUserForCount result = null;
         GenericApiResponse<InfoUserForCount> clientResponse = userClient.countUser();
@@ -36,4 +85,44 @@ public class UserRepository {
         }
         return result;
     }
+
+    private void refreshProfileAsync(int userId, String token) {
+        if (!refreshingProfiles.add(userId)) {
+            return;
+        }
+        profileRefreshExecutor.execute(() -> {
+            try {
+                GenericApiResponse<UserResponse> clientResponse = userClient.getMyInfo("Bearer " + token);
+                if (ObjectUtils.isNotEmpty(clientResponse)) {
+                    cacheProfile(userId, clientResponse.getData());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to refresh profile of user {}: {}", userId, e.getMessage());
+            } finally {
+                refreshingProfiles.remove(userId);
+            }
+        });
+    }
+
+    private void cacheProfile(int userId, UserResponse profile) {
+        if (profile == null || profile.getId() != userId) {
+            return;
+        }
+        if (profileCache.size() >= profileMaxSize) {
+            Instant expiredBefore = Instant.now().minus(profileTtl);
+            profileCache.values().removeIf(entry -> entry.loadedAt().isBefore(expiredBefore));
+            if (profileCache.size() >= profileMaxSize) {
+                profileCache.clear();
+            }
+        }
+        profileCache.put(userId, new CachedProfile(profile, Instant.now()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        profileRefreshExecutor.shutdownNow();
+    }
+
+    private record CachedProfile(UserResponse profile, Instant loadedAt) {
+    }
 }
@@ -1,14 +1,31 @@
 package com.roomfinder.marketing.repositories.clients;
 
+import com.roomfinder.marketing.configuration.feign.ResilientFeignConfiguration;
 import com.roomfinder.marketing.configuration.security.AuthenticationRequestInterceptor;
 import com.roomfinder.marketing.model.GenericApiResponse;
+import com.roomfinder.marketing.repositories.datamodel.BalanceDeduction;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "payment",url = "${service.url.payment}", configuration = {AuthenticationRequestInterceptor.class})
+@FeignClient(name = "payment",url = "${service.url.payment}", configuration = {AuthenticationRequestInterceptor.class, ResilientFeignConfiguration.class})
 public interface PaymentClient {
     @GetMapping(value = "/userPayment/minusBalance",produces = MediaType.APPLICATION_JSON_VALUE)
     GenericApiResponse<String> minusBalance(@RequestParam int type,@RequestParam String roomId);
+
+    // Gọi từ outbox dispatcher: xác thực bằng service token, trừ tiền của userId thay vì người gọi
+    @GetMapping(value = "/userPayment/minusBalance",produces = MediaType.APPLICATION_JSON_VALUE)
+    GenericApiResponse<String> minusBalance(@RequestParam int type, @RequestParam String roomId, @RequestParam int userId,
+                                            @RequestHeader("Authorization") String authorization,
+                                            @RequestHeader("Idempotency-Key") String idempotencyKey);
+
+    // Trừ tiền nhiều bài đăng của một user trong một giao dịch (bulk import)
+    @PostMapping(value = "/userPayment/minusBalance/batch",produces = MediaType.APPLICATION_JSON_VALUE)
+    GenericApiResponse<String> minusBalances(@RequestBody BalanceDeduction deduction,
+                                             @RequestHeader("Authorization") String authorization,
+                                             @RequestHeader("Idempotency-Key") String idempotencyKey);
 }
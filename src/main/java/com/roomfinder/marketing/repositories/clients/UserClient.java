@@ -1,5 +1,6 @@
 package com.roomfinder.marketing.repositories.clients;
 
+import com.roomfinder.marketing.configuration.feign.ResilientFeignConfiguration;
 import com.roomfinder.marketing.configuration.security.AuthenticationRequestInterceptor;
 import com.roomfinder.marketing.model.GenericApiResponse;
 import com.roomfinder.marketing.repositories.clients.dto.InfoUserForCount;
@@ -10,10 +11,14 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 
-@FeignClient(name = "user",url = "${service.url.user}", configuration = {AuthenticationRequestInterceptor.class})
+@FeignClient(name = "user",url = "${service.url.user}", configuration = {AuthenticationRequestInterceptor.class, ResilientFeignConfiguration.class})
 public interface UserClient {
     @GetMapping(value = "/users/my-info",produces = MediaType.APPLICATION_JSON_VALUE)
     GenericApiResponse<UserResponse> getMyInfo();
+
+    // Dùng khi không có request hiện tại (refresh nền), token được truyền trực tiếp
+    @GetMapping(value = "/users/my-info",produces = MediaType.APPLICATION_JSON_VALUE)
+    GenericApiResponse<UserResponse> getMyInfo(@RequestHeader("Authorization") String authorization);
     @GetMapping("/api/v1/subscriptions/check-post-permission")
     GenericApiResponse<Boolean> canCreatePost(@RequestHeader("userId") Integer userId);
 
@@ -0,0 +1,32 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * List-view projection of an article (news, real estate experience): the title, the start of
+ * the description and the first image only.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ArticleSummary {
+    @Id
+    String id;
+    @Field("title")
+    String title;
+    @Field("excerpt")
+    String excerpt;
+    @Field("images")
+    List<PostImage> postImages;
+    @Field("createdDate")
+    Instant createdDate;
+}
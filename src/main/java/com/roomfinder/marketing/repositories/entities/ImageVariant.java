@@ -0,0 +1,27 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * A resized/re-encoded copy of an uploaded image (card, gallery, full).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ImageVariant {
+    @Field("name")
+    String name;
+    @Field("format")
+    String format;
+    @Field("width")
+    int width;
+    @Field("height")
+    int height;
+    @Field("url")
+    String url;
+}
@@ -4,6 +4,7 @@ import com.roomfinder.marketing.constants.Status;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -35,6 +36,9 @@ public class IncentiveProgramEntity {
     Instant endDate; // End date of the incentive program
     @Field("status")
     Status status; // Status of the incentive program
+    @Indexed(sparse = true)
+    @Field("next_transition_at")
+    Instant nextTransitionAt; // Next start/end boundary the lifecycle engine must apply, null when final
     @Field("images")
 
     Set<PostImage> postImages = new HashSet<>();
@@ -0,0 +1,32 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * Lease held by the instance currently running a scheduled job, so jobs that must not run
+ * concurrently execute on a single instance.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "jobLocks")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class JobLockEntity {
+    // Tên job
+    @Id
+    String id;
+
+    @Field("owner")
+    String owner;
+
+    @Field("lockedUntil")
+    Instant lockedUntil;
+}
@@ -0,0 +1,97 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Queued multipart upload. The files are staged in GridFS when the request is accepted, a worker
+ * leases the job, stores the files and attaches them to the target entity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "mediaJobs")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MediaJobEntity {
+    @Id
+    String id;
+
+    @Field("target")
+    String target; // MediaTarget
+
+    @Field("targetId")
+    String targetId;
+
+    @Field("userId")
+    Integer userId;
+
+    @Field("status")
+    String status; // MediaJobStatus
+
+    // File chưa lưu được lên storage; file lưu xong được bỏ khỏi danh sách sau mỗi lượt
+    @Field("files")
+    List<StagedFile> files;
+
+    @Field("attempts")
+    int attempts;
+
+    @Field("nextAttemptAt")
+    Instant nextAttemptAt;
+
+    @Field("lastError")
+    String lastError;
+
+    // Id của lần claim đang giữ job; worker đã mất lease không ghi đè được kết quả của worker sau
+    @Field("claim")
+    String claim;
+
+    // Ảnh đã lưu lên storage nhưng chưa chắc đã gắn vào entity, để retry không upload lại
+    @Field("pendingImages")
+    List<PostImage> pendingImages;
+
+    // Ảnh đã gắn vào entity
+    @Field("images")
+    List<PostImage> images;
+
+    @Field("failures")
+    List<MediaUploadResult.FailedUpload> failures;
+
+    @CreatedDate
+    @Field("createdDate")
+    Instant createdDate;
+
+    // Mongo TTL index: job đã xong được giữ 7 ngày cho client poll
+    @Indexed(expireAfterSeconds = 604800)
+    @Field("completedAt")
+    Instant completedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class StagedFile {
+        @Field("gridFsId")
+        String gridFsId;
+        @Field("name")
+        String name;
+        @Field("contentType")
+        String contentType;
+        @Field("size")
+        long size;
+    }
+}
@@ -0,0 +1,70 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Content-addressed index of stored media: one entry per distinct file content (SHA-256),
+ * shared by every PostImage that uploaded the same bytes. refCount tracks how many
+ * images point at the object so it is only deleted once the last one is released.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "mediaObjects")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class MediaObjectEntity {
+    // SHA-256 của nội dung file (hex)
+    @Id
+    String id;
+
+    @Indexed
+    @Field("objectName")
+    String objectName;
+
+    @Indexed(unique = true)
+    @Field("url")
+    String url;
+
+    @Field("contentType")
+    String contentType;
+
+    @Field("size")
+    long size;
+
+    @Field("refCount")
+    int refCount;
+
+    @Field("variants")
+    List<ImageVariant> variants;
+
+    @Field("placeholder")
+    String placeholder;
+
+    // dHash 64-bit (hex), hai ảnh gần giống nhau có cùng giá trị
+    @Indexed
+    @Field("perceptualHash")
+    String perceptualHash;
+
+    // Id của object khác có cùng perceptual hash, để đánh dấu ảnh gần trùng
+    @Field("nearDuplicateOf")
+    String nearDuplicateOf;
+
+    // Lần cuối object được dùng lại, để job dọn dẹp không xoá object vừa được tham chiếu
+    @Field("lastAcquiredAt")
+    Instant lastAcquiredAt;
+
+    @CreatedDate
+    @Field("createdDate")
+    Instant createdDate;
+}
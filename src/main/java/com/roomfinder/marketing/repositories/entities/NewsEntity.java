@@ -3,9 +3,11 @@ package com.roomfinder.marketing.repositories.entities;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -15,6 +17,8 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Document(collection = "news")
+// Keyset feed: sort createdDate desc, _id desc
+@CompoundIndex(name = "createdDate_id", def = "{'createdDate': -1, '_id': -1}")
 @FieldDefaults(level = AccessLevel.PRIVATE)
 
 public class NewsEntity {
@@ -26,4 +30,7 @@ public class NewsEntity {
     String description;
     @Field("images")
     Set<PostImage> postImages = new HashSet<>();
+    // Bài cũ có thể chưa có field này, được xếp cuối feed
+    @Field("createdDate")
+    Instant createdDate;
 }
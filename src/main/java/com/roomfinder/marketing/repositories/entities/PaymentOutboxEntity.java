@@ -0,0 +1,90 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Pending balance deduction, written before the post/featured change it pays for and
+ * delivered to the payment service by PaymentOutboxServiceImpl. The id doubles as the idempotency key.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "paymentOutbox")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PaymentOutboxEntity {
+    @Id
+    String id;
+
+    @Field("reason")
+    String reason; // PaymentReason
+
+    @Field("userId")
+    int userId;
+
+    @Field("roomId")
+    String roomId;
+
+    @Field("postId")
+    String postId;
+
+    @Field("typePackage")
+    int typePackage;
+
+    // POST_PACKAGES: các bài đăng được trừ tiền chung trong entry này, thay cho roomId/typePackage
+    @Field("items")
+    List<PackageItem> items;
+
+    @Field("status")
+    String status; // OutboxStatus
+
+    @Field("attempts")
+    int attempts;
+
+    @Field("nextAttemptAt")
+    Instant nextAttemptAt;
+
+    @Field("lastError")
+    String lastError;
+
+    // Id of the dispatcher claim currently holding the entry; updates from an older claim are ignored
+    @Indexed(sparse = true)
+    @Field("claim")
+    String claim;
+
+    // Featured state before this deduction, used to roll it back on failure
+    @Field("featuredCreated")
+    boolean featuredCreated;
+
+    @Field("previousFeaturedExpiry")
+    Instant previousFeaturedExpiry;
+
+    @CreatedDate
+    @Field("createdDate")
+    Instant createdDate;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class PackageItem {
+        @Field("roomId")
+        String roomId;
+        @Field("typePackage")
+        int typePackage;
+    }
+}
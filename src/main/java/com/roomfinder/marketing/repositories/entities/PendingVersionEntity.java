@@ -0,0 +1,35 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+
+/**
+ * A writer that is about to reserve versions of a sequence and has not finished writing them.
+ * Every version it reserves is greater than {@code floor}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "pendingVersions")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PendingVersionEntity {
+    @Id
+    String id;
+
+    @Field("sequence")
+    String sequence;
+
+    // Giá trị sequence đọc được ngay trước khi đăng ký
+    @Field("floor")
+    long floor;
+
+    @Field("createdAt")
+    Instant createdAt;
+}
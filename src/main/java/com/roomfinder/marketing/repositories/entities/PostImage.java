@@ -4,6 +4,8 @@ import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.util.List;
+
 
 @Getter
 @Setter
@@ -18,4 +20,10 @@ public class PostImage {
     String type;
     @Field("urlImagePost")
     String urlImagePost;
+    // Các bản resize (card/gallery/full), được ghi sau khi pipeline xử lý xong
+    @Field("variants")
+    List<ImageVariant> variants;
+    // Ảnh blur rất nhỏ dạng data URI để hiển thị trong lúc tải ảnh thật
+    @Field("placeholder")
+    String placeholder;
 }
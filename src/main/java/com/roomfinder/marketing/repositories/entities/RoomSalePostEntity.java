@@ -76,6 +76,8 @@ import jakarta.annotation.PostConstruct;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -87,12 +89,18 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Document(collection = "roomSalePosts")
+@CompoundIndex(name = "status_expiresAt", def = "{'status': 1, 'expiresAt': 1}")
+@CompoundIndex(name = "userId_status_createdDate", def = "{'userId': 1, 'status': 1, 'createdDate': -1}")
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class RoomSalePostEntity extends BaseEntity {
+    // Bài EXPIRED/REJECTED quá hạn lưu trữ được chuyển sang đây, cùng cấu trúc document
+    public static final String ARCHIVE_COLLECTION = "roomSalePostsArchive";
 
     @Id
     String id;
 
+    // Index được RoomIdBackfill tạo sau khi sửa các roomId trùng
+    @Indexed(name = "roomId_unique", unique = true, partialFilter = "{ 'roomId': { $type: 'string' } }")
     @Field("roomId")
     String roomId;
 
@@ -133,6 +141,10 @@ public class RoomSalePostEntity extends BaseEntity {
     int index;
     @Field("typePackage")
     int typePackage;
+
+    @Field("expiresAt")
+    Instant expiresAt;
+
     @PostConstruct
     public void initializeCreationDetails() {
         Instant now = Instant.now();
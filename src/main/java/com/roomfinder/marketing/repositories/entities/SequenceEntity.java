@@ -0,0 +1,25 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Named monotonic counter.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "sequences")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SequenceEntity {
+    @Id
+    String id;
+
+    @Field("value")
+    long value;
+}
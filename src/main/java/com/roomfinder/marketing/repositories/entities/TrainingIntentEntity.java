@@ -0,0 +1,59 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Materialized chatbot intent, one per post and intent family. Every change gets a new
+ * {@code version} from a global sequence so trainers can sync with {@code /train/delta?since=}.
+ * Removed intents stay as tombstones ({@code deleted=true}) so the removal reaches the trainer.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "trainingIntents")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TrainingIntentEntity {
+    // <postId>:<TrainingIntentType>
+    @Id
+    String id;
+
+    @Indexed
+    @Field("postId")
+    String postId;
+
+    @Field("type")
+    String type; // TrainingIntentType
+
+    @Field("tag")
+    String tag;
+
+    @Field("patterns")
+    List<String> patterns;
+
+    @Field("responses")
+    List<String> responses;
+
+    // So sánh nội dung để không tăng version khi bài đăng được lưu lại mà intent không đổi
+    @Field("fingerprint")
+    String fingerprint;
+
+    @Indexed
+    @Field("version")
+    long version;
+
+    @Field("deleted")
+    boolean deleted;
+
+    @Field("updatedAt")
+    Instant updatedAt;
+}
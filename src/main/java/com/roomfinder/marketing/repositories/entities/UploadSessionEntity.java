@@ -0,0 +1,71 @@
+package com.roomfinder.marketing.repositories.entities;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Direct-to-storage upload: the client PUTs each file to the issued URL, then calls the
+ * completion endpoint which verifies the objects and attaches them to the target entity.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "uploadSessions")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UploadSessionEntity {
+    @Id
+    String id;
+
+    @Field("target")
+    String target; // MediaTarget
+
+    @Field("targetId")
+    String targetId;
+
+    @Field("userId")
+    Integer userId;
+
+    @Field("files")
+    List<UploadSessionFile> files;
+
+    @Field("completed")
+    boolean completed;
+
+    // Mongo TTL index dọn session hết hạn
+    @Indexed(expireAfterSeconds = 86400)
+    @Field("expiresAt")
+    Instant expiresAt;
+
+    @CreatedDate
+    @Field("createdDate")
+    Instant createdDate;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class UploadSessionFile {
+        @Field("fileId")
+        int fileId;
+        @Field("name")
+        String name;
+        @Field("contentType")
+        String contentType;
+        @Field("maxSize")
+        long maxSize;
+        @Field("objectName")
+        String objectName;
+    }
+}
@@ -0,0 +1,15 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.dto.MediaOwner;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+
+import java.util.Collection;
+
+public interface ImageDerivativeService {
+
+    /**
+     * Queues derivative generation (resized variants, WebP copies, placeholder) for freshly
+     * uploaded images. Returns immediately; results are written onto the owner's images.
+     */
+    void scheduleDerivatives(MediaOwner owner, Collection<PostImage> images);
+}
@@ -0,0 +1,21 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.repositories.entities.IncentiveProgramEntity;
+
+public interface IncentiveProgramLifecycleService {
+
+    /**
+     * Sets status and next transition of a program that is about to be saved.
+     */
+    void apply(IncentiveProgramEntity program);
+
+    /**
+     * Re-evaluates a stored program, e.g. after images were attached to it.
+     */
+    void evaluate(String programId);
+
+    /**
+     * Applies every transition that is due. Returns the number of programs whose status changed.
+     */
+    int advance();
+}
@@ -13,6 +13,9 @@ public interface IncentiveProgramService {
 
     IncentiveProgramResponse getInventiveProgram(String id);
     IncentiveProgramResponse getInventiveProgramByStatus(String status);
+
+    List<IncentiveProgramResponse> getInventiveProgramsByStatus(String status);
+
     void deleteInventiveProgram(String id);
 
     List<IncentiveProgramResponse> getAllInventivePrograms();
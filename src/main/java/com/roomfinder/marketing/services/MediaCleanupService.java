@@ -0,0 +1,13 @@
+package com.roomfinder.marketing.services;
+
+public interface MediaCleanupService {
+
+    /**
+     * Mark-and-sweep over the media folders: deletes stored objects that no document references
+     * and that are older than the grace period.
+     */
+    SweepResult sweepOrphans();
+
+    record SweepResult(int referenced, long scanned, long deleted) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+public interface MediaJobService {
+
+    /**
+     * Stages the files and queues them for upload to the target entity. Returns as soon as the
+     * job is persisted; progress is read with {@link #getJob(String)}.
+     */
+    MediaJobResponse enqueue(String target, String targetId, List<MultipartFile> files);
+
+    MediaJobResponse getJob(String jobId);
+}
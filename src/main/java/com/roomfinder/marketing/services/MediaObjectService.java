@@ -0,0 +1,38 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.repositories.entities.ImageVariant;
+import com.roomfinder.marketing.repositories.entities.MediaObjectEntity;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface MediaObjectService {
+
+    /**
+     * Stores the file in {@code folder} unless an object with the same content already exists,
+     * in which case the existing object is reused and its reference count incremented.
+     */
+    MediaObjectEntity store(String folder, MultipartFile file);
+
+    /**
+     * Drops one reference per image; objects whose last reference is released are deleted
+     * from storage together with their variants. Images not tracked by the index are ignored.
+     */
+    void release(Collection<PostImage> images);
+
+    /**
+     * Records generated variants (and the perceptual hash) on the object so later uploads of the
+     * same content can reuse them.
+     */
+    void recordDerivatives(String url, List<ImageVariant> variants, String placeholder, String perceptualHash);
+
+    /**
+     * Removes the index entries of objects about to be deleted as orphans, except entries that
+     * were reused after {@code since}. Returns the object names that must be kept.
+     */
+    Set<String> retireOrphans(Collection<String> objectNames, Instant since);
+}
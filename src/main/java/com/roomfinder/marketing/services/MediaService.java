@@ -1,18 +1,31 @@
 package com.roomfinder.marketing.services;
 
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.MediaUploadResult;
 import com.roomfinder.marketing.repositories.entities.PostImage;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 public interface MediaService {
 
-    Set<PostImage> uploadImagesRoomSalePosts(String postId, List<MultipartFile> files);
-    Set<PostImage> uploadImagesCarousel(String carouselId, List<MultipartFile> files);
-    Set<PostImage> uploadImagesNews(String newId, List<MultipartFile> files);
-    Set<PostImage> uploadImagesCategory(String categoryId, List<MultipartFile> files);
-    Set<PostImage> uploadImagesIncentiveProgram(String incentiveId, List<MultipartFile> files);
-    Set<PostImage> uploadImagesRealEstateExperience(String realEstateExperienceId, List<MultipartFile> files);
-     Set<PostImage> uploadImagesHospitalRoom(String postId, List<MultipartFile> files);
+    MediaUploadResult uploadImagesRoomSalePosts(String postId, List<MultipartFile> files);
+    MediaUploadResult uploadImagesCarousel(String carouselId, List<MultipartFile> files);
+    MediaUploadResult uploadImagesNews(String newId, List<MultipartFile> files);
+    MediaUploadResult uploadImagesCategory(String categoryId, List<MultipartFile> files);
+    MediaUploadResult uploadImagesIncentiveProgram(String incentiveId, List<MultipartFile> files);
+    MediaUploadResult uploadImagesRealEstateExperience(String realEstateExperienceId, List<MultipartFile> files);
+     MediaUploadResult uploadImagesHospitalRoom(String postId, List<MultipartFile> files);
+
+    /**
+     * Stores files in the target's folder without attaching them to any document.
+     */
+    MediaUploadResult storeImages(MediaTarget target, List<MultipartFile> files);
+
+    /**
+     * Appends images to the target entity in one atomic update (activating it when the target
+     * requires so) and queues derivative generation. Throws POST_NOT_FOUND if the entity is gone.
+     */
+    void attachImages(MediaTarget target, String targetId, Collection<PostImage> images);
 }
@@ -0,0 +1,86 @@
+package com.roomfinder.marketing.services;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Object storage used by media handling. The backend is chosen with {@code media.storage.type}:
+ * {@code firebase} (default, Cloud Storage bucket) or {@code local} (filesystem, served by this
+ * service). Objects are addressed by name, e.g. {@code marketing/<uuid>_photo.jpg}; stored URLs
+ * are whatever {@link #upload} returned.
+ */
+public interface MediaStorage {
+
+    /**
+     * Streams the file into {@code folder} under a new unique name and returns its stored URL.
+     */
+    String upload(String folder, MultipartFile file);
+
+    /**
+     * Stores a small in-memory object (e.g. a generated variant) and returns its stored URL.
+     */
+    String uploadBytes(String objectName, String contentType, byte[] content);
+
+    /**
+     * Opens a stream on an object; the caller closes it.
+     */
+    InputStream openObject(String objectName);
+
+    /**
+     * Deletes objects; missing objects are ignored.
+     */
+    void deleteObjects(Collection<String> objectNames);
+
+    /**
+     * Returns the object name for a stored URL, or null if the URL does not belong to this storage.
+     */
+    String objectNameOf(String storedUrl);
+
+    /**
+     * Returns the URL clients should load for a stored URL (e.g. a signed URL).
+     */
+    String resolveImageUrl(String storedUrl);
+
+    /**
+     * Stored URL of an object, as {@link #upload} would return it.
+     */
+    String publicUrl(String objectName);
+
+    /**
+     * Issues a short-lived URL the client can upload {@code objectName} to directly.
+     *
+     * @param uploadToken opaque token identifying the upload session, for backends that
+     *                    receive the upload themselves
+     */
+    UploadTarget createUploadTarget(String objectName, String contentType, long maxSize, Duration ttl, String uploadToken);
+
+    /**
+     * Metadata of an existing object, empty if it does not exist.
+     */
+    Optional<StoredObject> stat(String objectName);
+
+    /**
+     * Streams the metadata of every object whose name starts with {@code prefix}, page by page,
+     * without holding the whole listing in memory.
+     */
+    void listObjects(String prefix, Consumer<StoredObject> consumer);
+
+    record UploadTarget(String url, String method, Map<String, String> headers) {
+    }
+
+    record StoredObject(String objectName, long size, String contentType, Instant createdAt) {
+    }
+
+    static String newObjectName(String folder, String originalFileName) {
+        String normalizedFolderName = folder.endsWith("/") ? folder.substring(0, folder.length() - 1) : folder;
+        return normalizedFolderName + "/" + UUID.randomUUID() + "_" + originalFileName;
+    }
+}
@@ -0,0 +1,13 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.repositories.entities.PaymentOutboxEntity;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface PaymentOutboxService {
+    PaymentOutboxEntity enqueuePostPackage(int userId, String roomId, int typePackage);
+    PaymentOutboxEntity enqueuePostPackages(int userId, Map<String, Integer> typePackageByRoomId);
+    PaymentOutboxEntity enqueueFeaturedAds(int userId, String roomId, int typePackage, boolean featuredCreated, Instant previousExpiry);
+    void dispatchPending();
+}
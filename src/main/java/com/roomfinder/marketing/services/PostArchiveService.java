@@ -0,0 +1,38 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+public interface PostArchiveService {
+
+    /**
+     * Moves EXPIRED and REJECTED posts older than {@code post.archive.retention} to the archive
+     * collection, in batches. Returns the number of posts moved.
+     */
+    int archive();
+
+    /**
+     * Posts of a user across the live and archive collections, newest first. A blank
+     * {@code status} matches every status.
+     */
+    Page<RoomSalePostEntity> findByUser(int userId, String status, Pageable pageable);
+
+    /**
+     * An archived post by id, for the detail, update and delete paths that miss in the live
+     * collection.
+     */
+    Optional<RoomSalePostEntity> findArchived(String id);
+
+    /**
+     * Writes changes to an archived post back to the archive collection.
+     */
+    RoomSalePostEntity saveArchived(RoomSalePostEntity post);
+
+    /**
+     * Deletes an archived post.
+     */
+    void deleteArchived(RoomSalePostEntity post);
+}
@@ -0,0 +1,26 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+
+import java.time.Instant;
+
+public interface PostExpiryService {
+
+    /**
+     * Expiry of a post under its package: paid packages follow the featured durations, free
+     * posts get {@code post.expiry.free-lifetime}. Counted from the creation date.
+     */
+    Instant expiryOf(RoomSalePostEntity post);
+
+    /**
+     * Switches every live post whose expiry has passed to EXPIRED, in batches. Returns the
+     * number of posts expired.
+     */
+    int expireDue();
+
+    /**
+     * Computes the expiry of posts created before expiries were stored, never earlier than
+     * {@code post.expiry.legacy-grace} from now. Returns the number of posts updated.
+     */
+    int backfill();
+}
@@ -0,0 +1,14 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.dto.response.PostImportResponse;
+
+import java.io.InputStream;
+
+public interface PostImportService {
+
+    /**
+     * Creates posts for the current user from a JSON array or an NDJSON stream of
+     * {@code RoomSalePostRequest}, reporting the outcome of every row.
+     */
+    PostImportResponse importPosts(InputStream body);
+}
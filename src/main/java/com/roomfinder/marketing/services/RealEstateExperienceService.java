@@ -1,7 +1,9 @@
 package com.roomfinder.marketing.services;
 
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
 
 public interface RealEstateExperienceService {
@@ -9,6 +11,8 @@ public interface RealEstateExperienceService {
     NewsResponse createNews(NewsRequest newsService);
     // get all market and trend
     PageResponse<NewsResponse> getAllNews(int page, int size);
+    // list view: newest first, keyset cursor, summary only
+    CursorPageResponse<ArticleSummaryResponse> getNewsFeed(String cursor, int size);
     // get market and trend by id
     NewsResponse getNewsById(String id);
     // update market and trend by id
@@ -0,0 +1,48 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.dto.response.TrainingDeltaResponse;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+
+import java.util.Collection;
+
+public interface TrainingCorpusService {
+
+    /**
+     * Recomputes the intents of a post from its current state; only intents whose content
+     * changed get a new version.
+     */
+    void refresh(RoomSalePostEntity post);
+
+    /**
+     * Same as {@link #refresh(RoomSalePostEntity)} for many posts, with one read and one write.
+     */
+    void refresh(Collection<RoomSalePostEntity> posts);
+
+    /**
+     * Reloads the post and refreshes its intents, or removes them if the post no longer exists.
+     */
+    void refresh(String postId);
+
+    void refreshByRoomId(String roomId);
+
+    /**
+     * Turns every intent of the post into a tombstone.
+     */
+    void remove(String postId);
+
+    /**
+     * Intents changed or removed after version {@code since}, in version order.
+     */
+    TrainingDeltaResponse getDelta(long since, int limit);
+
+    /**
+     * Highest version handed out so far; changes whenever any intent changes.
+     */
+    long currentVersion();
+
+    /**
+     * Refreshes every post and removes intents of posts that no longer exist. Returns the
+     * number of posts processed.
+     */
+    long reconcile();
+}
@@ -0,0 +1,22 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.dto.response.TrainingExportManifest;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface TrainingExportService {
+
+    /**
+     * The latest complete export, if one has been written.
+     */
+    Optional<Artifact> current();
+
+    /**
+     * Writes a new export now and makes it current.
+     */
+    TrainingExportManifest export();
+
+    record Artifact(Path file, TrainingExportManifest manifest) {
+    }
+}
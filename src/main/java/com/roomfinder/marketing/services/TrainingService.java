@@ -2,6 +2,9 @@ package com.roomfinder.marketing.services;
 
 import com.roomfinder.marketing.dto.GenericResponseAI;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 
 public interface TrainingService {
     GenericResponseAI getRoomIntents();
@@ -12,4 +15,9 @@ public interface TrainingService {
     GenericResponseAI getRoomIntentsUtility();
     GenericResponseAI getRoomIntentsPricingDetails();
 
+    /**
+     * Writes all intent families as NDJSON in one pass over the catalog.
+     */
+    void streamIntents(OutputStream out) throws IOException;
+
 }
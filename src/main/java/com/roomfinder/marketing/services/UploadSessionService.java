@@ -0,0 +1,25 @@
+package com.roomfinder.marketing.services;
+
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.dto.request.UploadSessionRequest;
+import com.roomfinder.marketing.dto.response.UploadSessionResponse;
+
+public interface UploadSessionService {
+
+    /**
+     * Issues one short-lived direct upload URL per file for the target entity.
+     */
+    UploadSessionResponse createSession(UploadSessionRequest request);
+
+    /**
+     * Verifies the uploaded objects and attaches them to the target entity as PostImages.
+     * Files that were not uploaded (or are invalid) are reported as failures.
+     */
+    MediaUploadResult completeSession(String sessionId);
+
+    /**
+     * Checks that {@code objectName} belongs to a live session and returns its size limit.
+     * Used by storage backends that receive direct uploads themselves.
+     */
+    long authorizeDirectUpload(String sessionId, String objectName);
+}
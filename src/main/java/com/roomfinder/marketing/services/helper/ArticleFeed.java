@@ -0,0 +1,133 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.dto.CursorPageResponse;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
+import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.entities.ArticleSummary;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keyset-paginated list view over article collections (news, real estate experience).
+ * <p>
+ * Sắp xếp theo createdDate giảm dần rồi _id giảm dần (index {@code createdDate_id}), nên thứ tự
+ * ổn định và trang sâu không phải skip qua các trang trước. Chỉ project title, đoạn đầu của
+ * description và ảnh đầu tiên; nội dung đầy đủ chỉ trả ở API chi tiết. Bài cũ chưa có
+ * createdDate được xếp cuối feed.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ArticleFeed {
+    private static final char SEPARATOR = '|';
+
+    MongoTemplate mongoTemplate;
+
+    @NonFinal
+    @Value("${article.feed.excerpt-length:200}")
+    int excerptLength;
+
+    @NonFinal
+    @Value("${article.feed.max-page-size:50}")
+    int maxPageSize;
+
+    /**
+     * One page of {@code entityType}'s collection after {@code cursor} (null for the first page).
+     */
+    public CursorPageResponse<ArticleSummaryResponse> page(Class<?> entityType, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        List<AggregationOperation> operations = new ArrayList<>();
+        if (cursor != null && !cursor.isBlank()) {
+            operations.add(Aggregation.match(after(cursor)));
+        }
+        operations.add(Aggregation.sort(Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("_id"))));
+        operations.add(Aggregation.limit(pageSize + 1L));
+        operations.add(Aggregation.project("title", "createdDate")
+                .and(StringOperators.valueOf(ConditionalOperators.ifNull("description").then(""))
+                        .substringCP(0, excerptLength)).as("excerpt")
+                .and(ArrayOperators.arrayOf("images").slice().itemCount(1)).as("images"));
+
+        List<ArticleSummary> summaries = mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+                mongoTemplate.getCollectionName(entityType), ArticleSummary.class).getMappedResults();
+        boolean hasMore = summaries.size() > pageSize;
+        if (hasMore) {
+            summaries = summaries.subList(0, pageSize);
+        }
+        return CursorPageResponse.<ArticleSummaryResponse>builder()
+                .pageSize(pageSize)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encode(summaries.get(summaries.size() - 1)) : null)
+                .data(summaries.stream().map(ArticleFeed::toResponse).toList())
+                .build();
+    }
+
+    private static ArticleSummaryResponse toResponse(ArticleSummary summary) {
+        PostImage first = summary.getPostImages() == null || summary.getPostImages().isEmpty()
+                ? null : summary.getPostImages().get(0);
+        return ArticleSummaryResponse.builder()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .excerpt(summary.getExcerpt())
+                .thumbnail(first == null ? null : PostImageResponse.builder()
+                        .name(first.getName())
+                        .type(first.getType())
+                        .urlImagePost(first.getUrlImagePost())
+                        .build())
+                .createdDate(summary.getCreatedDate())
+                .build();
+    }
+
+    // Cursor: "<createdDate millis>|<id>", createdDate rỗng với bài cũ
+    static String encode(ArticleSummary last) {
+        String createdDate = last.getCreatedDate() == null ? "" : String.valueOf(last.getCreatedDate().toEpochMilli());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdDate + SEPARATOR + last.getId()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Criteria after(String cursor) {
+        String decoded;
+        int separator;
+        Instant createdDate;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            separator = decoded.indexOf(SEPARATOR);
+            createdDate = separator <= 0 ? null : Instant.ofEpochMilli(Long.parseLong(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        if (separator < 0 || separator == decoded.length() - 1) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+        // Aggregation không map kiểu của _id, tự chuyển sang ObjectId
+        String rawId = decoded.substring(separator + 1);
+        Object id = ObjectId.isValid(rawId) ? new ObjectId(rawId) : rawId;
+
+        if (createdDate == null) {
+            return Criteria.where("createdDate").is(null).and("_id").lt(id);
+        }
+        Date date = Date.from(createdDate);
+        return new Criteria().orOperator(
+                Criteria.where("createdDate").lt(date),
+                Criteria.where("createdDate").is(date).and("_id").lt(id),
+                Criteria.where("createdDate").is(null));
+    }
+}
@@ -0,0 +1,150 @@
+package com.roomfinder.marketing.services.helper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Fans the independent sections of a composite response out to virtual threads.
+ * <p>
+ * Dùng như một structured scope: mọi section được fork trong {@link Scope}, kết quả lấy ra theo
+ * deadline chung của scope, và khi đóng scope thì section nào chưa xong bị huỷ rồi được chờ kết thúc
+ * (tối đa {@link #CLOSE_TIMEOUT}), để không task nào còn dùng request attributes sau khi request
+ * xong. Section lỗi hoặc quá hạn trả về null và được ghi vào {@link Scope#failedSections()} để
+ * response vẫn trả được phần còn lại.
+ * Request attributes và security context của thread gọi được truyền sang từng section.
+ */
+@Slf4j
+@Component
+public class ConcurrentSections {
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Opens a scope whose sections must complete within {@code timeout} from now.
+     */
+    public Scope open(Duration timeout) {
+        return new Scope(System.nanoTime() + timeout.toNanos());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public final class Scope implements AutoCloseable {
+        private final long deadlineNanos;
+        private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+        private final List<Forked> forked = new ArrayList<>();
+        private final List<String> failed = new ArrayList<>();
+
+        private Scope(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Section<T> fork(String name, Callable<T> task) {
+            Forked tracked = new Forked(name);
+            Future<T> future = executor.submit(() -> {
+                if (!tracked.started.compareAndSet(false, true)) {
+                    // Scope đã đóng trước khi task kịp chạy
+                    throw new CancellationException();
+                }
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return task.call();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    RequestContextHolder.resetRequestAttributes();
+                    tracked.finished.countDown();
+                }
+            });
+            tracked.future = future;
+            forked.add(tracked);
+            return new Section<>(name, future);
+        }
+
+        /**
+         * Result of {@code section}, or null if it failed or did not finish before the deadline.
+         * Exceptions accepted by {@code expected} (e.g. not found) also give null but are not
+         * reported as failures.
+         */
+        public <T> T join(Section<T> section, Predicate<Throwable> expected) {
+            try {
+                return section.future().get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                section.future().cancel(true);
+                log.warn("Section {} missed its deadline", section.name());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                section.future().cancel(true);
+            } catch (ExecutionException e) {
+                if (expected.test(e.getCause())) {
+                    return null;
+                }
+                log.warn("Section {} failed", section.name(), e.getCause());
+            }
+            failed.add(section.name());
+            return null;
+        }
+
+        public <T> T join(Section<T> section) {
+            return join(section, e -> false);
+        }
+
+        public List<String> failedSections() {
+            return List.copyOf(failed);
+        }
+
+        /**
+         * Cancels the unfinished sections and waits, up to {@link #CLOSE_TIMEOUT}, for those already
+         * running to return, like {@code StructuredTaskScope.close()}.
+         */
+        @Override
+        public void close() {
+            forked.forEach(tracked -> tracked.future.cancel(true));
+            long closeDeadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+            for (Forked tracked : forked) {
+                // Task chưa bắt đầu thì sẽ không bao giờ chạy nữa
+                if (tracked.started.compareAndSet(false, true)) {
+                    continue;
+                }
+                try {
+                    if (!tracked.finished.await(Math.max(0, closeDeadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                        log.warn("Section {} still running {} after its scope was closed", tracked.name, CLOSE_TIMEOUT);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Forked {
+        private final String name;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private Future<?> future;
+
+        private Forked(String name) {
+            this.name = name;
+        }
+    }
+
+    public record Section<T>(String name, Future<T> future) {
+    }
+}
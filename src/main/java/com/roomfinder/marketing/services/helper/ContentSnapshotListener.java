@@ -0,0 +1,30 @@
+package com.roomfinder.marketing.services.helper;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds CMS snapshots after entities are saved or deleted through repositories.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ContentSnapshotListener extends AbstractMongoEventListener<Object> {
+
+    ContentSnapshots contentSnapshots;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        contentSnapshots.changed(event.getCollectionName());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        contentSnapshots.changed(event.getCollectionName());
+    }
+}
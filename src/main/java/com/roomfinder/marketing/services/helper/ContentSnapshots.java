@@ -0,0 +1,152 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.BannerEntity;
+import com.roomfinder.marketing.repositories.entities.CarouselEntity;
+import com.roomfinder.marketing.repositories.entities.CategoryEntity;
+import com.roomfinder.marketing.repositories.entities.IncentiveProgramEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory snapshots of CMS collections (carousel, banner, category, incentive program).
+ * <p>
+ * Mỗi collection có một snapshot là list response đã map sẵn, được load lần đầu khi có request
+ * và thay thế nguyên khối (atomic) mỗi khi dữ liệu đổi, nên request đọc không chạm Mongo. Mỗi lần
+ * ghi tăng version của collection trong {@code sequences}; instance khác poll version này mỗi
+ * {@code content.snapshot.poll-interval} để rebuild snapshot của mình.
+ * <p>
+ * Thay đổi qua repository được {@link ContentSnapshotListener} bắt; code update trực tiếp bằng
+ * MongoTemplate phải gọi {@link #changed(String)}.
+ */
+@Slf4j
+@Component
+public class ContentSnapshots {
+    private static final String SEQUENCE_PREFIX = "content:";
+    private static final List<Class<?>> CONTENT_TYPES = List.of(
+            CarouselEntity.class, BannerEntity.class, CategoryEntity.class, IncentiveProgramEntity.class);
+
+    private final SequenceGenerator sequenceGenerator;
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Set<String> collections;
+    private final Map<String, Holder<?>> snapshots = new ConcurrentHashMap<>();
+
+    public ContentSnapshots(SequenceGenerator sequenceGenerator, MongoTemplate mongoTemplate,
+                            @Value("${content.snapshot.enabled:true}") boolean enabled) {
+        this.sequenceGenerator = sequenceGenerator;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        // Chỉ đọc mapping metadata, không kết nối Mongo
+        this.collections = CONTENT_TYPES.stream()
+                .map(mongoTemplate::getCollectionName)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * The current snapshot of {@code entityType}'s collection, loaded with {@code loader} on first use.
+     * The loader of the first call is kept for later rebuilds.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(Class<?> entityType, Supplier<List<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String collection = mongoTemplate.getCollectionName(entityType);
+        Holder<T> holder = (Holder<T>) snapshots.computeIfAbsent(collection, name -> new Holder<>(name, loader));
+        return holder.get().items();
+    }
+
+    /**
+     * Records a change of {@code collection}: bumps its version and rebuilds the local snapshot.
+     * Ignores collections that are not snapshotted. Never throws: the write itself already succeeded.
+     */
+    public void changed(String collection) {
+        if (!enabled || !collections.contains(collection)) {
+            return;
+        }
+        try {
+            long version = sequenceGenerator.reserve(SEQUENCE_PREFIX + collection, 1);
+            Holder<?> holder = snapshots.get(collection);
+            if (holder != null) {
+                holder.rebuild(version);
+            }
+        } catch (Exception e) {
+            // Snapshot cũ được giữ tới lần ghi hoặc lần poll tiếp theo
+            log.warn("Could not refresh {} snapshot", collection, e);
+        }
+    }
+
+    public void changed(Class<?> entityType) {
+        changed(mongoTemplate.getCollectionName(entityType));
+    }
+
+    @Scheduled(fixedDelayString = "${content.snapshot.poll-interval:PT5S}")
+    public void pollVersions() {
+        if (!enabled || snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Long> versions = sequenceGenerator.current(snapshots.keySet().stream()
+                    .map(collection -> SEQUENCE_PREFIX + collection)
+                    .toList());
+            snapshots.forEach((collection, holder) -> {
+                long version = versions.getOrDefault(SEQUENCE_PREFIX + collection, 0L);
+                if (version > holder.version()) {
+                    holder.rebuild(version);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Could not refresh content snapshots", e);
+        }
+    }
+
+    record Snapshot<T>(long version, List<T> items) {
+    }
+
+    private final class Holder<T> {
+        private final String collection;
+        private final Supplier<List<T>> loader;
+        private volatile Snapshot<T> current;
+
+        Holder(String collection, Supplier<List<T>> loader) {
+            this.collection = collection;
+            this.loader = loader;
+        }
+
+        Snapshot<T> get() {
+            Snapshot<T> snapshot = current;
+            if (snapshot != null) {
+                return snapshot;
+            }
+            synchronized (this) {
+                if (current == null) {
+                    rebuild(sequenceGenerator.current(SEQUENCE_PREFIX + collection));
+                }
+                return current;
+            }
+        }
+
+        long version() {
+            Snapshot<T> snapshot = current;
+            return snapshot == null ? Long.MAX_VALUE : snapshot.version();
+        }
+
+        // Rebuild tuần tự: lần rebuild chạy sau luôn load sau mọi lần ghi đã gọi changed() trước nó
+        synchronized void rebuild(long version) {
+            List<T> items = List.copyOf(loader.get());
+            long previous = current == null ? 0 : current.version();
+            current = new Snapshot<>(Math.max(version, previous), items);
+            log.debug("Rebuilt {} snapshot v{} ({} items)", collection, current.version(), items.size());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Resolves the current user from the JWT already decoded by Spring Security,
+ * so request paths don't need a round trip to the user service just to learn the user id.
+ */
+@Slf4j
+@Component
+public class CurrentUserResolver {
+    private static final String USER_ID_CLAIM = "userId";
+
+    public Optional<Jwt> findCurrentJwt() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return Optional.of(jwt);
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Integer> findCurrentUserId() {
+        return findCurrentJwt()
+                .map(jwt -> jwt.getClaim(USER_ID_CLAIM))
+                .map(claim -> {
+                    try {
+                        return Integer.parseInt(claim.toString());
+                    } catch (NumberFormatException e) {
+                        log.error("Invalid userId claim in token: {}", claim);
+                        return null;
+                    }
+                });
+    }
+
+    public boolean hasRole(String role) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals(role));
+    }
+
+    /**
+     * Lấy userId từ JWT, ném UNAUTHENTICATED nếu request không có token hợp lệ.
+     */
+    public int getCurrentUserId() {
+        return findCurrentUserId().orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED));
+    }
+}
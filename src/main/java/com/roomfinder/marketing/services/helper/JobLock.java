@@ -0,0 +1,54 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.JobLockEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Mongo-backed lease for scheduled jobs. Every instance schedules the job, only the one that
+ * acquires the lease runs it; a crashed holder loses the lease once it expires.
+ */
+@Slf4j
+@Component
+public class JobLock {
+    private final MongoTemplate mongoTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobLock(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Acquires (or extends) the lease on {@code job}. Returns false if another instance holds it.
+     */
+    public boolean tryAcquire(String job, Duration lease) {
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(job)
+                .orOperator(Criteria.where("lockedUntil").lt(now), Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("lockedUntil", now.plus(lease));
+        try {
+            // upsert khi job chưa có lease; trùng _id nghĩa là instance khác đang giữ
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLockEntity.class) != null;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public void release(String job) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job).and("owner").is(owner)),
+                Update.update("lockedUntil", Instant.EPOCH), JobLockEntity.class);
+    }
+}
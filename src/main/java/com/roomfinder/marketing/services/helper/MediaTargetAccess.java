@@ -0,0 +1,59 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.entities.BaseEntity;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether the current user may attach images to a target entity.
+ * <p>
+ * Target chỉ dành cho admin (carousel, news, ...) yêu cầu ROLE_ADMIN; các target còn lại (bài
+ * đăng, phòng bệnh viện) chỉ chủ sở hữu theo {@code userId} hoặc admin mới được upload.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class MediaTargetAccess {
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    MongoTemplate mongoTemplate;
+    CurrentUserResolver currentUserResolver;
+
+    /**
+     * Throws UNAUTHORIZED/UNAUTHENTICATED when the current user may not upload to the target,
+     * POST_NOT_FOUND when it does not exist.
+     */
+    public void checkWritable(MediaTarget target, String targetId) {
+        boolean admin = currentUserResolver.hasRole(ADMIN_ROLE);
+        if (target.isAdminOnly() && !admin) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        if (targetId == null) {
+            throw new AppException(ErrorCode.POST_NOT_FOUND);
+        }
+        Query query = Query.query(Criteria.where("_id").is(targetId));
+        if (admin || target.isAdminOnly()) {
+            if (!mongoTemplate.exists(query, target.getEntityType())) {
+                throw new AppException(ErrorCode.POST_NOT_FOUND);
+            }
+            return;
+        }
+        int userId = currentUserResolver.getCurrentUserId();
+        query.fields().include("userId");
+        Object owner = mongoTemplate.findOne(query, target.getEntityType());
+        if (owner == null) {
+            throw new AppException(ErrorCode.POST_NOT_FOUND);
+        }
+        if (!(owner instanceof BaseEntity entity) || entity.getUserId() != userId) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+    }
+}
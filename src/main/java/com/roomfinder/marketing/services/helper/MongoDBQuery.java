@@ -6,6 +6,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
 import org.springframework.data.mongodb.core.aggregation.LookupOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -235,4 +236,37 @@ public class MongoDBQuery {
         return Aggregation.newAggregation(operations);
     }
 
+    /**
+     * Builds a single aggregation over favoriteRoom that joins each favorite with its room post
+     * and promotional info, drops favorites whose room no longer exists, and returns the page
+     * together with the total count in one round trip ({@code data} and {@code total} facets).
+     */
+    public Aggregation buildFavoriteAggregation(int userId, PageRequest pageable) {
+        List<AggregationOperation> operations = new ArrayList<>();
+
+        operations.add(Aggregation.match(Criteria.where("userId").is(userId)));
+        operations.add(Aggregation.sort(Sort.by(Sort.Order.desc("index"))));
+
+        // Join room post, keep only the first match and skip dangling favorites
+        operations.add(Aggregation.lookup("roomSalePosts", "roomId", "roomId", "room"));
+        operations.add(Aggregation.addFields()
+                .addFieldWithValue("room", ArrayOperators.ArrayElemAt.arrayOf("room").elementAt(0))
+                .build());
+        operations.add(Aggregation.match(Criteria.where("room").exists(true)));
+
+        // Paginate first, then join promotional info only for the rooms on this page
+        operations.add(Aggregation.facet(
+                        Aggregation.skip(pageable.getOffset()),
+                        Aggregation.limit(pageable.getPageSize()),
+                        Aggregation.lookup("promotionalRoom", "roomId", "roomId", "promotional"),
+                        Aggregation.addFields()
+                                .addFieldWithValue("promotional", ArrayOperators.ArrayElemAt.arrayOf("promotional").elementAt(0))
+                                .build())
+                .as("data")
+                .and(Aggregation.count().as("count"))
+                .as("total"));
+
+        return Aggregation.newAggregation(operations);
+    }
+
 }
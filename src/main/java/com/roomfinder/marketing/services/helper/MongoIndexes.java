@@ -0,0 +1,83 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.IncentiveProgramEntity;
+import com.roomfinder.marketing.repositories.entities.MediaJobEntity;
+import com.roomfinder.marketing.repositories.entities.MediaObjectEntity;
+import com.roomfinder.marketing.repositories.entities.NewsEntity;
+import com.roomfinder.marketing.repositories.entities.PaymentOutboxEntity;
+import com.roomfinder.marketing.repositories.entities.RealEstateExperienceEntity;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.repositories.entities.TrainingIntentEntity;
+import com.roomfinder.marketing.repositories.entities.UploadSessionEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates the indexes declared with {@code @Indexed}/{@code @CompoundIndex} on the listed
+ * entities.
+ * <p>
+ * {@code spring.data.mongodb.auto-index-creation} mặc định tắt, và bật lên thì index được tạo
+ * ngay lúc khởi tạo mapping context (cần Mongo sẵn sàng khi start). Job này đọc đúng các khai báo
+ * trên entity rồi tạo index sau khi ứng dụng chạy, thử lại tới khi tất cả thành công.
+ */
+@Slf4j
+@Component
+public class MongoIndexes {
+    private static final List<Class<?>> ENTITY_TYPES = List.of(
+            PaymentOutboxEntity.class,
+            MediaObjectEntity.class,
+            UploadSessionEntity.class,
+            MediaJobEntity.class,
+            TrainingIntentEntity.class,
+            NewsEntity.class,
+            RealEstateExperienceEntity.class,
+            IncentiveProgramEntity.class,
+            RoomSalePostEntity.class);
+    // Được RoomIdBackfill tạo sau khi sửa các roomId trùng
+    private static final Set<String> OWNED_ELSEWHERE = Set.of("roomId_unique");
+
+    private final MongoTemplate mongoTemplate;
+    private final IndexResolver indexResolver;
+    private final boolean enabled;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    public MongoIndexes(MongoTemplate mongoTemplate,
+                        @Value("${mongo.indexes.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.indexResolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        this.enabled = enabled;
+    }
+
+    @Scheduled(initialDelayString = "${mongo.indexes.initial-delay:PT10S}",
+            fixedDelayString = "${mongo.indexes.retry-interval:PT10M}")
+    public void ensureIndexes() {
+        if (!enabled || done.get()) {
+            return;
+        }
+        boolean allCreated = true;
+        for (Class<?> entityType : ENTITY_TYPES) {
+            for (IndexDefinition index : indexResolver.resolveIndexFor(entityType)) {
+                if (OWNED_ELSEWHERE.contains(index.getIndexOptions().getString("name"))) {
+                    continue;
+                }
+                try {
+                    mongoTemplate.indexOps(entityType).ensureIndex(index);
+                } catch (Exception e) {
+                    allCreated = false;
+                    log.error("Could not create index {} on {}", index.getIndexKeys(),
+                            mongoTemplate.getCollectionName(entityType), e);
+                }
+            }
+        }
+        done.set(allCreated);
+    }
+}
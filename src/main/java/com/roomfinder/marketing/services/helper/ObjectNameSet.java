@@ -0,0 +1,92 @@
+package com.roomfinder.marketing.services.helper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact set of object names for mark-and-sweep: each name is stored as a 64-bit hash in an
+ * open-addressing {@code long[]}, about 16 bytes per name instead of a String plus HashSet node.
+ * A hash collision can only make an unreferenced object look referenced (it is kept), never
+ * the other way round.
+ */
+public final class ObjectNameSet {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    // 0 đánh dấu ô trống, hash 0 được đổi thành giá trị khác
+    private static final long EMPTY = 0L;
+
+    private long[] table;
+    private int size;
+
+    public ObjectNameSet(int expectedSize) {
+        table = new long[tableSizeFor(Math.max(16, expectedSize))];
+    }
+
+    public void add(String objectName) {
+        long hash = hash(objectName);
+        if ((size + 1) * 2L > table.length) {
+            resize();
+        }
+        if (insert(table, hash)) {
+            size++;
+        }
+    }
+
+    public boolean contains(String objectName) {
+        long hash = hash(objectName);
+        int mask = table.length - 1;
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            long slot = table[i];
+            if (slot == EMPTY) {
+                return false;
+            }
+            if (slot == hash) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] next = new long[table.length * 2];
+        for (long hash : table) {
+            if (hash != EMPTY) {
+                insert(next, hash);
+            }
+        }
+        table = next;
+    }
+
+    private static boolean insert(long[] table, long hash) {
+        int mask = table.length - 1;
+        for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+            if (table[i] == EMPTY) {
+                table[i] = hash;
+                return true;
+            }
+            if (table[i] == hash) {
+                return false;
+            }
+        }
+    }
+
+    private static int index(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        return Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+    }
+
+    // FNV-1a 64-bit
+    private static long hash(String objectName) {
+        long hash = FNV_OFFSET;
+        for (byte b : objectName.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash == EMPTY ? 1L : hash;
+    }
+}
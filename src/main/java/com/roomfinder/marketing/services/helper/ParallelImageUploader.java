@@ -0,0 +1,166 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Uploads a batch of files on virtual threads.
+ * <p>
+ * Mỗi file tốn vài round trip tới storage, nên upload tuần tự một bài đăng 15 ảnh rất chậm.
+ * Concurrency bị giới hạn ở hai mức: {@code media.upload.max-concurrency-per-request} cho
+ * một request và {@code media.upload.max-concurrency} cho toàn bộ instance, để một request
+ * lớn không chiếm hết kết nối tới storage. Kết quả giữ đúng thứ tự file gửi lên; file lỗi
+ * được trả về trong {@link MediaUploadResult#getFailures()} thay vì làm hỏng cả batch.
+ */
+@Slf4j
+@Component
+public class ParallelImageUploader {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore globalPermits;
+    private final boolean parallelEnabled;
+    private final int maxPerRequest;
+    private final Duration batchTimeout;
+
+    public ParallelImageUploader(
+            @Value("${media.upload.parallel.enabled:true}") boolean parallelEnabled,
+            @Value("${media.upload.max-concurrency:32}") int maxConcurrency,
+            @Value("${media.upload.max-concurrency-per-request:6}") int maxPerRequest,
+            @Value("${media.upload.batch-timeout:PT2M}") Duration batchTimeout) {
+        this.parallelEnabled = parallelEnabled;
+        this.globalPermits = new Semaphore(Math.max(1, maxConcurrency), true);
+        this.maxPerRequest = Math.max(1, maxPerRequest);
+        this.batchTimeout = batchTimeout;
+    }
+
+    /**
+     * Uploads every file with {@code uploader}. Throws {@link ErrorCode#FILE_UPLOAD_FAILED}
+     * only when no file could be uploaded.
+     */
+    public MediaUploadResult uploadAll(List<MultipartFile> files, Function<MultipartFile, PostImage> uploader) {
+        List<Outcome> outcomes = parallelEnabled && files.size() > 1
+                ? uploadInParallel(files, uploader)
+                : uploadSequentially(files, uploader);
+
+        Set<PostImage> images = new LinkedHashSet<>();
+        List<MediaUploadResult.FailedUpload> failures = new ArrayList<>();
+        for (int i = 0; i < outcomes.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            if (outcome.image() != null) {
+                images.add(outcome.image());
+            } else {
+                failures.add(MediaUploadResult.FailedUpload.builder()
+                        .index(i)
+                        .name(files.get(i).getOriginalFilename())
+                        .reason(outcome.reason())
+                        .build());
+            }
+        }
+
+        if (images.isEmpty()) {
+            log.error("All {} uploads failed: {}", files.size(), failures);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+        if (!failures.isEmpty()) {
+            log.warn("Uploaded {} of {} files, failed: {}", images.size(), files.size(), failures);
+        }
+        return MediaUploadResult.builder().images(images).failures(failures).build();
+    }
+
+    private List<Outcome> uploadSequentially(List<MultipartFile> files, Function<MultipartFile, PostImage> uploader) {
+        List<Outcome> outcomes = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            outcomes.add(uploadOne(file, uploader));
+        }
+        return outcomes;
+    }
+
+    private List<Outcome> uploadInParallel(List<MultipartFile> files, Function<MultipartFile, PostImage> uploader) {
+        Semaphore requestPermits = new Semaphore(Math.min(maxPerRequest, files.size()));
+        List<Future<Outcome>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(executor.submit(() -> {
+                // Lấy permit của request trước để không giữ slot global trong lúc chờ
+                requestPermits.acquire();
+                try {
+                    globalPermits.acquire();
+                    try {
+                        return uploadOne(file, uploader);
+                    } finally {
+                        globalPermits.release();
+                    }
+                } finally {
+                    requestPermits.release();
+                }
+            }));
+        }
+
+        long deadline = System.nanoTime() + batchTimeout.toNanos();
+        List<Outcome> outcomes = new ArrayList<>(files.size());
+        for (Future<Outcome> future : futures) {
+            outcomes.add(await(future, deadline));
+        }
+        return outcomes;
+    }
+
+    private Outcome await(Future<Outcome> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return Outcome.failed("Upload timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return Outcome.failed("Upload interrupted");
+        } catch (ExecutionException e) {
+            return Outcome.failed(describe(e.getCause()));
+        }
+    }
+
+    private Outcome uploadOne(MultipartFile file, Function<MultipartFile, PostImage> uploader) {
+        try {
+            return Outcome.uploaded(uploader.apply(file));
+        } catch (RuntimeException e) {
+            log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
+            return Outcome.failed(describe(e));
+        }
+    }
+
+    private String describe(Throwable e) {
+        if (e instanceof AppException appException) {
+            return appException.getErrorCode().getMessage();
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Outcome(PostImage image, String reason) {
+        static Outcome uploaded(PostImage image) {
+            return new Outcome(image, null);
+        }
+
+        static Outcome failed(String reason) {
+            return new Outcome(null, reason);
+        }
+    }
+}
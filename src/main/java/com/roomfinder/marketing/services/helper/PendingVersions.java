@@ -0,0 +1,81 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.PendingVersionEntity;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tracks versions of a {@link SequenceGenerator} sequence that are reserved but not written yet,
+ * so readers of a versioned collection never move past a version that can still appear.
+ * <p>
+ * Writer đăng ký (kèm giá trị sequence hiện tại làm floor) trước khi reserve, và huỷ đăng ký sau
+ * khi ghi xong. Reader đọc giá trị sequence trước rồi mới đọc các đăng ký: version nào đã được
+ * reserve lúc đó thì writer của nó đã đăng ký, version reserve sau đó thì lớn hơn giá trị đã đọc.
+ * Đăng ký quá {@code abandonAfter} được coi là writer đã chết và bị bỏ; writer còn sống mà mất
+ * đăng ký thì phải ghi lại với version mới (xem {@link #complete}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PendingVersions {
+    MongoTemplate mongoTemplate;
+    SequenceGenerator sequenceGenerator;
+
+    /**
+     * Registers the caller as a pending writer, then reserves {@code count} versions.
+     */
+    public Reservation reserve(String sequence, int count) {
+        PendingVersionEntity pending = mongoTemplate.insert(PendingVersionEntity.builder()
+                .sequence(sequence)
+                .floor(sequenceGenerator.current(sequence))
+                .createdAt(Instant.now())
+                .build());
+        return new Reservation(pending.getId(), sequenceGenerator.reserve(sequence, count));
+    }
+
+    /**
+     * Unregisters a writer once its versions are written. Returns false when the registration had
+     * already been dropped as abandoned: readers may have moved past those versions, so the
+     * writer must write its changes again under new versions.
+     */
+    public boolean complete(Reservation reservation) {
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").is(reservation.id())),
+                PendingVersionEntity.class).getDeletedCount() > 0;
+    }
+
+    /**
+     * Exclusive upper bound of the versions that are safe to read: every version below it is
+     * either written or will never be.
+     */
+    public long readableCeiling(String sequence, Duration abandonAfter) {
+        // Thứ tự quan trọng: đọc sequence trước rồi mới đọc các writer đang chờ
+        long current = sequenceGenerator.current(sequence);
+        long abandoned = mongoTemplate.remove(Query.query(Criteria.where("sequence").is(sequence)
+                .and("createdAt").lt(Instant.now().minus(abandonAfter))), PendingVersionEntity.class).getDeletedCount();
+        if (abandoned > 0) {
+            log.warn("Dropped {} abandoned pending writers of sequence {}", abandoned, sequence);
+        }
+        Query lowest = Query.query(Criteria.where("sequence").is(sequence))
+                .with(Sort.by(Sort.Order.asc("floor")))
+                .limit(1);
+        PendingVersionEntity pending = mongoTemplate.findOne(lowest, PendingVersionEntity.class);
+        return pending == null ? current + 1 : Math.min(current, pending.getFloor()) + 1;
+    }
+
+    /**
+     * Registration id and first reserved version.
+     */
+    public record Reservation(String id, long firstVersion) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.roomfinder.marketing.services.helper;
+
+import java.util.List;
+
+/**
+ * Published after a batch of room sale posts was moved from roomSalePosts to the archive
+ * collection. Bài đã bị xoá khỏi collection chính bằng lệnh xoá theo query, nên listener theo
+ * từng document không thấy được.
+ *
+ * @param postIds ids of the posts moved in this batch
+ */
+public record PostsArchivedEvent(List<String> postIds) {
+}
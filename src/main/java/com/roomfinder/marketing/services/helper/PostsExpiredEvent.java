@@ -0,0 +1,12 @@
+package com.roomfinder.marketing.services.helper;
+
+import java.util.List;
+
+/**
+ * Published after a batch of room sale posts was switched to EXPIRED by a bulk update, which
+ * bypasses the Mongo save events. Listeners dùng để làm mới các cache phụ thuộc vào status.
+ *
+ * @param postIds ids of the posts that expired in this batch
+ */
+public record PostsExpiredEvent(List<String> postIds) {
+}
@@ -0,0 +1,147 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.FeaturedRoomEntity;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives a fresh id to every post that shares its roomId with another post or has none, then
+ * creates the unique roomId index.
+ * <p>
+ * Id cũ sinh ngẫu nhiên trong 999 giá trị nên có thể trùng. Trong mỗi nhóm trùng, bài giữ roomId
+ * là bài của chủ featuredRoom (nếu có), không thì bài tạo sớm nhất; các bài còn lại nhận id mới.
+ * Index được tạo sau khi sửa xong nên chạy được trên dữ liệu cũ; chạy lại cho tới khi tạo index
+ * thành công rồi dừng.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RoomIdBackfill {
+    private static final String JOB_NAME = "room-id-backfill";
+    private static final String INDEX_NAME = "roomId_unique";
+
+    MongoTemplate mongoTemplate;
+    RoomIdGenerator roomIdGenerator;
+    JobLock jobLock;
+
+    AtomicBoolean done = new AtomicBoolean();
+
+    @NonFinal
+    @Value("${room-id.backfill.enabled:true}")
+    boolean enabled;
+
+    @NonFinal
+    @Value("${room-id.backfill.lease:PT30M}")
+    Duration lease;
+
+    @Scheduled(initialDelayString = "${room-id.backfill.initial-delay:PT1M}",
+            fixedDelayString = "${room-id.backfill.interval:PT1H}")
+    public void run() {
+        if (!enabled || done.get() || !jobLock.tryAcquire(JOB_NAME, lease)) {
+            return;
+        }
+        try {
+            int reassigned = reassignMissing() + reassignDuplicates();
+            mongoTemplate.indexOps(RoomSalePostEntity.class).ensureIndex(new Index()
+                    .on("roomId", Sort.Direction.ASC)
+                    .unique()
+                    .partial(PartialIndexFilter.of(Criteria.where("roomId").type(2)))
+                    .named(INDEX_NAME));
+            done.set(true);
+            log.info("Room id backfill finished: {} posts got a new roomId", reassigned);
+        } catch (Exception e) {
+            log.error("Room id backfill failed", e);
+        } finally {
+            jobLock.release(JOB_NAME);
+        }
+    }
+
+    private int reassignMissing() {
+        Query missing = Query.query(Criteria.where("roomId").not().type(2));
+        missing.fields().include("_id");
+        List<RoomSalePostEntity> posts = mongoTemplate.find(missing, RoomSalePostEntity.class);
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomSalePostEntity.class);
+        List<String> roomIds = roomIdGenerator.nextBlock(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(posts.get(i).getId())),
+                    Update.update("roomId", roomIds.get(i)));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    private int reassignDuplicates() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("roomId").type(2)),
+                Aggregation.group("roomId")
+                        .count().as("count")
+                        .push(new Document("_id", "$_id")
+                                .append("userId", "$userId")
+                                .append("createdDate", "$createdDate")).as("posts"),
+                Aggregation.match(Criteria.where("count").gt(1))
+        ).withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+        List<Document> groups = mongoTemplate.aggregate(duplicates,
+                mongoTemplate.getCollectionName(RoomSalePostEntity.class), Document.class).getMappedResults();
+
+        int reassigned = 0;
+        for (Document group : groups) {
+            String roomId = group.getString("_id");
+            List<Document> posts = group.getList("posts", Document.class);
+            Document keeper = keeper(roomId, posts);
+            List<Document> others = posts.stream().filter(post -> post != keeper).toList();
+            List<String> roomIds = roomIdGenerator.nextBlock(others.size());
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomSalePostEntity.class);
+            for (int i = 0; i < others.size(); i++) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(others.get(i).get("_id"))),
+                        Update.update("roomId", roomIds.get(i)));
+            }
+            reassigned += bulk.execute().getModifiedCount();
+            log.info("Room id {} was shared by {} posts, {} reassigned", roomId, posts.size(), others.size());
+        }
+        return reassigned;
+    }
+
+    // featuredRoom/promotionalRoom/favoriteRoom nối theo roomId: giữ roomId cho bài nhiều khả năng sở hữu chúng nhất
+    private Document keeper(String roomId, List<Document> posts) {
+        FeaturedRoomEntity featured = mongoTemplate.findOne(Query.query(Criteria.where("roomId").is(roomId)),
+                FeaturedRoomEntity.class);
+        if (featured != null) {
+            for (Document post : posts) {
+                if (Integer.valueOf(featured.getUserId()).equals(post.get("userId"))) {
+                    return post;
+                }
+            }
+        }
+        return posts.stream()
+                .min(Comparator.comparing((Document post) -> post.getDate("createdDate"),
+                                Comparator.nullsLast(Comparator.<Date>naturalOrder()))
+                        .thenComparing(post -> post.get("_id").toString()))
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,166 @@
+package com.roomfinder.marketing.services.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered, node-aware room ids in the Snowflake layout: 41 bits of milliseconds since
+ * 2025-01-01, 10 bits of node id, 12 bits of per-millisecond sequence.
+ * <p>
+ * Id được sinh hoàn toàn trong bộ nhớ, không cần round trip nào; node id được giữ bằng một lease
+ * {@link JobLock} (claim lần đầu dùng, gia hạn định kỳ) hoặc cấu hình cố định qua
+ * {@code room-id.node-id}. Lease hết hạn mà chưa gia hạn được thì instance khác có thể đã lấy node
+ * này, nên generator ngừng dùng nó và phải claim lại trước khi sinh id tiếp. Id được encode base32
+ * Crockford với độ dài cố định nên thứ tự chuỗi trùng thứ tự thời gian, insert luôn vào cuối index
+ * roomId.
+ */
+@Slf4j
+@Component
+public class RoomIdGenerator {
+    private static final String PREFIX = "room";
+    private static final String NODE_LOCK_PREFIX = "room-id-node-";
+    private static final long EPOCH = 1735689600000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODES = 1 << NODE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // 63 bit / 5 bit mỗi ký tự
+    private static final int ENCODED_LENGTH = 13;
+
+    private final JobLock jobLock;
+    private final int configuredNode;
+    private final Duration nodeLease;
+    private final LongSupplier clock;
+
+    private volatile int node = -1;
+    // Thời điểm (epoch ms) lease của node hết hạn, tính từ lúc bắt đầu lần claim/gia hạn cuối
+    private volatile long leaseDeadline;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    @Autowired
+    public RoomIdGenerator(JobLock jobLock,
+                           @Value("${room-id.node-id:-1}") int configuredNode,
+                           @Value("${room-id.node-lease:PT10M}") Duration nodeLease) {
+        this(jobLock, configuredNode, nodeLease, System::currentTimeMillis);
+    }
+
+    RoomIdGenerator(JobLock jobLock, int configuredNode, Duration nodeLease, LongSupplier clock) {
+        if (configuredNode >= MAX_NODES) {
+            throw new IllegalArgumentException("room-id.node-id must be below " + MAX_NODES);
+        }
+        this.jobLock = jobLock;
+        this.configuredNode = configuredNode;
+        this.nodeLease = nodeLease;
+        this.clock = clock;
+    }
+
+    public String next() {
+        return encode(nextValue(node()));
+    }
+
+    public List<String> nextBlock(int count) {
+        int nodeId = node();
+        List<String> roomIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            roomIds.add(encode(nextValue(nodeId)));
+        }
+        return roomIds;
+    }
+
+    private synchronized long nextValue(int nodeId) {
+        // Đồng hồ bị lùi thì tiếp tục từ mốc cũ thay vì chờ
+        long timestamp = Math.max(clock.getAsLong() - EPOCH, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Hết sequence trong mili giây này: mượn mili giây kế tiếp
+                timestamp++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    private static String encode(long value) {
+        char[] chars = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private int node() {
+        if (configuredNode >= 0) {
+            return configuredNode;
+        }
+        int current = node;
+        return current >= 0 && !leaseExpired() ? current : claimNode();
+    }
+
+    private synchronized int claimNode() {
+        if (node >= 0) {
+            if (!leaseExpired()) {
+                return node;
+            }
+            log.warn("Room id node {} lease ran out without renewal, claiming again", node);
+            node = -1;
+        }
+        int start = ThreadLocalRandom.current().nextInt(MAX_NODES);
+        for (int i = 0; i < MAX_NODES; i++) {
+            int candidate = (start + i) % MAX_NODES;
+            long attemptedAt = clock.getAsLong();
+            if (jobLock.tryAcquire(NODE_LOCK_PREFIX + candidate, nodeLease)) {
+                log.info("Room id generator claimed node {}", candidate);
+                leaseDeadline = attemptedAt + nodeLease.toMillis();
+                node = candidate;
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No free room id node among " + MAX_NODES);
+    }
+
+    @Scheduled(fixedDelayString = "${room-id.node-renew-interval:PT2M}")
+    public void renewNode() {
+        int current = node;
+        if (configuredNode >= 0 || current < 0) {
+            return;
+        }
+        long attemptedAt = clock.getAsLong();
+        try {
+            if (jobLock.tryAcquire(NODE_LOCK_PREFIX + current, nodeLease)) {
+                leaseDeadline = attemptedAt + nodeLease.toMillis();
+            } else {
+                // Lease đã bị instance khác lấy: lần sinh id kế tiếp sẽ claim node mới
+                log.warn("Room id generator lost node {}", current);
+                node = -1;
+            }
+        } catch (Exception e) {
+            if (leaseExpired()) {
+                // Không gia hạn được tới hết lease: ngừng dùng node, sinh id tiếp phải claim lại
+                log.warn("Room id node {} lease expired while it could not be renewed", current, e);
+                node = -1;
+            } else {
+                log.warn("Could not renew room id node {}", current, e);
+            }
+        }
+    }
+
+    private boolean leaseExpired() {
+        return configuredNode < 0 && clock.getAsLong() >= leaseDeadline;
+    }
+}
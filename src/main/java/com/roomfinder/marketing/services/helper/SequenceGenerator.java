@@ -0,0 +1,54 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.SequenceEntity;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cluster-wide monotonic sequences backed by one Mongo document per name.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SequenceGenerator {
+    MongoTemplate mongoTemplate;
+
+    /**
+     * Reserves {@code count} consecutive values and returns the first one.
+     */
+    public long reserve(String name, int count) {
+        SequenceEntity sequence = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(name)),
+                new Update().inc("value", count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                SequenceEntity.class);
+        return sequence.getValue() - count + 1;
+    }
+
+    public long current(String name) {
+        SequenceEntity sequence = mongoTemplate.findById(name, SequenceEntity.class);
+        return sequence == null ? 0 : sequence.getValue();
+    }
+
+    /**
+     * Current values of several sequences in one query; missing sequences map to 0.
+     */
+    public Map<String, Long> current(Collection<String> names) {
+        Map<String, Long> values = new HashMap<>();
+        names.forEach(name -> values.put(name, 0L));
+        mongoTemplate.find(Query.query(Criteria.where("_id").in(names)), SequenceEntity.class)
+                .forEach(sequence -> values.put(sequence.getId(), sequence.getValue()));
+        return values;
+    }
+}
@@ -0,0 +1,91 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refreshes the training corpus whenever a post is saved or deleted through the repository
+ * or {@code MongoTemplate.save}, and after the expiry and archive jobs changed posts in bulk.
+ * Lỗi ở đây chỉ được log: bài đăng đã lưu xong, phần sót lại sẽ được job reconcile sửa.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TrainingCorpusListener extends AbstractMongoEventListener<RoomSalePostEntity> {
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    TrainingCorpusService trainingCorpusService;
+
+    /**
+     * Runs {@code action} without a refresh per saved post; the caller refreshes the corpus itself,
+     * e.g. once per bulk import batch.
+     */
+    public static void withoutRefresh(Runnable action) {
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            action.run();
+        } finally {
+            SUPPRESSED.remove();
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<RoomSalePostEntity> event) {
+        if (SUPPRESSED.get() != null) {
+            return;
+        }
+        RoomSalePostEntity post = event.getSource();
+        try {
+            trainingCorpusService.refresh(post);
+        } catch (Exception e) {
+            log.warn("Could not refresh training intents of post {}", post.getId(), e);
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<RoomSalePostEntity> event) {
+        Object id = event.getSource().get("_id");
+        // deleteAll / delete theo query không có _id cụ thể: để reconcile xử lý
+        if (id == null || id instanceof org.bson.Document) {
+            return;
+        }
+        try {
+            trainingCorpusService.remove(id.toString());
+        } catch (Exception e) {
+            log.warn("Could not remove training intents of post {}", id, e);
+        }
+    }
+
+    // Job hết hạn update hàng loạt, không đi qua save nên cần event riêng
+    @EventListener
+    public void onPostsExpired(PostsExpiredEvent event) {
+        for (String postId : event.postIds()) {
+            try {
+                trainingCorpusService.refresh(postId);
+            } catch (Exception e) {
+                log.warn("Could not refresh training intents of post {}", postId, e);
+            }
+        }
+    }
+
+    @EventListener
+    public void onPostsArchived(PostsArchivedEvent event) {
+        for (String postId : event.postIds()) {
+            try {
+                trainingCorpusService.remove(postId);
+            } catch (Exception e) {
+                log.warn("Could not remove training intents of post {}", postId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.constants.TrainingIntentType;
+import com.roomfinder.marketing.dto.GenericResponseAI;
+import com.roomfinder.marketing.repositories.entities.FeeDetail;
+import com.roomfinder.marketing.repositories.entities.PricingDetail;
+import com.roomfinder.marketing.repositories.entities.RoomInfo;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.repositories.entities.RoomUtility;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Chatbot intent templates, one method per intent family. Shared by the per-family
+ * {@code /train/*} endpoints and the streamed export so both produce the same text.
+ */
+public final class TrainingIntents {
+    public static final String ROOM_LIST_TAG = "Danh sách các loại phòng";
+
+    private TrainingIntents() {
+    }
+
+    public static GenericResponseAI.Intent roomList(List<String> roomNames) {
+        return intent(ROOM_LIST_TAG,
+                List.of(
+                        "Có những loại phòng nào?",
+                        "Hãy cho tôi biết các loại phòng",
+                        "Danh sách các phòng hiện có",
+                        "Liệt kê tất cả các loại phòng"
+                ),
+                roomNames.stream()
+                        .map(name -> "Phòng: " + name)
+                        .collect(Collectors.toList()));
+    }
+
+    public static GenericResponseAI.Intent address(String name, String address) {
+        return intent("Địa chỉ phòng " + name,
+                List.of(
+                        name + " địa chỉ ở đâu?",
+                        "Địa chỉ của phòng " + name + " là gì?",
+                        "Tôi muốn biết địa chỉ phòng " + name
+                ),
+                List.of(name + " - Địa chỉ: " + address));
+    }
+
+    public static GenericResponseAI.Intent status(String name, String status) {
+        return intent("Trạng thái phòng " + name,
+                List.of(
+                        name + " còn phòng không?",
+                        "Phòng " + name + " có còn trống không?",
+                        "Trạng thái của phòng " + name
+                ),
+                List.of(name + " - Trạng thái: " + status));
+    }
+
+    public static GenericResponseAI.Intent area(String name, double totalArea, double width, double height) {
+        return intent("Diện tích phòng " + name,
+                List.of(
+                        name + " diện tích như thế nào?",
+                        "Diện tích phòng " + name + " là bao nhiêu?",
+                        "Kích thước phòng " + name
+                ),
+                List.of(name + " - có chiều dài: " + height +
+                        "m, chiều rộng: " + width + "m, diện tích tổng: " + totalArea + "m²"));
+    }
+
+    public static GenericResponseAI.Intent owner(String name, String createdBy, String contactInfo) {
+        return intent("Thông tin chủ phòng " + name,
+                List.of(
+                        "Cho tôi thông tin chủ phòng " + name,
+                        "Ai là người quản lý phòng " + name + "?",
+                        "Thông tin liên lạc chủ phòng " + name
+                ),
+                List.of("Phòng " + name + " do ông " + createdBy + " làm đại diện. " +
+                        "Số điện thoại: " + contactInfo));
+    }
+
+    public static GenericResponseAI.Intent utility(String name, Object amenities, Object furniture) {
+        return intent("Tiện ích phòng " + name,
+                List.of(
+                        "Cho tôi thông tin tiện ích của phòng " + name,
+                        "Phòng " + name + " có tiện ích gì?",
+                        "Tiện ích phòng " + name
+                ),
+                List.of("Phòng " + name + " có các tiện ích: " +
+                        amenities + ", nội thất: " + furniture));
+    }
+
+    public static GenericResponseAI.Intent pricing(String name, BigDecimal basePrice, BigDecimal waterCost,
+                                                   BigDecimal electricityCost, String additionalFees) {
+        return intent("Chi tiết phí phòng " + name,
+                List.of(
+                        "Cho tôi thông tin các loại phí của phòng " + name,
+                        "Phòng " + name + " có các loại phí gì?",
+                        "Thông tin giá cả phòng " + name
+                ),
+                List.of("Phòng " + name + " có các loại phí như sau: " +
+                        "Phí nhà hàng tháng: " + basePrice + " VNĐ, " +
+                        "Phí nước sinh hoạt: " + waterCost + " VNĐ, " +
+                        "Phí điện: " + electricityCost + " VNĐ, " +
+                        "Các phí bổ sung: " + additionalFees));
+    }
+
+    public static String fee(String type, BigDecimal amount) {
+        return "Loại phí: " + type + ", Số tiền: " + amount + " VNĐ";
+    }
+
+    /**
+     * Every intent family for one post, keyed by family; the room list contributes a single-name
+     * entry. Families whose source fields are missing are skipped.
+     */
+    public static Map<TrainingIntentType, GenericResponseAI.Intent> forRoom(RoomSalePostEntity post) {
+        Map<TrainingIntentType, GenericResponseAI.Intent> intents = new EnumMap<>(TrainingIntentType.class);
+        RoomInfo roomInfo = post.getRoomInfo();
+        if (roomInfo == null || roomInfo.getName() == null) {
+            return intents;
+        }
+        String name = roomInfo.getName();
+        intents.put(TrainingIntentType.ROOM_NAME, roomList(List.of(name)));
+        intents.put(TrainingIntentType.ADDRESS, address(name, roomInfo.getAddress()));
+        intents.put(TrainingIntentType.STATUS, status(name, post.getStatus()));
+        intents.put(TrainingIntentType.AREA, area(name, roomInfo.getTotalArea(), roomInfo.getWidth(), roomInfo.getHeight()));
+        intents.put(TrainingIntentType.OWNER, owner(name, post.getCreatedBy(), post.getContactInfo()));
+        RoomUtility utility = post.getRoomUtility();
+        if (utility != null) {
+            intents.put(TrainingIntentType.UTILITY, utility(name, utility.getAmenitiesAvailability(), utility.getFurnitureAvailability()));
+        }
+        PricingDetail pricing = post.getPricingDetails();
+        if (pricing != null) {
+            List<FeeDetail> fees = pricing.getAdditionalFees() == null ? List.of() : pricing.getAdditionalFees();
+            intents.put(TrainingIntentType.PRICING, pricing(name, pricing.getBasePrice(), pricing.getWaterCost(), pricing.getElectricityCost(),
+                    fees.stream()
+                            .map(fee -> fee(fee.getType(), fee.getAmount()))
+                            .collect(Collectors.joining("; "))));
+        }
+        return intents;
+    }
+
+    private static GenericResponseAI.Intent intent(String tag, List<String> patterns, List<String> responses) {
+        GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
+        intent.setTag(tag);
+        intent.setPatterns(patterns);
+        intent.setResponses(responses);
+        return intent;
+    }
+}
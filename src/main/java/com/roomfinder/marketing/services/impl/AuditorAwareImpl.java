@@ -1,12 +1,12 @@
 package com.roomfinder.marketing.services.impl;
 
 import com.roomfinder.marketing.repositories.UserRepository;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
 import com.roomfinder.marketing.utility.UserContextHolder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.AuditorAware;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -35,25 +35,35 @@ import java.util.Optional;
 public class AuditorAwareImpl implements AuditorAware<String> {
 
     private final UserRepository userRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     @Override
     public Optional<String> getCurrentAuditor() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
+        // Mỗi request chỉ tính auditor một lần, các lần save sau dùng lại
+        String memoized = UserContextHolder.getCurrentAuditor();
+        if (memoized != null) {
+            return Optional.of(memoized);
+        }
+
+        Optional<Jwt> jwt = currentUserResolver.findCurrentJwt();
+        Optional<Integer> userId = currentUserResolver.findCurrentUserId();
+        if (jwt.isEmpty() || userId.isEmpty()) {
             return Optional.empty();
         }
 
         try {
-            var user = userRepository.getMyInfo();
-            String fullName = user.getFirstName() + " " + user.getLastName();
+            UserContextHolder.setCurrentUserId(userId.get());
 
-            // Set a thread-local or use a context holder to store the current user ID
-            UserContextHolder.setCurrentUserId(user.getId());
+            var user = userRepository.getCachedProfile(userId.get(), jwt.get().getTokenValue());
+            String fullName = user != null
+                    ? user.getFirstName() + " " + user.getLastName()
+                    : jwt.get().getSubject();
 
-            return Optional.of(fullName);
+            UserContextHolder.setCurrentAuditor(fullName);
+            return Optional.ofNullable(fullName);
         } catch (Exception e) {
             log.error("Error retrieving current auditor", e);
             return Optional.empty();
         }
     }
-}
\ No newline at end of file
+}
@@ -8,6 +8,7 @@ import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.repositories.BannerRepository;
 import com.roomfinder.marketing.repositories.entities.BannerEntity;
 import com.roomfinder.marketing.services.BannerService;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -22,6 +23,7 @@ import java.util.List;
 @Slf4j
 public class BannerServiceImpl implements BannerService {
     BannerRepository bannerRepository;
+    ContentSnapshots contentSnapshots;
         @Override
         public BannerResponse createBanner(BannerRequest bannerRequest) {
             BannerEntity bannerEntity = BannerEntity.builder()
@@ -56,11 +58,11 @@ public class BannerServiceImpl implements BannerService {
 
     @Override
     public List<BannerResponse> getBanners() {
-        return bannerRepository.findAll().stream()
+        return contentSnapshots.get(BannerEntity.class, () -> bannerRepository.findAll().stream()
                 .map(bannerEntity -> BannerResponse.builder()
                         .id(bannerEntity.getId())
                         .description(bannerEntity.getDescription())
                         .build())
-                .toList();
+                .toList());
     }
 }
@@ -10,11 +10,11 @@ import com.roomfinder.marketing.mappers.BaseIndexMapper;
 import com.roomfinder.marketing.mappers.MarketingMapper;
 import com.roomfinder.marketing.repositories.FeaturedRepository;
 import com.roomfinder.marketing.repositories.RoomSalePostRepository;
-import com.roomfinder.marketing.repositories.UserRepository;
-import com.roomfinder.marketing.repositories.clients.PaymentClient;
 import com.roomfinder.marketing.repositories.entities.FeaturedRoomEntity;
 import com.roomfinder.marketing.services.BaseIndexService;
+import com.roomfinder.marketing.services.PaymentOutboxService;
 import com.roomfinder.marketing.services.helper.CalculateExpiry;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
 import com.roomfinder.marketing.services.helper.GetTimeExpiry;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -41,13 +41,13 @@ public class BaseIndexServiceImpl implements BaseIndexService {
     MarketingMapper marketingMapper;
     RoomSalePostRepository roomSalePostRepository;
     CalculateExpiry calculateExpiry;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     GetTimeExpiry getTimeExpiry;
-    PaymentClient paymentClient;
+    PaymentOutboxService paymentOutboxService;
     @Override
     public RoomSalePostResponse createFeaturedAdsFee(int typePackage, String roomId) {
         // Kiểm tra xác thực người dùng
-        var user = userRepository.getMyInfo();
+        int userId = currentUserResolver.getCurrentUserId();
         // Tìm phòng trong kho dữ liệu
         var room = roomSalePostRepository.findByRoomId(roomId)
                 .orElseThrow(() -> new AppException(ErrorCode.ROOM_NOT_FOUND));
@@ -77,11 +77,11 @@ public class BaseIndexServiceImpl implements BaseIndexService {
                         initialTypes.addFirst(typePackage); // Thêm type đầu tiên vào đầu danh sách
                         newEntity.setTypes(initialTypes);
 
-                        newEntity.setUserId(user.getId());
+                        newEntity.setUserId(userId);
                         return newEntity;
                     });
+            paymentOutboxService.enqueueFeaturedAds(userId, roomId, typePackage, true, null);
             featuredRepository.save(featuredRoomEntity);
-            paymentClient.minusBalance(typePackage,roomId);
             // Lưu cập nhật vào cơ sở dữ liệu
         } else {
             // Cập nhật Featured Room đã tồn tại
@@ -93,10 +93,11 @@ public class BaseIndexServiceImpl implements BaseIndexService {
             existingFeatured.setTypes(existingTypes);
 
             // Cộng thêm thời gian hết hạn mới vào thời gian hiện tại
-            Instant newExpiry = calculateExpiry.calculateExpiryFromType(typePackage, existingFeatured.getExpiry());
+            Instant previousExpiry = existingFeatured.getExpiry();
+            Instant newExpiry = calculateExpiry.calculateExpiryFromType(typePackage, previousExpiry);
             existingFeatured.setExpiry(newExpiry);
+            paymentOutboxService.enqueueFeaturedAds(userId, roomId, typePackage, false, previousExpiry);
             featuredRepository.save(existingFeatured);
-            paymentClient.minusBalance(typePackage,roomId);
         }
 
         // Map response từ FeaturedRoomEntity và Room
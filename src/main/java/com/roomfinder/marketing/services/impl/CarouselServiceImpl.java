@@ -6,7 +6,10 @@ import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.mappers.CarouselMapper;
 import com.roomfinder.marketing.repositories.CarouselRepository;
+import com.roomfinder.marketing.repositories.entities.CarouselEntity;
 import com.roomfinder.marketing.services.CarouselService;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -24,6 +27,8 @@ public class CarouselServiceImpl implements CarouselService
 {
     CarouselMapper carouselMapper;
     CarouselRepository carouselRepository;
+    ContentSnapshots contentSnapshots;
+    MediaObjectService mediaObjectService;
     private static final Random RANDOM = new Random();
 
     public static String generateCarouselId() {
@@ -40,14 +45,17 @@ public class CarouselServiceImpl implements CarouselService
 
     @Override
     public List<CarouselResponse> getCarousels() {
-        var carousels = carouselRepository.findAll();
-        return carouselMapper.toResponseListCarousel(carousels);
+        return contentSnapshots.get(CarouselEntity.class,
+                () -> carouselMapper.toResponseListCarousel(carouselRepository.findAll()));
     }
 
     @Override
     public void deleteCarousel(String id) {
         carouselRepository.findById(id)
-                .ifPresentOrElse(carouselRepository::delete,
+                .ifPresentOrElse(carousel -> {
+                            carouselRepository.delete(carousel);
+                            mediaObjectService.release(carousel.getPostImages());
+                        },
                         () -> {
                             throw new AppException(ErrorCode.CAROUSEL_NOT_FOUND);
                         });
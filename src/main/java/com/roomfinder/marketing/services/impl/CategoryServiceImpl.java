@@ -8,6 +8,8 @@ import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.repositories.CategoryRepository;
 import com.roomfinder.marketing.repositories.entities.CategoryEntity;
 import com.roomfinder.marketing.services.CategoryService;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +20,8 @@ import java.util.List;
 @AllArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     CategoryRepository categoryRepository;
+    ContentSnapshots contentSnapshots;
+    MediaObjectService mediaObjectService;
 
     @Override
     public CategoryResponse createCategory(CarouselRequest request) {
@@ -50,7 +54,10 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public void deleteCategory(String id) {
         categoryRepository.findById(id)
-                .ifPresentOrElse(categoryRepository::delete,
+                .ifPresentOrElse(category -> {
+                            categoryRepository.delete(category);
+                            mediaObjectService.release(category.getPostImages());
+                        },
                         () -> {
                             throw new AppException(ErrorCode.CATEGORY_NOT_FOUND);
                         });
@@ -76,7 +83,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public List<CategoryResponse> getCategories() {
-        return categoryRepository.findAll().stream()
+        return contentSnapshots.get(CategoryEntity.class, () -> categoryRepository.findAll().stream()
                 .map(categoryEntity -> CategoryResponse.builder()
                         .id(categoryEntity.getId())
                         .name(categoryEntity.getName())
@@ -88,22 +95,14 @@ public class CategoryServiceImpl implements CategoryService {
                                         .build())
                                 .toList())
                         .build())
-                .toList();
+                .toList());
     }
 
     @Override
     public CategoryResponse getCategoryByName(String name) {
-        return categoryRepository.findByName(name).map(categoryEntity -> CategoryResponse.builder()
-                .id(categoryEntity.getId())
-                .name(categoryEntity.getName())
-                .postImages(categoryEntity.getPostImages().stream()
-                        .map(postImageEntity -> PostImageResponse.builder()
-                                .name(postImageEntity.getName())
-                                .type(postImageEntity.getType())
-                                .urlImagePost(postImageEntity.getUrlImagePost())
-                                .build())
-                        .toList())
-                .build()
-        ).orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
+        return getCategories().stream()
+                .filter(category -> category.getName() != null && category.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
     }
 }
@@ -1,4 +1,5 @@
 package com.roomfinder.marketing.services.impl;
+import com.roomfinder.marketing.dto.FavoriteWithRoomDto;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.FavoriteRequest;
 import com.roomfinder.marketing.dto.response.FavoriteResponse;
@@ -8,23 +9,20 @@ import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.mappers.FavoriteMapper;
 import com.roomfinder.marketing.mappers.MarketingMapper;
 import com.roomfinder.marketing.repositories.FavoriteRepository;
-import com.roomfinder.marketing.repositories.PromotionalRepository;
-import com.roomfinder.marketing.repositories.RoomSalePostRepository;
-import com.roomfinder.marketing.repositories.UserRepository;
 import com.roomfinder.marketing.repositories.entities.FavoriteEntity;
-import com.roomfinder.marketing.repositories.entities.PromotionalRoomEntity;
-import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
 import com.roomfinder.marketing.services.FavoriteService;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
+import com.roomfinder.marketing.services.helper.MongoDBQuery;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 @Service
@@ -33,14 +31,14 @@ import java.util.Optional;
 @Slf4j
 public class FavoriteServiceImpl implements FavoriteService {
     FavoriteRepository favoriteRepository;
-    UserRepository userRepository;
+    CurrentUserResolver currentUserResolver;
     FavoriteMapper favoriteMapper;
-    RoomSalePostRepository roomSalePostRepository;
     MarketingMapper marketingMapper;
-    PromotionalRepository promotionalRepository;
+    MongoTemplate mongoTemplate;
+    MongoDBQuery mongoDBQuery;
     @Override
     public FavoriteResponse createFavorite(FavoriteRequest request) {
-        var user = userRepository.getMyInfo();
+        int userId = currentUserResolver.getCurrentUserId();
 
         Optional<FavoriteEntity> existingFavoriteRoom = favoriteRepository.findByRoomId(request.getRoomId());
         if (existingFavoriteRoom.isPresent()) {
@@ -54,7 +52,7 @@ public class FavoriteServiceImpl implements FavoriteService {
         } else {
             favoriteRoomEntity.setIndex(1);
         }
-        favoriteRoomEntity.setUserId(user.getId());
+        favoriteRoomEntity.setUserId(userId);
         favoriteRepository.save(favoriteRoomEntity);
 
         return favoriteMapper.toFavoriteResponse(favoriteRoomEntity);
@@ -71,58 +69,41 @@ public class FavoriteServiceImpl implements FavoriteService {
 
     @Override
     public PageResponse<FavoriteResponse> getFavorite(int page, int size) {
-        // Tạo đối tượng sắp xếp theo "index" giảm dần
-        Sort sort = Sort.by("index").descending();
-        Pageable pageable = PageRequest.of(page - 1, size, sort);
+        PageRequest pageable = PageRequest.of(page - 1, size);
 
-        // Lấy thông tin người dùng
-        var user = userRepository.getMyInfo();
-        int userId = user.getId();
+        // Lấy userId từ JWT thay vì gọi sang user service
+        int userId = currentUserResolver.getCurrentUserId();
 
-        // Lấy dữ liệu phân trang từ repository theo userId
-        var pageData = favoriteRepository.findByUserId(userId, pageable);
+        // Một aggregation duy nhất: favorite + bài đăng + khuyến mãi, bỏ qua phòng đã bị xóa
+        Aggregation aggregation = mongoDBQuery.buildFavoriteAggregation(userId, pageable);
+        Document result = mongoTemplate.aggregate(aggregation, "favoriteRoom", Document.class).getUniqueMappedResult();
 
-        // Chuyển đổi từ FavoriteEntity sang FavoriteResponse
-        List<FavoriteResponse> responses = pageData.getContent().stream()
-                .map(favoriteEntity -> {
-                    // Lấy thông tin về phòng dựa vào roomId trong FavoriteEntity
-                    RoomSalePostEntity roomEntity = roomSalePostRepository.findByRoomId(favoriteEntity.getRoomId()).orElseThrow(() -> new AppException(ErrorCode.ROOM_NOT_FOUND));
+        List<Document> data = result != null ? result.getList("data", Document.class) : List.of();
+        List<Document> total = result != null ? result.getList("total", Document.class) : List.of();
+        long totalElements = total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue();
 
-                    // Khởi tạo đối tượng RoomSalePostResponse nếu có phòng
-                    RoomSalePostResponse roomSalePostResponse = null;
-                    if (roomEntity != null) {
-                        // Sử dụng mapper để chuyển từ entity sang response
-                        roomSalePostResponse = marketingMapper.toResponseRoomSalePost(roomEntity);
+        // Chuyển đổi sang FavoriteResponse, gắn fixPrice nếu phòng đang khuyến mãi
+        List<FavoriteResponse> responses = data.stream()
+                .map(document -> mongoTemplate.getConverter().read(FavoriteWithRoomDto.class, document))
+                .map(favorite -> {
+                    RoomSalePostResponse roomSalePostResponse = marketingMapper.toResponseRoomSalePost(favorite.getRoom());
+                    if (favorite.getPromotional() != null) {
+                        roomSalePostResponse.setFixPrice(favorite.getPromotional().getFixPrice());
                     }
-
-                    // Kiểm tra xem phòng có phải là phòng khuyến mãi không và lấy fixPrice nếu có
-                    Optional<PromotionalRoomEntity> promotionalRoomEntity = promotionalRepository.findByRoomId(favoriteEntity.getRoomId());
-                    if (promotionalRoomEntity.isPresent()) {
-                        // Lấy giá cố định fixPrice từ phòng khuyến mãi
-                        BigDecimal fixPrice = promotionalRoomEntity.get().getFixPrice();
-
-                        // Nếu có giá cố định, thêm nó vào roomSalePostResponse
-                        if (roomSalePostResponse != null) {
-                            roomSalePostResponse.setFixPrice(fixPrice);
-                        }
-                    }
-
-                    // Trả về FavoriteResponse với thông tin phòng, yêu thích và giá cố định trong roomSalePostResponse
                     return FavoriteResponse.builder()
-                            .id(favoriteEntity.getId())
-                            .roomSalePostResponse(roomSalePostResponse)  // Đưa roomSalePostResponse vào FavoriteResponse
-                            .userId(favoriteEntity.getUserId())
-                            .index(favoriteEntity.getIndex())
+                            .id(favorite.getId())
+                            .roomSalePostResponse(roomSalePostResponse)
+                            .userId(favorite.getUserId())
+                            .index(favorite.getIndex())
                             .build();
                 })
                 .toList();
 
-        // Xây dựng và trả về đối tượng PageResponse
         return PageResponse.<FavoriteResponse>builder()
                 .currentPage(page)
-                .pageSize(pageData.getSize())
-                .totalPages(pageData.getTotalPages())
-                .totalElements(pageData.getTotalElements())
+                .pageSize(size)
+                .totalPages((int) Math.ceil((double) totalElements / size))
+                .totalElements(totalElements)
                 .data(responses)
                 .build();
     }
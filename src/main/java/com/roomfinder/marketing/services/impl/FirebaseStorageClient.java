@@ -1,129 +1,303 @@
 // FirebaseStorageClient.java
 package com.roomfinder.marketing.services.impl;
 
+import com.google.api.gax.paging.Page;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.*;
-import com.google.firebase.cloud.StorageClient;
 import com.roomfinder.marketing.constants.BucketConstants;
 import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
-import com.roomfinder.marketing.repositories.entities.PostImage;
-import com.roomfinder.marketing.repositories.entities.RoomInfo;
-import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.MediaStorage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.util.Set;
-import java.util.UUID;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
-public class FirebaseStorageClient {
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "firebase", matchIfMissing = true)
+public class FirebaseStorageClient implements MediaStorage {
 
-    private final StorageClient storageClient;
+    // Resumable upload gửi theo chunk, kích thước phải là bội số của 256KB
+    private static final int CHUNK_ALIGNMENT = 256 * 1024;
+    // Buffer đọc từ file tạm; WriteChannel tự gom lại thành chunk trước khi gửi
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int LIST_PAGE_SIZE = 1000;
+    private static final Acl PUBLIC_READ = Acl.of(Acl.User.ofAllUsers(), Acl.Role.READER);
 
-    public FirebaseStorageClient(StorageClient storageClient) {
-        this.storageClient = storageClient;
+    private static final String STORAGE_HOST = "https://storage.googleapis.com/";
+
+    private final String bucketName = BucketConstants.BUCKET_NAME.getValue();
+    private final Storage storage;
+    private final int uploadChunkSize;
+    private final boolean signedUrlEnabled;
+    private final Duration signedUrlTtl;
+    private final Duration signedUrlRefreshBefore;
+    private final int signedUrlMaxCached;
+    // objectName -> signed URL, dùng lại cho tới gần lúc hết hạn
+    private final Map<String, SignedUrl> signedUrls = new ConcurrentHashMap<>();
+
+    public FirebaseStorageClient(Storage storage,
+                                 @Value("${media.upload.chunk-size:1MB}") DataSize uploadChunkSize,
+                                 @Value("${media.signed-url.enabled:true}") boolean signedUrlEnabled,
+                                 @Value("${media.signed-url.ttl:PT1H}") Duration signedUrlTtl,
+                                 @Value("${media.signed-url.refresh-before:PT5M}") Duration signedUrlRefreshBefore,
+                                 @Value("${media.signed-url.cache.max-size:50000}") int signedUrlMaxCached) {
+        this.storage = storage;
+        this.uploadChunkSize = alignChunkSize(uploadChunkSize);
+        this.signedUrlEnabled = signedUrlEnabled;
+        this.signedUrlTtl = signedUrlTtl;
+        this.signedUrlRefreshBefore = signedUrlRefreshBefore;
+        this.signedUrlMaxCached = signedUrlMaxCached;
     }
 
-    public String uploadFileToBucket(String bucketName, String folderName, MultipartFile file) {
-        try {
-            String normalizedFolderName = folderName.endsWith("/") ? folderName.substring(0, folderName.length() - 1) : folderName;
-            String generatedFileName = generateUniqueFileName(file.getOriginalFilename());
-            String fullObjectName = normalizedFolderName + "/" + generatedFileName;
-            Storage storage = storageClient.bucket().getStorage();
-            BlobInfo blobInfo = createBlobInfo(bucketName, fullObjectName, file.getContentType());
-            storage.create(blobInfo, file.getBytes());
-            makeFilePublic(bucketName, fullObjectName);
-            return createPublicUrl(bucketName, fullObjectName);
-        } catch (IOException e) {
+    /**
+     * Streams the multipart temp file to the bucket through a resumable write channel, so heap
+     * usage per upload is bounded by the chunk size instead of the file size. The public-read ACL
+     * is part of the create request, no separate metadata/ACL round trip is needed.
+     */
+    @Override
+    public String upload(String folderName, MultipartFile file) {
+        String fullObjectName = MediaStorage.newObjectName(folderName, file.getOriginalFilename());
+        BlobInfo blobInfo = createBlobInfo(fullObjectName, file.getContentType());
+
+        try (InputStream inputStream = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(inputStream);
+             WriteChannel writer = storage.writer(blobInfo, Storage.BlobWriteOption.doesNotExist())) {
+            writer.setChunkSize(uploadChunkSize);
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    writer.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | StorageException e) {
             log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
             throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
         }
+        return createPublicUrl(fullObjectName);
     }
 
-    private String createPublicUrl(String bucketName, String objectName) {
-        String encodedObjectName = URLEncoder.encode(objectName, StandardCharsets.UTF_8)
-                .replace("+", "%20");
-        return String.format(BucketConstants.URL_FIREBASE_API.getValue(), bucketName, encodedObjectName);
+    /**
+     * Uploads a small in-memory object (e.g. a generated image variant) with public-read ACL.
+     */
+    @Override
+    public String uploadBytes(String objectName, String contentType, byte[] content) {
+        try {
+            storage.create(createBlobInfo(objectName, contentType), content);
+        } catch (StorageException e) {
+            log.error("Failed to upload object: {}", objectName, e);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+        return createPublicUrl(objectName);
+    }
+
+    /**
+     * Deletes objects in one batch request; missing objects are ignored.
+     */
+    @Override
+    public void deleteObjects(Collection<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return;
+        }
+        List<BlobId> blobIds = objectNames.stream()
+                .map(objectName -> BlobId.of(bucketName, objectName))
+                .toList();
+        storage.delete(blobIds);
+    }
+
+    /**
+     * Opens a streaming reader on an object; the caller closes the stream.
+     */
+    @Override
+    public InputStream openObject(String objectName) {
+        return Channels.newInputStream(storage.reader(BlobId.of(bucketName, objectName)));
+    }
+
+    /**
+     * Returns the object name in our bucket for a stored image URL, or null if the URL points elsewhere.
+     */
+    @Override
+    public String objectNameOf(String storedUrl) {
+        if (storedUrl == null || storedUrl.isBlank()) {
+            return null;
+        }
+        return toObjectName(storedUrl);
+    }
+
+    @Override
+    public String publicUrl(String objectName) {
+        return createPublicUrl(objectName);
+    }
+
+    /**
+     * V4 signed PUT URL. Public-read ACL and the size limit are signed headers, so the client
+     * must send them unchanged and cannot upload a larger file.
+     */
+    @Override
+    public UploadTarget createUploadTarget(String objectName, String contentType, long maxSize, Duration ttl, String uploadToken) {
+        Map<String, String> signedHeaders = new LinkedHashMap<>();
+        signedHeaders.put("x-goog-acl", "public-read");
+        signedHeaders.put("x-goog-content-length-range", "0," + maxSize);
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, objectName))
+                .setContentType(contentType)
+                .build();
+        String url = storage.signUrl(blobInfo, ttl.toSeconds(), TimeUnit.SECONDS,
+                Storage.SignUrlOption.httpMethod(HttpMethod.PUT),
+                Storage.SignUrlOption.withContentType(),
+                Storage.SignUrlOption.withExtHeaders(signedHeaders),
+                Storage.SignUrlOption.withV4Signature()).toString();
+
+        Map<String, String> headers = new LinkedHashMap<>(signedHeaders);
+        headers.put("Content-Type", contentType);
+        return new UploadTarget(url, HttpMethod.PUT.name(), headers);
     }
 
-    private void makeFilePublic(String bucketName, String objectName) {
-        Storage storage = storageClient.bucket().getStorage();
+    @Override
+    public Optional<StoredObject> stat(String objectName) {
         Blob blob = storage.get(BlobId.of(bucketName, objectName));
-        if (blob != null) {
-            blob.createAcl(Acl.of(Acl.User.ofAllUsers(), Acl.Role.READER));
-        } else {
-            log.error("File not found: {}", objectName);
-            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        if (blob == null) {
+            return Optional.empty();
+        }
+        return Optional.of(toStoredObject(blob));
+    }
+
+    @Override
+    public void listObjects(String prefix, Consumer<StoredObject> consumer) {
+        Page<Blob> page = storage.list(bucketName,
+                Storage.BlobListOption.prefix(prefix),
+                Storage.BlobListOption.pageSize(LIST_PAGE_SIZE),
+                Storage.BlobListOption.fields(Storage.BlobField.NAME, Storage.BlobField.SIZE,
+                        Storage.BlobField.CONTENT_TYPE, Storage.BlobField.TIME_CREATED));
+        for (Blob blob : page.iterateAll()) {
+            consumer.accept(toStoredObject(blob));
         }
     }
 
-    private String generateUniqueFileName(String originalFileName) {
-        return UUID.randomUUID() + "_" + originalFileName;
+    private static StoredObject toStoredObject(Blob blob) {
+        OffsetDateTime createTime = blob.getCreateTimeOffsetDateTime();
+        Instant createdAt = createTime == null ? Instant.EPOCH : createTime.toInstant();
+        return new StoredObject(blob.getName(), blob.getSize() == null ? 0 : blob.getSize(), blob.getContentType(), createdAt);
+    }
+
+    private String createPublicUrl(String objectName) {
+        String encodedObjectName = URLEncoder.encode(objectName, StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        return String.format(BucketConstants.URL_FIREBASE_API.getValue(), bucketName, encodedObjectName);
     }
 
-    private BlobInfo createBlobInfo(String bucketName, String objectName, String contentType) {
+    private BlobInfo createBlobInfo(String objectName, String contentType) {
         return BlobInfo.newBuilder(BlobId.of(bucketName, objectName))
                 .setContentType(contentType)
+                .setAcl(List.of(PUBLIC_READ))
                 .build();
     }
 
-    public String generateSignedUrl(String bucketName, String filePath) {
-        Storage storage = storageClient.bucket().getStorage();
-        Blob blob = storage.get(BlobId.of(bucketName, filePath));
+    private static int alignChunkSize(DataSize chunkSize) {
+        long bytes = Math.max(chunkSize.toBytes(), CHUNK_ALIGNMENT);
+        return (int) Math.min(Integer.MAX_VALUE - CHUNK_ALIGNMENT, (bytes + CHUNK_ALIGNMENT - 1) / CHUNK_ALIGNMENT * CHUNK_ALIGNMENT);
+    }
 
-        if (blob == null || !blob.exists()) {
-            log.error("Image not found for filePath: {}", filePath);
-            throw new AppException(ErrorCode.IMAGE_NOT_FOUND);
+    /**
+     * Signs a GET URL for the object locally with the service-account key; no metadata request
+     * is made. Signed URLs are cached until {@code media.signed-url.refresh-before} ahead of expiry.
+     */
+    public String generateSignedUrl(String bucketName, String filePath) {
+        Instant now = Instant.now();
+        String cacheKey = bucketName + "/" + filePath;
+        SignedUrl cached = signedUrls.get(cacheKey);
+        if (cached != null && now.isBefore(cached.refreshAt())) {
+            return cached.url();
         }
 
-        return blob.signUrl(1, TimeUnit.HOURS).toString();
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, filePath)).build();
+        String url = storage.signUrl(blobInfo, signedUrlTtl.toSeconds(), TimeUnit.SECONDS,
+                Storage.SignUrlOption.withV4Signature()).toString();
+        if (hasRoomForSignedUrl(now)) {
+            signedUrls.put(cacheKey, new SignedUrl(url, now.plus(signedUrlTtl).minus(signedUrlRefreshBefore)));
+        }
+        return url;
     }
 
-    public void updatePostImagesWithSignedUrls(RoomSalePostEntity roomSalePostEntity) {
-        // Kiểm tra null safety
-        if (roomSalePostEntity == null ||
-                roomSalePostEntity.getRoomInfo() == null ||
-                roomSalePostEntity.getRoomInfo().getPostImages() == null ||
-                roomSalePostEntity.getRoomInfo().getPostImages().isEmpty()) {
-            return; // Không có ảnh để cập nhật, return sớm
+    /**
+     * Resolves the URL clients should use for a stored image URL. Images stored in our bucket get
+     * a (cached) signed URL; anything else is returned unchanged. Applied when building responses,
+     * signed URLs are never persisted.
+     */
+    @Override
+    public String resolveImageUrl(String storedUrl) {
+        if (!signedUrlEnabled || storedUrl == null || storedUrl.isBlank()) {
+            return storedUrl;
+        }
+        String objectName = toObjectName(storedUrl);
+        if (objectName == null) {
+            return storedUrl;
         }
+        try {
+            return generateSignedUrl(bucketName, objectName);
+        } catch (RuntimeException e) {
+            log.error("Error generating signed URL for image: {}", storedUrl, e);
+            return storedUrl; // Trả về nguyên bản nếu có lỗi
+        }
+    }
 
-        Set<PostImage> updatedPostImages = roomSalePostEntity.getRoomInfo().getPostImages().stream()
-                .filter(postImage -> postImage != null && postImage.getUrlImagePost() != null) // Thêm filter để loại bỏ null
-                .map(this::generateSignedUrlForPostImage)
-                .collect(Collectors.toSet());
+    /**
+     * Lấy object name từ URL đã lưu: URL Firebase public, URL storage.googleapis.com
+     * (kể cả signed URL cũ đã lưu vào DB) hoặc tên file tương đối trong thư mục marketing.
+     */
+    private String toObjectName(String storedUrl) {
+        String firebasePrefix = String.format(BucketConstants.URL_FIREBASE_API.getValue(), bucketName, "");
+        firebasePrefix = firebasePrefix.substring(0, firebasePrefix.indexOf('?'));
+        String storagePrefix = STORAGE_HOST + bucketName + "/";
 
-        RoomInfo roomInfo = roomSalePostEntity.getRoomInfo();
-        roomInfo.setPostImages(updatedPostImages);
-        roomSalePostEntity.setRoomInfo(roomInfo);
+        String encodedPath;
+        if (storedUrl.startsWith(firebasePrefix)) {
+            encodedPath = storedUrl.substring(firebasePrefix.length());
+        } else if (storedUrl.startsWith(storagePrefix)) {
+            encodedPath = storedUrl.substring(storagePrefix.length());
+        } else if (!storedUrl.startsWith("http://") && !storedUrl.startsWith("https://")) {
+            return BucketConstants.MARKETING_FOLDER.getValue() + storedUrl;
+        } else {
+            return null;
+        }
+        int queryStart = encodedPath.indexOf('?');
+        if (queryStart >= 0) {
+            encodedPath = encodedPath.substring(0, queryStart);
+        }
+        return encodedPath.isEmpty() ? null : URLDecoder.decode(encodedPath.replace("+", "%2B"), StandardCharsets.UTF_8);
     }
 
-    public PostImage generateSignedUrlForPostImage(PostImage postImage) {
-        // Kiểm tra null safety
-        if (postImage == null || postImage.getUrlImagePost() == null) {
-            return postImage; // Trả về nguyên bản nếu không có URL
+    private boolean hasRoomForSignedUrl(Instant now) {
+        if (signedUrls.size() < signedUrlMaxCached) {
+            return true;
         }
+        signedUrls.values().removeIf(entry -> !now.isBefore(entry.refreshAt()));
+        return signedUrls.size() < signedUrlMaxCached;
+    }
 
-        try {
-            String signedUrl = generateSignedUrl(
-                    BucketConstants.BUCKET_NAME.getValue(),
-                    BucketConstants.MARKETING_FOLDER.getValue() + postImage.getUrlImagePost()
-            );
-
-            return PostImage.builder()
-                    .name(postImage.getName())
-                    .type(postImage.getType())
-                    .urlImagePost(signedUrl)
-                    .build();
-        } catch (Exception e) {
-            log.error("Error generating signed URL for image: {}", postImage.getUrlImagePost(), e);
-            return postImage; // Trả về nguyên bản nếu có lỗi
-        }
+    private record SignedUrl(String url, Instant refreshAt) {
     }
-}
\ No newline at end of file
+}
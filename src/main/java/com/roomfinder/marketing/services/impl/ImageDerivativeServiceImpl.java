@@ -0,0 +1,311 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.dto.MediaOwner;
+import com.roomfinder.marketing.repositories.entities.ImageVariant;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.services.ImageDerivativeService;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.MediaStorage;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
+import com.roomfinder.marketing.utility.ExifOrientation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates size-appropriate copies of uploaded images.
+ * <p>
+ * Mỗi ảnh được đọc lại từ bucket (file tạm của multipart đã bị xoá khi request kết thúc),
+ * decode với subsampling về gần variant lớn nhất (đọc kích thước trước, không decode full ảnh
+ * 12MP), xoay theo EXIF orientation, resize thành card/gallery/full dạng JPEG và một placeholder
+ * blur ~16px dạng data URI. Việc decode ảnh tốn nhiều heap nên chạy trên pool nhỏ có queue giới
+ * hạn; khi queue đầy ảnh chỉ giữ bản gốc.
+ * <p>
+ * WebP: JDK và các dependency hiện tại không có ImageIO writer cho WebP, nên mặc định chỉ có
+ * variant JPEG. Bản WebP được tạo tự động khi classpath có một WebP ImageIO plugin.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+
+    private static final List<VariantSpec> VARIANTS = List.of(
+            new VariantSpec("card", 480),
+            new VariantSpec("gallery", 1080),
+            new VariantSpec("full", 1920));
+    private static final int LARGEST_VARIANT = VARIANTS.stream().mapToInt(VariantSpec::maxSide).max().orElseThrow();
+    private static final String JPEG = "jpeg";
+    private static final String WEBP = "webp";
+
+    private final MediaStorage mediaStorage;
+    private final MediaObjectService mediaObjectService;
+    private final MongoTemplate mongoTemplate;
+    private final ContentSnapshots contentSnapshots;
+    private final ThreadPoolExecutor workers;
+    private final boolean enabled;
+    private final float quality;
+    private final int placeholderWidth;
+    private final boolean webpSupported = ImageIO.getImageWritersByFormatName(WEBP).hasNext();
+
+    public ImageDerivativeServiceImpl(MediaStorage mediaStorage,
+                                      MediaObjectService mediaObjectService,
+                                      MongoTemplate mongoTemplate,
+                                      ContentSnapshots contentSnapshots,
+                                      @Value("${media.derivatives.enabled:true}") boolean enabled,
+                                      @Value("${media.derivatives.workers:2}") int workerCount,
+                                      @Value("${media.derivatives.queue-capacity:200}") int queueCapacity,
+                                      @Value("${media.derivatives.quality:0.8}") float quality,
+                                      @Value("${media.derivatives.placeholder-width:16}") int placeholderWidth) {
+        this.mediaStorage = mediaStorage;
+        this.mediaObjectService = mediaObjectService;
+        this.mongoTemplate = mongoTemplate;
+        this.contentSnapshots = contentSnapshots;
+        this.enabled = enabled;
+        this.quality = quality;
+        this.placeholderWidth = placeholderWidth;
+        int threads = Math.max(1, workerCount);
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                Thread.ofPlatform().name("image-derivative-", 0).daemon(true).factory(),
+                (task, executor) -> log.warn("Image derivative queue is full, keeping original only"));
+        this.workers.allowCoreThreadTimeOut(true);
+        if (enabled && !webpSupported) {
+            log.info("No ImageIO WebP writer on the classpath, image derivatives are JPEG only");
+        }
+    }
+
+    @Override
+    public void scheduleDerivatives(MediaOwner owner, Collection<PostImage> images) {
+        if (!enabled || images == null) {
+            return;
+        }
+        for (PostImage image : images) {
+            workers.execute(() -> process(owner, image));
+        }
+    }
+
+    private void process(MediaOwner owner, PostImage image) {
+        String objectName = mediaStorage.objectNameOf(image.getUrlImagePost());
+        if (objectName == null) {
+            return;
+        }
+        try {
+            BufferedImage rgb;
+            try (InputStream in = mediaStorage.openObject(objectName)) {
+                rgb = decode(in);
+            }
+            if (rgb == null) {
+                log.debug("Skipping derivatives for non-decodable image {}", objectName);
+                return;
+            }
+
+            List<ImageVariant> variants = new ArrayList<>();
+            Set<Integer> producedWidths = new HashSet<>();
+            for (VariantSpec spec : VARIANTS) {
+                BufferedImage resized = fit(rgb, spec.maxSide());
+                // Ảnh gốc nhỏ hơn kích thước variant thì không tạo bản trùng
+                if (!producedWidths.add(resized.getWidth())) {
+                    continue;
+                }
+                variants.add(store(objectName, spec.name(), JPEG, resized));
+                if (webpSupported) {
+                    variants.add(store(objectName, spec.name(), WEBP, resized));
+                }
+            }
+
+            String placeholder = "data:image/jpeg;base64,"
+                    + Base64.getEncoder().encodeToString(encode(blur(fit(rgb, placeholderWidth)), JPEG, 0.5f));
+
+            Query query = Query.query(Criteria.where("_id").is(owner.id()));
+            Update update = new Update()
+                    .set(owner.imagesPath() + ".$[img].variants", variants)
+                    .set(owner.imagesPath() + ".$[img].placeholder", placeholder)
+                    .filterArray(Criteria.where("img.urlImagePost").is(image.getUrlImagePost()));
+            mongoTemplate.updateFirst(query, update, owner.collection());
+            contentSnapshots.changed(owner.collection());
+            mediaObjectService.recordDerivatives(image.getUrlImagePost(), variants, placeholder, differenceHash(rgb));
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate derivatives for {}", objectName, e);
+        }
+    }
+
+    private ImageVariant store(String objectName, String name, String format,
+                               BufferedImage image) throws IOException {
+        String extension = JPEG.equals(format) ? "jpg" : format;
+        String url = mediaStorage.uploadBytes(
+                objectName + "_" + name + "." + extension,
+                "image/" + format,
+                encode(image, format, quality));
+        return ImageVariant.builder()
+                .name(name)
+                .format(format)
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .url(url)
+                .build();
+    }
+
+    private static byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Scales the image so that its longest side is at most {@code maxSide}, halving step by
+     * step for better quality on large reductions. Never upscales.
+     */
+    private static BufferedImage fit(BufferedImage source, int maxSide) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        if (longest <= maxSide) {
+            return source;
+        }
+        double scale = (double) maxSide / longest;
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Decodes the image upright and in RGB, subsampled so that its longest side stays at or just
+     * above the largest variant. Returns null when no ImageIO reader understands the data.
+     */
+    private static BufferedImage decode(InputStream in) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? Collections.emptyIterator() : ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / LARGEST_VARIANT);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                int orientation = ExifOrientation.of(reader);
+                return upright(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage upright(BufferedImage source, int orientation) {
+        if (orientation == ExifOrientation.NORMAL && source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean swap = ExifOrientation.swapsDimensions(orientation);
+        BufferedImage target = new BufferedImage(swap ? height : width, swap ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            // Nền trắng cho ảnh PNG trong suốt
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, target.getWidth(), target.getHeight());
+            graphics.drawImage(source, ExifOrientation.transform(orientation, width, height), null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Nền trắng cho ảnh PNG trong suốt
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * 64-bit difference hash: compares neighbouring pixels of a 9x8 grayscale thumbnail, so
+     * re-encoded or slightly resized copies of the same photo produce the same value.
+     */
+    private static String differenceHash(BufferedImage image) {
+        BufferedImage small = draw(image, 9, 8);
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash = (hash << 1) | (luminance(small.getRGB(x, y)) > luminance(small.getRGB(x + 1, y)) ? 1 : 0);
+            }
+        }
+        return String.format("%016x", hash);
+    }
+
+    private static int luminance(int rgb) {
+        return (((rgb >> 16) & 0xff) * 299 + ((rgb >> 8) & 0xff) * 587 + (rgb & 0xff) * 114) / 1000;
+    }
+
+    private static BufferedImage blur(BufferedImage image) {
+        float[] kernel = new float[9];
+        Arrays.fill(kernel, 1f / 9f);
+        return new ConvolveOp(new Kernel(3, 3, kernel), ConvolveOp.EDGE_NO_OP, null).filter(image, null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private record VariantSpec(String name, int maxSide) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.constants.Status;
+import com.roomfinder.marketing.repositories.entities.IncentiveProgramEntity;
+import com.roomfinder.marketing.services.IncentiveProgramLifecycleService;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Moves incentive programs through PENDING → ACTIVE → EXPIRED at their start and end dates.
+ * <p>
+ * Mỗi program lưu {@code nextTransitionAt} là mốc kế tiếp cần xử lý (startDate hoặc endDate), có
+ * index, nên mỗi lần chạy chỉ query các program đã tới hạn. Ngoài lần poll định kỳ, engine hẹn
+ * giờ đúng mốc sớm nhất để program bật/tắt đúng thời điểm. Update có điều kiện theo status cũ
+ * nên nhiều instance cùng chạy không ghi đè nhau. Program cần có ít nhất một ảnh để thành ACTIVE;
+ * program đã ACTIVE mà chưa có ảnh (dữ liệu cũ) được giữ nguyên cho tới endDate.
+ */
+@Slf4j
+@Service
+public class IncentiveProgramLifecycleServiceImpl implements IncentiveProgramLifecycleService {
+    private static final int MAX_BATCHES = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final ContentSnapshots contentSnapshots;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private ScheduledFuture<?> timer;
+    private Instant timerAt;
+
+    public IncentiveProgramLifecycleServiceImpl(MongoTemplate mongoTemplate,
+                                                ContentSnapshots contentSnapshots,
+                                                TaskScheduler taskScheduler,
+                                                @Value("${incentive.lifecycle.enabled:true}") boolean enabled,
+                                                @Value("${incentive.lifecycle.batch-size:100}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.contentSnapshots = contentSnapshots;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void apply(IncentiveProgramEntity program) {
+        Instant now = Instant.now();
+        Status status = statusAt(program, now);
+        program.setStatus(status);
+        program.setNextTransitionAt(nextTransition(program, status, now));
+        scheduleAt(program.getNextTransitionAt());
+    }
+
+    @Override
+    public void evaluate(String programId) {
+        IncentiveProgramEntity program = mongoTemplate.findById(programId, IncentiveProgramEntity.class);
+        if (program != null && transition(program, Instant.now())) {
+            contentSnapshots.changed(IncentiveProgramEntity.class);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${incentive.lifecycle.poll-interval:PT1M}",
+            initialDelayString = "${incentive.lifecycle.initial-delay:PT30S}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int changed = advance();
+            if (changed > 0) {
+                log.info("Incentive program lifecycle: {} programs changed status", changed);
+            }
+            scheduleAt(earliestTransition());
+        } catch (Exception e) {
+            log.error("Incentive program lifecycle run failed", e);
+        }
+    }
+
+    @Override
+    public int advance() {
+        Instant now = Instant.now();
+        // Program cũ chưa có nextTransitionAt cũng được xử lý một lần để gán mốc
+        Query due = Query.query(new Criteria().orOperator(
+                        Criteria.where("nextTransitionAt").lte(now),
+                        Criteria.where("status").in(Status.PENDING.name(), Status.ACTIVE.name())
+                                .and("nextTransitionAt").exists(false)))
+                .with(Sort.by(Sort.Order.asc("nextTransitionAt")))
+                .limit(batchSize);
+        int changed = 0;
+        for (int batch = 0; batch < MAX_BATCHES; batch++) {
+            List<IncentiveProgramEntity> programs = mongoTemplate.find(due, IncentiveProgramEntity.class);
+            for (IncentiveProgramEntity program : programs) {
+                if (transition(program, now)) {
+                    changed++;
+                }
+            }
+            if (programs.size() < batchSize) {
+                break;
+            }
+        }
+        if (changed > 0) {
+            contentSnapshots.changed(IncentiveProgramEntity.class);
+        }
+        return changed;
+    }
+
+    /**
+     * Writes the status and next transition of {@code program} as of {@code now}, if nobody changed
+     * its status meanwhile. Returns true when the status changed.
+     */
+    private boolean transition(IncentiveProgramEntity program, Instant now) {
+        Status status = statusAt(program, now);
+        Instant next = nextTransition(program, status, now);
+        Criteria unchanged = Criteria.where("_id").is(program.getId());
+        unchanged = program.getStatus() == null
+                ? unchanged.and("status").is(null)
+                : unchanged.and("status").is(program.getStatus().name());
+        long modified = mongoTemplate.updateFirst(Query.query(unchanged),
+                new Update().set("status", status).set("nextTransitionAt", next),
+                IncentiveProgramEntity.class).getModifiedCount();
+        scheduleAt(next);
+        return modified > 0 && status != program.getStatus();
+    }
+
+    private Instant earliestTransition() {
+        Query query = Query.query(Criteria.where("nextTransitionAt").gt(Instant.now()))
+                .with(Sort.by(Sort.Order.asc("nextTransitionAt")))
+                .limit(1);
+        query.fields().include("nextTransitionAt");
+        IncentiveProgramEntity program = mongoTemplate.findOne(query, IncentiveProgramEntity.class);
+        return program == null ? null : program.getNextTransitionAt();
+    }
+
+    // Giữ một timer cho mốc sớm nhất đã biết; mốc muộn hơn để lần poll sau xử lý
+    private synchronized void scheduleAt(Instant when) {
+        if (!enabled || when == null) {
+            return;
+        }
+        // timerAt đã qua nghĩa là timer đang chạy chính lần tick này
+        if (timer != null && !timer.isDone() && timerAt.isAfter(Instant.now()) && !when.isBefore(timerAt)) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        timerAt = when;
+        timer = taskScheduler.schedule(this::tick, when);
+    }
+
+    static Status statusAt(IncentiveProgramEntity program, Instant now) {
+        Status current = program.getStatus();
+        if (current == Status.REJECTED || current == Status.EXPIRED) {
+            return current;
+        }
+        if (program.getEndDate() != null && !now.isBefore(program.getEndDate())) {
+            return Status.EXPIRED;
+        }
+        // Program ACTIVE từ trước khi có quy tắc bắt buộc ảnh vẫn giữ ACTIVE tới endDate
+        if (current == Status.ACTIVE && !isReady(program)) {
+            return Status.ACTIVE;
+        }
+        return isReady(program) && hasStarted(program, now) ? Status.ACTIVE : Status.PENDING;
+    }
+
+    static Instant nextTransition(IncentiveProgramEntity program, Status status, Instant now) {
+        return switch (status) {
+            case ACTIVE -> program.getEndDate();
+            case PENDING -> isReady(program) && !hasStarted(program, now) ? program.getStartDate() : program.getEndDate();
+            default -> null;
+        };
+    }
+
+    private static boolean isReady(IncentiveProgramEntity program) {
+        return program.getPostImages() != null && !program.getPostImages().isEmpty();
+    }
+
+    private static boolean hasStarted(IncentiveProgramEntity program, Instant now) {
+        return program.getStartDate() == null || !now.isBefore(program.getStartDate());
+    }
+}
@@ -8,18 +8,39 @@ import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.repositories.IncentiveProgramRepository;
 import com.roomfinder.marketing.repositories.entities.IncentiveProgramEntity;
+import com.roomfinder.marketing.services.IncentiveProgramLifecycleService;
 import com.roomfinder.marketing.services.IncentiveProgramService;
-import lombok.AllArgsConstructor;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class IncentiveProgramServiceImpl implements IncentiveProgramService {
     IncentiveProgramRepository incentiveProgramRepository;
+    ContentSnapshots contentSnapshots;
+    IncentiveProgramLifecycleService incentiveProgramLifecycleService;
+    MediaObjectService mediaObjectService;
+
+    // Program theo status, dựng lại mỗi khi snapshot đổi: banner đọc O(1), không query Mongo
+    AtomicReference<StatusIndex> statusIndex = new AtomicReference<>();
+
+    private record StatusIndex(List<IncentiveProgramResponse> source,
+                               Map<String, List<IncentiveProgramResponse>> byStatus) {
+    }
 
     @Override
     public IncentiveProgramResponse createInventiveProgram(IncentiveProgramRequest request) {
@@ -27,10 +48,11 @@ public class IncentiveProgramServiceImpl implements IncentiveProgramService {
                 .name(request.getName())
                 .description(request.getDescription())
                 .type(request.getType())
-                .startDate(Instant.now())
+                .startDate(request.getStartDate() != null ? request.getStartDate() : Instant.now())
                 .endDate(request.getEndDate())
                 .status(Status.PENDING)
                 .build();
+        incentiveProgramLifecycleService.apply(entity);
         entity = incentiveProgramRepository.save(entity);
         return IncentiveProgramResponse.builder()
                 .id(entity.getId())
@@ -52,6 +74,7 @@ public class IncentiveProgramServiceImpl implements IncentiveProgramService {
                     entity.setType(request.getType());
                     entity.setEndDate(request.getEndDate());
                     entity.setStatus(Status.PENDING);
+                    incentiveProgramLifecycleService.apply(entity);
                     entity = incentiveProgramRepository.save(entity);
                     return IncentiveProgramResponse.builder()
                             .id(entity.getId())
@@ -85,25 +108,33 @@ public class IncentiveProgramServiceImpl implements IncentiveProgramService {
 
     @Override
     public IncentiveProgramResponse getInventiveProgramByStatus(String status) {
-        return incentiveProgramRepository.findIncentiveProgramEntityByStatus(status)
-                .map(categoryEntity -> IncentiveProgramResponse.builder()
-                        .id(categoryEntity.getId())
-                        .name(categoryEntity.getName())
-                        .postImages(categoryEntity.getPostImages().stream()
-                                .map(postImageEntity -> PostImageResponse.builder()
-                                        .type(postImageEntity.getType())
-                                        .urlImagePost(postImageEntity.getUrlImagePost())
-                                        .name(postImageEntity.getName())
-                                        .build())
-                                .toList())
-                        .build())
+        return getInventiveProgramsByStatus(status).stream()
+                .findFirst()
                 .orElseThrow(() -> new AppException(ErrorCode.CATEGORY_NOT_FOUND));
     }
 
+    @Override
+    public List<IncentiveProgramResponse> getInventiveProgramsByStatus(String status) {
+        List<IncentiveProgramResponse> programs = getAllInventivePrograms();
+        StatusIndex index = statusIndex.get();
+        if (index == null || index.source() != programs) {
+            // Program cũ có thể chưa có status: không thuộc nhóm nào
+            index = new StatusIndex(programs, programs.stream()
+                    .filter(program -> program.getStatus() != null)
+                    .collect(Collectors.groupingBy(IncentiveProgramResponse::getStatus,
+                            Collectors.toUnmodifiableList())));
+            statusIndex.set(index);
+        }
+        return index.byStatus().getOrDefault(status.toUpperCase(Locale.ROOT), List.of());
+    }
+
     @Override
     public void deleteInventiveProgram(String id) {
         incentiveProgramRepository.findById(id)
-                .ifPresentOrElse(incentiveProgramRepository::delete,
+                .ifPresentOrElse(program -> {
+                            incentiveProgramRepository.delete(program);
+                            mediaObjectService.release(program.getPostImages());
+                        },
                         () -> {
                             throw new AppException(ErrorCode.CATEGORY_NOT_FOUND);
                         });
@@ -111,7 +142,7 @@ public class IncentiveProgramServiceImpl implements IncentiveProgramService {
 
     @Override
     public List<IncentiveProgramResponse> getAllInventivePrograms() {
-        return incentiveProgramRepository.findAll().stream()
+        return contentSnapshots.get(IncentiveProgramEntity.class, () -> incentiveProgramRepository.findAll(Sort.by(Sort.Order.desc("startDate"))).stream()
                 .map(entity -> IncentiveProgramResponse.builder()
                         .id(entity.getId())
                         .name(entity.getName())
@@ -128,7 +159,7 @@ public class IncentiveProgramServiceImpl implements IncentiveProgramService {
                                         .build())
                                 .toList())
                         .build())
-                .toList();
+                .toList());
     }
 }
 
@@ -0,0 +1,328 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.services.MediaStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Filesystem-backed media storage for on-prem deployments and local benchmarks.
+ * <p>
+ * Upload ghi qua FileChannel.transferFrom vào file ".part" rồi atomic move, nên không bao giờ
+ * đọc được file ghi dở. Object không bao giờ bị ghi đè (tên có UUID), nên file nhỏ được
+ * memory-map một lần và cache lại; file lớn được serve bằng transferTo/sendfile.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path root;
+    private final String baseUrl;
+    private final long mmapThreshold;
+    private final int mmapCacheSize;
+    // Ảnh nhỏ đã map: đọc thẳng từ page cache, không cần syscall read
+    private final Map<String, MappedByteBuffer> mappedObjects = new ConcurrentHashMap<>();
+
+    public LocalMediaStorage(@Value("${media.storage.local.root:./media-store}") String root,
+                             @Value("${media.storage.local.base-url:/media/files/}") String baseUrl,
+                             @Value("${media.storage.local.mmap-threshold:256KB}") DataSize mmapThreshold,
+                             @Value("${media.storage.local.mmap-cache-size:2048}") int mmapCacheSize) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.mmapThreshold = mmapThreshold.toBytes();
+        this.mmapCacheSize = mmapCacheSize;
+    }
+
+    @Override
+    public String upload(String folder, MultipartFile file) {
+        String objectName = MediaStorage.newObjectName(folder, file.getOriginalFilename());
+        try (InputStream inputStream = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(inputStream)) {
+            write(objectName, source);
+        } catch (IOException e) {
+            log.error("Failed to upload file: {}", file.getOriginalFilename(), e);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+        return urlOf(objectName);
+    }
+
+    @Override
+    public String uploadBytes(String objectName, String contentType, byte[] content) {
+        try (ReadableByteChannel source = Channels.newChannel(new ByteArrayInputStream(content))) {
+            write(objectName, source);
+        } catch (IOException e) {
+            log.error("Failed to upload object: {}", objectName, e);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+        return urlOf(objectName);
+    }
+
+    @Override
+    public InputStream openObject(String objectName) {
+        ByteBuffer mapped = mappedContent(objectName);
+        if (mapped != null) {
+            return new ByteBufferInputStream(mapped);
+        }
+        try {
+            return Files.newInputStream(existingPath(objectName));
+        } catch (IOException e) {
+            throw new AppException(ErrorCode.IMAGE_NOT_FOUND);
+        }
+    }
+
+    @Override
+    public void deleteObjects(Collection<String> objectNames) {
+        for (String objectName : objectNames) {
+            mappedObjects.remove(objectName);
+            try {
+                Files.deleteIfExists(pathOf(objectName));
+            } catch (IOException e) {
+                log.error("Failed to delete object: {}", objectName, e);
+            }
+        }
+    }
+
+    @Override
+    public String objectNameOf(String storedUrl) {
+        if (storedUrl == null || !storedUrl.startsWith(baseUrl)) {
+            return null;
+        }
+        String objectName = UriUtils.decode(storedUrl.substring(baseUrl.length()), StandardCharsets.UTF_8);
+        return objectName.isEmpty() ? null : objectName;
+    }
+
+    @Override
+    public String resolveImageUrl(String storedUrl) {
+        return storedUrl;
+    }
+
+    @Override
+    public String publicUrl(String objectName) {
+        return urlOf(objectName);
+    }
+
+    /**
+     * Local uploads go through {@code PUT /media/files/**} of this service; the token ties the
+     * request to its upload session.
+     */
+    @Override
+    public UploadTarget createUploadTarget(String objectName, String contentType, long maxSize, Duration ttl, String uploadToken) {
+        String url = urlOf(objectName) + "?uploadToken=" + UriUtils.encodeQueryParam(uploadToken, StandardCharsets.UTF_8);
+        return new UploadTarget(url, "PUT", Map.of("Content-Type", contentType));
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String objectName) {
+        Path path = pathOf(objectName);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(toStoredObject(objectName, path));
+        } catch (IOException e) {
+            log.error("Failed to stat object: {}", objectName, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void listObjects(String prefix, Consumer<StoredObject> consumer) {
+        Path start = prefix.endsWith("/") ? pathOf(prefix) : pathOf(prefix).getParent();
+        if (start == null || !Files.isDirectory(start)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(start)) {
+            paths.filter(Files::isRegularFile)
+                    .map(path -> root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/"))
+                    .filter(objectName -> objectName.startsWith(prefix))
+                    .forEach(objectName -> {
+                        try {
+                            consumer.accept(toStoredObject(objectName, pathOf(objectName)));
+                        } catch (IOException e) {
+                            log.warn("Failed to read attributes of {}", objectName, e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static StoredObject toStoredObject(String objectName, Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        String contentType = MediaTypeFactory.getMediaType(objectName)
+                .map(MediaType::toString)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        return new StoredObject(objectName, attributes.size(), contentType, attributes.creationTime().toInstant());
+    }
+
+    /**
+     * Receives a direct upload from the request body, rejecting bodies larger than {@code maxSize}.
+     */
+    public void receive(String objectName, InputStream body, long maxSize) {
+        try (ReadableByteChannel source = Channels.newChannel(new BoundedInputStream(body, maxSize))) {
+            write(objectName, source);
+        } catch (IOException e) {
+            log.error("Failed to receive object: {}", objectName, e);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+    }
+
+    /**
+     * Path of an existing object, for serving with transferTo/sendfile.
+     */
+    public Path existingPath(String objectName) {
+        Path path = pathOf(objectName);
+        if (!Files.isRegularFile(path)) {
+            throw new AppException(ErrorCode.IMAGE_NOT_FOUND);
+        }
+        return path;
+    }
+
+    /**
+     * Read-only view of a small object's memory-mapped content, or null if the object is larger
+     * than {@code media.storage.local.mmap-threshold}. Each call returns an independent buffer.
+     */
+    public ByteBuffer mappedContent(String objectName) {
+        MappedByteBuffer mapped = mappedObjects.get(objectName);
+        if (mapped == null) {
+            Path path = existingPath(objectName);
+            try (FileChannel channel = FileChannel.open(path, READ)) {
+                long size = channel.size();
+                if (size > mmapThreshold) {
+                    return null;
+                }
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (IOException e) {
+                log.error("Failed to map object: {}", objectName, e);
+                return null;
+            }
+            if (mappedObjects.size() >= mmapCacheSize) {
+                mappedObjects.clear();
+            }
+            mappedObjects.put(objectName, mapped);
+        }
+        return mapped.asReadOnlyBuffer();
+    }
+
+    private void write(String objectName, ReadableByteChannel source) throws IOException {
+        Path target = pathOf(objectName);
+        Files.createDirectories(target.getParent());
+        Path part = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        try (FileChannel out = FileChannel.open(part, CREATE_NEW, WRITE)) {
+            long position = 0;
+            long transferred;
+            while ((transferred = out.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                position += transferred;
+            }
+            out.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        mappedObjects.remove(objectName);
+    }
+
+    private Path pathOf(String objectName) {
+        Path path = root.resolve(objectName).normalize();
+        // Chặn path traversal (../) ra ngoài thư mục gốc
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new AppException(ErrorCode.IMAGE_NOT_FOUND);
+        }
+        return path;
+    }
+
+    private String urlOf(String objectName) {
+        return baseUrl + UriUtils.encodePath(objectName, StandardCharsets.UTF_8);
+    }
+
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream delegate;
+        private long remaining;
+
+        private BoundedInputStream(InputStream delegate, long maxSize) {
+            this.delegate = delegate;
+            this.remaining = maxSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = delegate.read();
+            if (value >= 0 && --remaining < 0) {
+                throw new IOException("Upload exceeds the allowed size");
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int count = delegate.read(bytes, offset, length);
+            if (count > 0 && (remaining -= count) < 0) {
+                throw new IOException("Upload exceeds the allowed size");
+            }
+            return count;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
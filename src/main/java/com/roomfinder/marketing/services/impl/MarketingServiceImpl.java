@@ -13,11 +13,18 @@ import com.roomfinder.marketing.repositories.*;
 import com.roomfinder.marketing.repositories.*;
 import com.roomfinder.marketing.repositories.clients.dto.InfoUserForCount;
 import com.roomfinder.marketing.repositories.entities.FeaturedRoomEntity;
+import com.roomfinder.marketing.repositories.entities.PostImage;
 import com.roomfinder.marketing.repositories.entities.PromotionalRoomEntity;
 import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
 import com.roomfinder.marketing.services.MarketingService;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.PaymentOutboxService;
+import com.roomfinder.marketing.services.PostArchiveService;
+import com.roomfinder.marketing.services.PostExpiryService;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
 import com.roomfinder.marketing.services.helper.GetTimeExpiry;
 import com.roomfinder.marketing.services.helper.MongoDBQuery;
+import com.roomfinder.marketing.services.helper.RoomIdGenerator;
 import com.roomfinder.marketing.utility.DateTimeFormatter;
 import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
@@ -33,15 +40,12 @@ import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,20 +60,33 @@ public class MarketingServiceImpl implements MarketingService {
     MarketingMapper marketingMapper;
     RoomSalePostRepository roomSalePostRepository;
     MongoTemplate mongoTemplate;
-    FirebaseStorageClient firebaseStorageClient;
     FeaturedRepository featuredRepository;
     PromotionalRepository promotionalRepository;
     DateTimeFormatter dateTimeFormatter;
     UserRepository userRepository;
     MongoDBQuery mongoDBQuery;
-    PaymentRepository paymentRepository;
+    PaymentOutboxService paymentOutboxService;
+    MediaObjectService mediaObjectService;
     GetTimeExpiry getTimeExpiry;
-    private static final Random RANDOM = new Random();
-
-
-    public static String generateRoomId() {
-        int randomNum = RANDOM.nextInt(999) + 1;
-        return String.format("room%03d", randomNum);
+    CurrentUserResolver currentUserResolver;
+    PostExpiryService postExpiryService;
+    PostArchiveService postArchiveService;
+    RoomIdGenerator roomIdGenerator;
+
+    /**
+     * Maps the statusShow label shown in the post form to the stored status; unknown labels are
+     * kept as is.
+     */
+    public static String statusShowOf(String label) {
+        if (label == null) {
+            return null;
+        }
+        return switch (label) {
+            case "Còn phòng" -> ACTIVE.name();
+            case "Đang thi công" -> PENDING.name();
+            case "Hết phòng" -> REJECTED.name();
+            default -> label;
+        };
     }
 
 
@@ -78,9 +95,7 @@ public class MarketingServiceImpl implements MarketingService {
     @Transactional
     public RoomSalePostResponse createPost(RoomSalePostRequest request) {
         // Lấy thông tin user hiện tại
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Jwt jwt = (Jwt) authentication.getPrincipal();
-        int userId = Integer.parseInt(jwt.getClaim("userId").toString());
+        int userId = currentUserResolver.getCurrentUserId();
         // Tạo bài đăng
         var roomSalePostEntity = marketingMapper.toCreateRoomSalePost(request);
 //        if (RoomSalePostRequestValidator.validate(request)) {
@@ -88,58 +103,76 @@ public class MarketingServiceImpl implements MarketingService {
 //        }
         roomSalePostEntity.setStatus(ACTIVE.name());
         roomSalePostEntity.setUserId(userId);
-        String roomId = generateRoomId();
+        String roomId = roomIdGenerator.next();
         roomSalePostEntity.setRoomId(roomId);
-        if (Objects.equals(request.getStatusShow(), "Còn phòng")) {
-            roomSalePostEntity.setStatusShow(ACTIVE.name());
-        }
-        if (Objects.equals(request.getStatusShow(), "Đang thi công")) {
-            roomSalePostEntity.setStatusShow(PENDING.name());
-        }
-        if (Objects.equals(request.getStatusShow(), "Hết phòng")) {
-            roomSalePostEntity.setStatusShow(REJECTED.name());
-        }
+        roomSalePostEntity.setStatusShow(statusShowOf(request.getStatusShow()));
+        roomSalePostEntity.setExpiresAt(postExpiryService.expiryOf(roomSalePostEntity));
         if (request.getTypePackage()==0)
         {
             roomSalePostRepository.save(roomSalePostEntity);
         }
         else {
+            // Ghi outbox trước bài đăng: dispatcher chỉ trừ tiền khi bài đăng đã tồn tại,
+            // nên không có trạng thái "đã lưu bài nhưng mất lệnh trừ tiền"
+            paymentOutboxService.enqueuePostPackage(userId, roomId, request.getTypePackage());
             roomSalePostRepository.save(roomSalePostEntity);
             if (roomSalePostEntity.getCreatedDate() != null) {
                 roomSalePostEntity.setCreated(dateTimeFormatter.format(roomSalePostEntity.getCreatedDate()));
             } else {
                 throw new AppException(ErrorCode.POST_CREATION_FAILED);
             }
-            paymentRepository.minusBalance(request.getTypePackage(),roomId);
         }
         return marketingMapper.toResponseRoomSalePost(roomSalePostEntity);
     }
     @Override
 //    @PreAuthorize("hasRole('ADMIN')")
     public RoomSalePostResponse updatePost(String id, RoomSalePostRequest request) {
+        // Bài đã chuyển sang archive vẫn sửa được, lưu lại ngay trong archive
         return roomSalePostRepository.findById(id)
-                .map(existingPost -> {
-                    marketingMapper.updateRoomSalePost(request, existingPost);
-                    firebaseStorageClient.updatePostImagesWithSignedUrls(existingPost);
-                    roomSalePostRepository.save(existingPost); // Save after updating images
-                    return marketingMapper.toResponseRoomSalePost(existingPost);
-                })
+                .map(existingPost -> updatePost(existingPost, request, roomSalePostRepository::save))
+                .or(() -> postArchiveService.findArchived(id)
+                        .map(existingPost -> updatePost(existingPost, request, postArchiveService::saveArchived)))
                 .orElseThrow(() -> new AppException(ErrorCode.ROOM_NOT_FOUND));
     }
 
+    private RoomSalePostResponse updatePost(RoomSalePostEntity existingPost, RoomSalePostRequest request,
+                                            Consumer<RoomSalePostEntity> save) {
+        List<PostImage> previousImages = existingPost.getRoomInfo() == null
+                ? List.of() : List.copyOf(existingPost.getRoomInfo().getPostImages());
+        marketingMapper.updateRoomSalePost(request, existingPost);
+        save.accept(existingPost);
+        // Request không có roomInfo thì mapper bỏ cả danh sách ảnh: trả lại reference của ảnh bị bỏ
+        Set<String> keptUrls = existingPost.getRoomInfo() == null ? Set.of()
+                : existingPost.getRoomInfo().getPostImages().stream()
+                .map(PostImage::getUrlImagePost)
+                .collect(Collectors.toSet());
+        mediaObjectService.release(previousImages.stream()
+                .filter(image -> !keptUrls.contains(image.getUrlImagePost()))
+                .toList());
+        return marketingMapper.toResponseRoomSalePost(existingPost);
+    }
+
     @Override
 //    @PreAuthorize("hasRole('ADMIN')")
     public void deletePost(String id) {
-        roomSalePostRepository.findById(id)
-                .ifPresentOrElse(roomSalePostRepository::delete,
-                        () -> {
-                            throw new AppException(ErrorCode.POST_NOT_FOUND);
-                        });
+        Optional<RoomSalePostEntity> live = roomSalePostRepository.findById(id);
+        RoomSalePostEntity post = live.or(() -> postArchiveService.findArchived(id))
+                .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
+        if (live.isPresent()) {
+            roomSalePostRepository.delete(post);
+        } else {
+            postArchiveService.deleteArchived(post);
+        }
+        // Trả lại reference của ảnh, object chỉ bị xoá khi không còn bài nào dùng
+        if (post.getRoomInfo() != null) {
+            mediaObjectService.release(post.getRoomInfo().getPostImages());
+        }
     }
 
     @Override
     public RoomSalePostResponse getPostById(String id) {
         var roomSalePostEntity = roomSalePostRepository.findById(id)
+                .or(() -> postArchiveService.findArchived(id))
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
         List<PromotionalRoomEntity> promotionalEntities = promotionalRepository.findAll();
         Set<String> promotionalRoomIds = promotionalEntities.stream()
@@ -224,14 +257,10 @@ public class MarketingServiceImpl implements MarketingService {
     @Override
     public PageResponse<RoomSalePostResponse> flitterPostWithStatusForUser(String status, int page, int size) {
         Pageable pageable = PageRequest.of(page - 1, size);
-        var user = userRepository.getMyInfo();
+        int userId = currentUserResolver.getCurrentUserId();
 
-        Page<RoomSalePostEntity> pageData;
-        if (StringUtils.hasText(status)) {
-            pageData = roomSalePostRepository.findAllByUserIdAndStatus(user.getId(), status, pageable);
-        } else {
-            pageData = roomSalePostRepository.findAllByUserId(user.getId(), pageable);
-        }
+        // Đọc cả bài đã chuyển sang archive
+        Page<RoomSalePostEntity> pageData = postArchiveService.findByUser(userId, status, pageable);
 
         // Lấy danh sách promotional rooms
         List<PromotionalRoomEntity> promotionalEntities = promotionalRepository.findAll();
@@ -240,7 +269,7 @@ public class MarketingServiceImpl implements MarketingService {
                 .collect(Collectors.toSet());
 
         // Lấy danh sách featured rooms và expiry time
-        List<FeaturedRoomEntity> featuredRooms = featuredRepository.findByUserId(user.getId());
+        List<FeaturedRoomEntity> featuredRooms = featuredRepository.findByUserId(userId);
         Map<String, Instant> featuredExpiryMap = featuredRooms.stream()
                 .collect(Collectors.toMap(
                         FeaturedRoomEntity::getRoomId,
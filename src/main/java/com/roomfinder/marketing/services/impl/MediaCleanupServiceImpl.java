@@ -0,0 +1,222 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.repositories.entities.UploadSessionEntity;
+import com.roomfinder.marketing.services.MediaCleanupService;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.MediaStorage;
+import com.roomfinder.marketing.services.helper.JobLock;
+import com.roomfinder.marketing.services.helper.ObjectNameSet;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Deletes media objects left behind by delete paths that only remove documents and by failed
+ * uploads.
+ * <p>
+ * Mark: stream chỉ các field URL của mọi collection có ảnh (ảnh gốc và variants) cùng các upload
+ * session còn hạn vào một {@link ObjectNameSet}. Sweep: liệt kê từng folder theo trang, object
+ * không được tham chiếu và cũ hơn {@code media.cleanup.grace-period} bị xoá theo batch. Grace
+ * period bảo vệ object vừa upload nhưng document chưa kịp lưu, kể cả object cũ vừa được dedup
+ * dùng lại (xem {@link MediaObjectService#retireOrphans}).
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class MediaCleanupServiceImpl implements MediaCleanupService {
+    private static final String JOB_NAME = "media-cleanup";
+    private static final String URL_FIELD = "urlImagePost";
+    private static final String VARIANTS_FIELD = "variants";
+    private static final String VARIANT_URL_FIELD = "url";
+
+    MediaStorage mediaStorage;
+    MediaObjectService mediaObjectService;
+    MongoTemplate mongoTemplate;
+    JobLock jobLock;
+
+    @NonFinal
+    @Value("${media.cleanup.enabled:true}")
+    boolean enabled;
+
+    @NonFinal
+    @Value("${media.cleanup.dry-run:false}")
+    boolean dryRun;
+
+    @NonFinal
+    @Value("${media.cleanup.grace-period:P1D}")
+    Duration gracePeriod;
+
+    @NonFinal
+    @Value("${media.cleanup.batch-size:100}")
+    int batchSize;
+
+    @NonFinal
+    @Value("${media.cleanup.lease:PT1H}")
+    Duration lease;
+
+    @NonFinal
+    @Value("${media.cleanup.expected-objects:100000}")
+    int expectedObjects;
+
+    @Scheduled(cron = "${media.cleanup.cron:0 30 3 * * *}")
+    public void scheduledSweep() {
+        if (!enabled || !jobLock.tryAcquire(JOB_NAME, lease)) {
+            return;
+        }
+        try {
+            SweepResult result = sweepOrphans();
+            log.info("Media cleanup finished: {} referenced, {} scanned, {} {}", result.referenced(),
+                    result.scanned(), result.deleted(), dryRun ? "would be deleted" : "deleted");
+        } catch (Exception e) {
+            // Lỗi ở bước mark thì không xoá gì, chờ lần chạy sau
+            log.error("Media cleanup failed", e);
+        } finally {
+            jobLock.release(JOB_NAME);
+        }
+    }
+
+    @Override
+    public SweepResult sweepOrphans() {
+        Instant markStartedAt = Instant.now();
+        ObjectNameSet referenced = mark();
+        Sweep sweep = new Sweep(referenced, markStartedAt.minus(gracePeriod));
+        for (String prefix : mediaPrefixes()) {
+            mediaStorage.listObjects(prefix, sweep);
+        }
+        sweep.flush();
+        return new SweepResult(referenced.size(), sweep.scanned, sweep.deleted);
+    }
+
+    private ObjectNameSet mark() {
+        ObjectNameSet referenced = new ObjectNameSet(expectedObjects);
+        Consumer<String> markUrl = url -> {
+            String objectName = mediaStorage.objectNameOf(url);
+            if (objectName != null) {
+                referenced.add(objectName);
+            }
+        };
+        for (MediaTarget target : MediaTarget.values()) {
+            markImages(mongoTemplate.getCollectionName(target.getEntityType()), target.getImagesPath(), markUrl);
+        }
+        // Bài đã lưu trữ vẫn hiển thị cho chủ bài nên ảnh của nó vẫn được tham chiếu
+        markImages(RoomSalePostEntity.ARCHIVE_COLLECTION, MediaTarget.POST.getImagesPath(), markUrl);
+        markOpenUploadSessions(referenced);
+        return referenced;
+    }
+
+    private void markImages(String collection, String imagesPath, Consumer<String> markUrl) {
+        Query query = new Query();
+        query.fields()
+                .include(imagesPath + "." + URL_FIELD)
+                .include(imagesPath + "." + VARIANTS_FIELD + "." + VARIANT_URL_FIELD);
+        query.cursorBatchSize(batchSize * 10);
+        String[] path = imagesPath.split("\\.");
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection)) {
+            documents.forEach(document -> collectImageUrls(document, path, 0, markUrl));
+        }
+    }
+
+    private void markOpenUploadSessions(ObjectNameSet referenced) {
+        Query query = Query.query(Criteria.where("completed").is(false).and("expiresAt").gt(Instant.now()));
+        query.fields().include("files.objectName");
+        try (Stream<UploadSessionEntity> sessions = mongoTemplate.stream(query, UploadSessionEntity.class)) {
+            sessions.forEach(session -> session.getFiles()
+                    .forEach(file -> referenced.add(file.getObjectName())));
+        }
+    }
+
+    // Đi theo path (vd. roomInfo.postImages), mảng ở bất kỳ cấp nào đều được duyệt hết
+    private static void collectImageUrls(Object node, String[] path, int depth, Consumer<String> markUrl) {
+        if (node instanceof List<?> list) {
+            list.forEach(element -> collectImageUrls(element, path, depth, markUrl));
+            return;
+        }
+        if (!(node instanceof Document document)) {
+            return;
+        }
+        if (depth < path.length) {
+            collectImageUrls(document.get(path[depth]), path, depth + 1, markUrl);
+            return;
+        }
+        if (document.get(URL_FIELD) instanceof String url) {
+            markUrl.accept(url);
+        }
+        if (document.get(VARIANTS_FIELD) instanceof List<?> variants) {
+            for (Object variant : variants) {
+                if (variant instanceof Document variantDocument
+                        && variantDocument.get(VARIANT_URL_FIELD) instanceof String url) {
+                    markUrl.accept(url);
+                }
+            }
+        }
+    }
+
+    private static Set<String> mediaPrefixes() {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (MediaTarget target : MediaTarget.values()) {
+            prefixes.add(target.getFolder());
+        }
+        return prefixes;
+    }
+
+    private final class Sweep implements Consumer<MediaStorage.StoredObject> {
+        private final ObjectNameSet referenced;
+        private final Instant cutoff;
+        private final List<String> batch = new ArrayList<>();
+        private long scanned;
+        private long deleted;
+
+        private Sweep(ObjectNameSet referenced, Instant cutoff) {
+            this.referenced = referenced;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        public void accept(MediaStorage.StoredObject object) {
+            scanned++;
+            if (referenced.contains(object.objectName()) || object.createdAt().isAfter(cutoff)) {
+                return;
+            }
+            batch.add(object.objectName());
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (dryRun) {
+                log.info("Media cleanup (dry run) would delete: {}", batch);
+                deleted += batch.size();
+                batch.clear();
+                return;
+            }
+            Set<String> kept = mediaObjectService.retireOrphans(batch, cutoff);
+            batch.removeAll(kept);
+            mediaStorage.deleteObjects(batch);
+            deleted += batch.size();
+            log.debug("Deleted {} orphaned media objects", batch.size());
+            batch.clear();
+        }
+    }
+}
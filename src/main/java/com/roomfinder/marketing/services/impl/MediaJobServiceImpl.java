@@ -0,0 +1,516 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.roomfinder.marketing.constants.MediaJobStatus;
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.dto.response.MediaJobResponse;
+import com.roomfinder.marketing.dto.response.PostImageResponse;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.MediaJobRepository;
+import com.roomfinder.marketing.repositories.entities.MediaJobEntity;
+import com.roomfinder.marketing.repositories.entities.MediaJobEntity.StagedFile;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.services.MediaJobService;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.MediaService;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
+import com.roomfinder.marketing.services.helper.MediaTargetAccess;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Persistent queue for multipart uploads.
+ * <p>
+ * Request thread chỉ ghi file vào GridFS (cùng Mongo, nhanh hơn nhiều so với upload lên storage
+ * và tạo variant) rồi insert job, nên latency không phụ thuộc số file. Worker chạy trên pool
+ * riêng có giới hạn ({@code media.jobs.workers}), lease job bằng findAndModify giống payment
+ * outbox và gia hạn lease trong lúc xử lý: instance chết giữa chừng thì job hết lease và được
+ * instance khác chạy lại. Mọi lệnh ghi vào job đều kèm claim id nên worker đã mất lease không ghi
+ * đè được worker sau. Ảnh đã upload được ghi vào job trước khi gắn vào entity để lần retry không
+ * upload lại; file lỗi ở lại hàng đợi và được retry riêng, file đã lưu được xoá khỏi GridFS.
+ */
+@Slf4j
+@Service
+public class MediaJobServiceImpl implements MediaJobService {
+    private static final String ADMIN_ROLE = "ROLE_ADMIN";
+    private static final String URL_FIELD = "urlImagePost";
+
+    private final MediaJobRepository mediaJobRepository;
+    private final MediaService mediaService;
+    private final MediaObjectService mediaObjectService;
+    private final MongoTemplate mongoTemplate;
+    private final GridFsTemplate gridFsTemplate;
+    private final CurrentUserResolver currentUserResolver;
+    private final MediaTargetAccess mediaTargetAccess;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService leaseRenewals;
+    private final Semaphore idleWorkers;
+    private final int maxFiles;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration lease;
+
+    public MediaJobServiceImpl(MediaJobRepository mediaJobRepository,
+                               MediaService mediaService,
+                               MediaObjectService mediaObjectService,
+                               MongoTemplate mongoTemplate,
+                               GridFsTemplate gridFsTemplate,
+                               CurrentUserResolver currentUserResolver,
+                               MediaTargetAccess mediaTargetAccess,
+                               @Value("${media.jobs.workers:4}") int workerCount,
+                               @Value("${media.jobs.max-files:20}") int maxFiles,
+                               @Value("${media.jobs.max-attempts:5}") int maxAttempts,
+                               @Value("${media.jobs.base-backoff:PT10S}") Duration baseBackoff,
+                               @Value("${media.jobs.lease:PT5M}") Duration lease) {
+        this.mediaJobRepository = mediaJobRepository;
+        this.mediaService = mediaService;
+        this.mediaObjectService = mediaObjectService;
+        this.mongoTemplate = mongoTemplate;
+        this.gridFsTemplate = gridFsTemplate;
+        this.currentUserResolver = currentUserResolver;
+        this.mediaTargetAccess = mediaTargetAccess;
+        this.maxFiles = maxFiles;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.lease = lease;
+        int threads = Math.max(1, workerCount);
+        this.idleWorkers = new Semaphore(threads);
+        this.workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                Thread.ofPlatform().name("media-job-", 0).daemon(true).factory());
+        this.workers.allowCoreThreadTimeOut(true);
+        this.leaseRenewals = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("media-job-lease").daemon(true).factory());
+    }
+
+    @Override
+    public MediaJobResponse enqueue(String targetName, String targetId, List<MultipartFile> files) {
+        MediaTarget target = MediaTarget.parse(targetName);
+        if (files == null || files.isEmpty() || files.size() > maxFiles
+                || files.stream().anyMatch(file -> !isImage(file.getContentType()))) {
+            throw new AppException(ErrorCode.INVALID_UPLOAD_REQUEST);
+        }
+        mediaTargetAccess.checkWritable(target, targetId);
+
+        String jobId = UUID.randomUUID().toString();
+        List<StagedFile> staged = stage(jobId, files);
+        Instant now = Instant.now();
+        MediaJobEntity job;
+        try {
+            job = mediaJobRepository.insert(MediaJobEntity.builder()
+                    .id(jobId)
+                    .target(target.name())
+                    .targetId(targetId)
+                    .userId(currentUserResolver.findCurrentUserId().orElse(null))
+                    .status(MediaJobStatus.QUEUED.name())
+                    .files(staged)
+                    .nextAttemptAt(now)
+                    .createdDate(now)
+                    .build());
+        } catch (RuntimeException e) {
+            deleteStaged(staged);
+            throw e;
+        }
+        startWorker();
+        return toResponse(job);
+    }
+
+    @Override
+    public MediaJobResponse getJob(String jobId) {
+        MediaJobEntity job = mediaJobRepository.findById(jobId)
+                .orElseThrow(() -> new AppException(ErrorCode.MEDIA_JOB_NOT_FOUND));
+        if (job.getUserId() != null && !currentUserResolver.hasRole(ADMIN_ROLE)
+                && !job.getUserId().equals(currentUserResolver.findCurrentUserId().orElse(null))) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+        return toResponse(job);
+    }
+
+    /**
+     * Picks up jobs queued by other instances and jobs whose retry delay or lease has elapsed.
+     */
+    @Scheduled(fixedDelayString = "${media.jobs.poll-interval:1000}")
+    public void dispatchDue() {
+        try {
+            if (idleWorkers.availablePermits() == 0 || !mongoTemplate.exists(dueQuery(Instant.now()), MediaJobEntity.class)) {
+                return;
+            }
+            // mỗi worker tự claim job cho tới khi hàng đợi rỗng
+            int started = 0;
+            while (startWorker()) {
+                started++;
+            }
+            log.debug("Started {} media job workers", started);
+        } catch (Exception e) {
+            log.error("Media job dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean startWorker() {
+        if (!idleWorkers.tryAcquire()) {
+            return false;
+        }
+        try {
+            workers.execute(this::drain);
+            return true;
+        } catch (RejectedExecutionException e) {
+            idleWorkers.release();
+            return false;
+        }
+    }
+
+    private void drain() {
+        try {
+            MediaJobEntity job;
+            while ((job = claimNext()) != null) {
+                process(job);
+            }
+        } catch (Exception e) {
+            log.error("Media job worker stopped: {}", e.getMessage());
+        } finally {
+            idleWorkers.release();
+        }
+    }
+
+    private Query dueQuery(Instant now) {
+        return new Query(Criteria.where("status").in(MediaJobStatus.QUEUED.name(), MediaJobStatus.PROCESSING.name())
+                .and("nextAttemptAt").lte(now));
+    }
+
+    /**
+     * Atomically leases the oldest due job under a new claim id. PROCESSING jobs whose lease ran
+     * out become due again.
+     */
+    private MediaJobEntity claimNext() {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", MediaJobStatus.PROCESSING.name())
+                .set("nextAttemptAt", now.plus(lease))
+                .set("claim", UUID.randomUUID().toString());
+        return mongoTemplate.findAndModify(dueQuery(now).with(Sort.by(Sort.Order.asc("nextAttemptAt"))), update,
+                FindAndModifyOptions.options().returnNew(true), MediaJobEntity.class);
+    }
+
+    void process(MediaJobEntity job) {
+        MediaTarget target = MediaTarget.valueOf(job.getTarget());
+        // Gia hạn lease trong lúc xử lý để job dài không bị worker khác claim lại
+        long renewEvery = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = leaseRenewals.scheduleAtFixedRate(() -> renew(job),
+                renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        try {
+            // Lần chạy trước đã lưu ảnh nhưng có thể chết trước khi gắn vào entity
+            attachPending(target, job);
+            if (!job.getFiles().isEmpty()) {
+                MediaUploadResult result = storeFiles(target, job);
+                attachPending(target, job);
+                if (result.hasFailures()) {
+                    retryOrFail(job, result.failureSummary());
+                    return;
+                }
+            }
+            finish(job, MediaJobStatus.COMPLETED, null);
+        } catch (LeaseLostException e) {
+            log.warn("Media job {} was claimed by another worker, dropping this run", job.getId());
+        } catch (AppException e) {
+            if (e.getErrorCode() == ErrorCode.POST_NOT_FOUND) {
+                // Entity đã bị xoá: trả lại reference của ảnh vừa upload
+                if (job.getPendingImages() != null) {
+                    mediaObjectService.release(job.getPendingImages());
+                }
+                finish(job, MediaJobStatus.FAILED, e.getErrorCode().getMessage());
+            } else {
+                retryOrFail(job, e.getErrorCode().getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Media job {} failed", job.getId(), e);
+            retryOrFail(job, e.getClass().getSimpleName());
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    /**
+     * Stores the staged files that are still pending. Stored images become the job's pending
+     * images, files that failed stay staged for the next attempt.
+     */
+    private MediaUploadResult storeFiles(MediaTarget target, MediaJobEntity job) {
+        List<StagedFile> files = job.getFiles();
+        MediaUploadResult result = mediaService.storeImages(target, files.stream()
+                .map(file -> (MultipartFile) new StagedMultipartFile(file))
+                .toList());
+        Set<Integer> failedIndexes = result.getFailures().stream()
+                .map(MediaUploadResult.FailedUpload::getIndex)
+                .collect(Collectors.toSet());
+        List<StagedFile> failed = new ArrayList<>();
+        List<StagedFile> stored = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            (failedIndexes.contains(i) ? failed : stored).add(files.get(i));
+        }
+        List<PostImage> images = new ArrayList<>(result.getImages());
+        boolean claimed = updateClaimed(job, new Update()
+                .set("pendingImages", images)
+                .set("files", failed)
+                .set("failures", result.getFailures()));
+        if (!claimed) {
+            // Worker khác đang chạy job này và sẽ tự upload: trả lại ảnh vừa lưu
+            mediaObjectService.release(images);
+            throw new LeaseLostException();
+        }
+        deleteStaged(stored);
+        job.setPendingImages(images);
+        job.setFiles(failed);
+        job.setFailures(result.getFailures());
+        return result;
+    }
+
+    private void attachPending(MediaTarget target, MediaJobEntity job) {
+        List<PostImage> pending = job.getPendingImages();
+        if (pending == null) {
+            return;
+        }
+        if (!pending.isEmpty() && !isAttached(target, job.getTargetId(), pending)) {
+            // Kiểm tra lease ngay trước khi ghi vào entity
+            if (!renew(job)) {
+                throw new LeaseLostException();
+            }
+            mediaService.attachImages(target, job.getTargetId(), pending);
+        }
+        if (!updateClaimed(job, new Update().push("images").each(pending.toArray()).unset("pendingImages"))) {
+            throw new LeaseLostException();
+        }
+        List<PostImage> images = new ArrayList<>(job.getImages() == null ? List.of() : job.getImages());
+        images.addAll(pending);
+        job.setImages(images);
+        job.setPendingImages(null);
+    }
+
+    // Lần chạy trước có thể đã gắn ảnh vào entity rồi mới chết trước khi ghi nhận vào job
+    private boolean isAttached(MediaTarget target, String targetId, List<PostImage> images) {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(targetId)
+                        .and(target.getImagesPath() + "." + URL_FIELD).is(images.get(0).getUrlImagePost())),
+                target.getEntityType());
+    }
+
+    private boolean renew(MediaJobEntity job) {
+        try {
+            return updateClaimed(job, new Update().set("nextAttemptAt", Instant.now().plus(lease)));
+        } catch (Exception e) {
+            log.warn("Could not renew the lease of media job {}: {}", job.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean updateClaimed(MediaJobEntity job, Update update) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())
+                        .and("claim").is(job.getClaim())), update, MediaJobEntity.class)
+                .getModifiedCount() > 0;
+    }
+
+    private void retryOrFail(MediaJobEntity job, String error) {
+        int attempts = job.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.warn("Media job {} failed after {} attempts: {}", job.getId(), attempts, error);
+            job.setAttempts(attempts);
+            // Một phần ảnh đã được gắn: job vẫn COMPLETED, các file lỗi nằm trong failures
+            boolean partial = job.getImages() != null && !job.getImages().isEmpty();
+            finish(job, partial ? MediaJobStatus.COMPLETED : MediaJobStatus.FAILED, error);
+            return;
+        }
+        updateClaimed(job, new Update()
+                .set("status", MediaJobStatus.QUEUED.name())
+                .set("attempts", attempts)
+                .set("nextAttemptAt", Instant.now().plus(baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 10))))
+                .set("lastError", error));
+    }
+
+    private void finish(MediaJobEntity job, MediaJobStatus status, String error) {
+        boolean claimed = updateClaimed(job, new Update()
+                .set("status", status.name())
+                .set("attempts", job.getAttempts())
+                .set("lastError", error)
+                .set("completedAt", Instant.now())
+                .unset("nextAttemptAt"));
+        if (claimed) {
+            // Xoá theo jobId để cả file của lượt trước chưa kịp xoá cũng được dọn
+            deleteStaged(job.getId());
+        }
+    }
+
+    private List<StagedFile> stage(String jobId, List<MultipartFile> files) {
+        List<StagedFile> staged = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                try (InputStream in = file.getInputStream()) {
+                    ObjectId id = gridFsTemplate.store(in, file.getOriginalFilename(), file.getContentType(),
+                            new Document("jobId", jobId));
+                    staged.add(StagedFile.builder()
+                            .gridFsId(id.toHexString())
+                            .name(file.getOriginalFilename())
+                            .contentType(file.getContentType())
+                            .size(file.getSize())
+                            .build());
+                }
+            }
+            return staged;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to stage upload job {}", jobId, e);
+            deleteStaged(staged);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+    }
+
+    private void deleteStaged(String jobId) {
+        try {
+            gridFsTemplate.delete(Query.query(Criteria.where("metadata.jobId").is(jobId)));
+        } catch (Exception e) {
+            log.error("Failed to delete staged files of job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void deleteStaged(List<StagedFile> staged) {
+        if (staged == null || staged.isEmpty()) {
+            return;
+        }
+        try {
+            gridFsTemplate.delete(Query.query(Criteria.where("_id").in(staged.stream()
+                    .map(file -> new ObjectId(file.getGridFsId()))
+                    .toList())));
+        } catch (Exception e) {
+            log.error("Failed to delete staged files: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    private static MediaJobResponse toResponse(MediaJobEntity job) {
+        return MediaJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .target(job.getTarget())
+                .targetId(job.getTargetId())
+                .attempts(job.getAttempts())
+                .images(job.getImages() == null ? null : job.getImages().stream()
+                        .map(image -> new PostImageResponse(image.getName(), image.getType(), image.getUrlImagePost()))
+                        .toList())
+                .failures(job.getFailures())
+                .error(job.getLastError())
+                .createdDate(job.getCreatedDate())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+        leaseRenewals.shutdownNow();
+    }
+
+    /**
+     * Thrown when another worker has claimed the job in the meantime; the current run stops
+     * without touching the job.
+     */
+    private static final class LeaseLostException extends RuntimeException {
+        private LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Staged GridFS file exposed as a MultipartFile so the regular upload path (hashing, dedup,
+     * streaming upload) can consume it; every {@link #getInputStream()} opens a fresh stream.
+     */
+    private final class StagedMultipartFile implements MultipartFile {
+        private final StagedFile file;
+
+        private StagedMultipartFile(StagedFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public String getName() {
+            return "files";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return file.getName();
+        }
+
+        @Override
+        public String getContentType() {
+            return file.getContentType();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return file.getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return file.getSize();
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            try (InputStream in = getInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            GridFSFile staged = gridFsTemplate.findOne(
+                    Query.query(Criteria.where("_id").is(new ObjectId(file.getGridFsId()))));
+            if (staged == null) {
+                throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+            }
+            return gridFsTemplate.getResource(staged).getInputStream();
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            try (InputStream in = getInputStream()) {
+                Files.copy(in, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
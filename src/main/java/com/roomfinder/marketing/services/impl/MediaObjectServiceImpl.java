@@ -0,0 +1,209 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.MediaObjectRepository;
+import com.roomfinder.marketing.repositories.entities.ImageVariant;
+import com.roomfinder.marketing.repositories.entities.MediaObjectEntity;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.MediaStorage;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Deduplicates uploads by content. The multipart temp file is hashed (SHA-256) before anything
+ * is sent to storage; when the hash is already indexed the existing object is reused and only its
+ * refCount changes, so a repeat upload costs one local file read and one Mongo round trip.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class MediaObjectServiceImpl implements MediaObjectService {
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    MediaStorage mediaStorage;
+    MediaObjectRepository mediaObjectRepository;
+    MongoTemplate mongoTemplate;
+
+    @NonFinal
+    @Value("${media.dedup.enabled:true}")
+    boolean dedupEnabled;
+
+    @Override
+    public MediaObjectEntity store(String folder, MultipartFile file) {
+        if (!dedupEnabled) {
+            return untracked(mediaStorage.upload(folder, file), file);
+        }
+
+        String hash = sha256(file);
+        MediaObjectEntity existing = acquire(hash);
+        if (existing != null) {
+            log.debug("Reusing stored object {} for {}", existing.getObjectName(), file.getOriginalFilename());
+            return existing;
+        }
+
+        String url = mediaStorage.upload(folder, file);
+        MediaObjectEntity entry = MediaObjectEntity.builder()
+                .id(hash)
+                .objectName(mediaStorage.objectNameOf(url))
+                .url(url)
+                .contentType(file.getContentType())
+                .size(file.getSize())
+                .refCount(1)
+                .lastAcquiredAt(Instant.now())
+                .build();
+        try {
+            return mediaObjectRepository.insert(entry);
+        } catch (DuplicateKeyException e) {
+            // Cùng nội dung được upload song song: dùng object đã đăng ký, xoá bản vừa ghi
+            MediaObjectEntity winner = acquire(hash);
+            if (winner == null) {
+                return untracked(url, file);
+            }
+            mediaStorage.deleteObjects(List.of(entry.getObjectName()));
+            return winner;
+        }
+    }
+
+    @Override
+    public void release(Collection<PostImage> images) {
+        if (!dedupEnabled || images == null) {
+            return;
+        }
+        for (PostImage image : images) {
+            if (image == null || image.getUrlImagePost() == null) {
+                continue;
+            }
+            try {
+                releaseOne(image.getUrlImagePost());
+            } catch (RuntimeException e) {
+                log.error("Failed to release media object {}", image.getUrlImagePost(), e);
+            }
+        }
+    }
+
+    @Override
+    public void recordDerivatives(String url, List<ImageVariant> variants, String placeholder, String perceptualHash) {
+        if (!dedupEnabled) {
+            return;
+        }
+        MediaObjectEntity entry = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("url").is(url)),
+                new Update()
+                        .set("variants", variants)
+                        .set("placeholder", placeholder)
+                        .set("perceptualHash", perceptualHash),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaObjectEntity.class);
+        if (entry == null || perceptualHash == null) {
+            return;
+        }
+        mediaObjectRepository.findFirstByPerceptualHashAndIdNot(perceptualHash, entry.getId())
+                .ifPresent(similar -> {
+                    log.info("Image {} is a near duplicate of {}", entry.getObjectName(), similar.getObjectName());
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(entry.getId())),
+                            Update.update("nearDuplicateOf", similar.getId()), MediaObjectEntity.class);
+                });
+    }
+
+    @Override
+    public Set<String> retireOrphans(Collection<String> objectNames, Instant since) {
+        if (objectNames.isEmpty()) {
+            return Set.of();
+        }
+        // Xoá entry trước khi xoá object: store() không còn tìm thấy hash nên sẽ upload bản mới.
+        // Entry được acquire sau mốc since thì giữ lại cùng object của nó.
+        mongoTemplate.remove(Query.query(Criteria.where("objectName").in(objectNames)
+                        .orOperator(Criteria.where("lastAcquiredAt").lt(since),
+                                Criteria.where("lastAcquiredAt").exists(false))),
+                MediaObjectEntity.class);
+        Query remaining = Query.query(Criteria.where("objectName").in(objectNames));
+        remaining.fields().include("objectName");
+        Set<String> kept = new HashSet<>();
+        mongoTemplate.find(remaining, MediaObjectEntity.class)
+                .forEach(entry -> kept.add(entry.getObjectName()));
+        return kept;
+    }
+
+    /**
+     * Takes a reference on an indexed object. Entries whose count already dropped to zero are
+     * being deleted and are not handed out again.
+     */
+    private MediaObjectEntity acquire(String hash) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(hash).and("refCount").gt(0)),
+                new Update().inc("refCount", 1).set("lastAcquiredAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaObjectEntity.class);
+    }
+
+    private void releaseOne(String url) {
+        MediaObjectEntity entry = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("url").is(url).and("refCount").gt(0)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaObjectEntity.class);
+        if (entry == null || entry.getRefCount() > 0) {
+            return;
+        }
+        long removed = mongoTemplate.remove(
+                Query.query(Criteria.where("_id").is(entry.getId()).and("refCount").lte(0)),
+                MediaObjectEntity.class).getDeletedCount();
+        if (removed == 0) {
+            return;
+        }
+
+        List<String> objectNames = new ArrayList<>();
+        objectNames.add(entry.getObjectName());
+        Optional.ofNullable(entry.getVariants()).orElse(List.of()).stream()
+                .map(variant -> mediaStorage.objectNameOf(variant.getUrl()))
+                .filter(Objects::nonNull)
+                .forEach(objectNames::add);
+        mediaStorage.deleteObjects(objectNames);
+    }
+
+    private MediaObjectEntity untracked(String url, MultipartFile file) {
+        return MediaObjectEntity.builder()
+                .objectName(mediaStorage.objectNameOf(url))
+                .url(url)
+                .contentType(file.getContentType())
+                .size(file.getSize())
+                .build();
+    }
+
+    private static String sha256(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.error("Failed to hash file: {}", file.getOriginalFilename(), e);
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+    }
+}
@@ -1,23 +1,37 @@
 package com.roomfinder.marketing.services.impl;
 
 import com.roomfinder.marketing.constants.BucketConstants;
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.MediaOwner;
+import com.roomfinder.marketing.dto.MediaUploadResult;
 import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.repositories.*;
-import com.roomfinder.marketing.repositories.*;
-import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.repositories.entities.*;
+import com.roomfinder.marketing.services.ImageDerivativeService;
+import com.roomfinder.marketing.services.IncentiveProgramLifecycleService;
+import com.roomfinder.marketing.services.MediaObjectService;
 import com.roomfinder.marketing.services.MediaService;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import com.roomfinder.marketing.services.helper.ContentSnapshots;
+import com.roomfinder.marketing.services.helper.ParallelImageUploader;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static com.roomfinder.marketing.constants.Status.ACTIVE;
 
@@ -28,7 +42,13 @@ import static com.roomfinder.marketing.constants.Status.ACTIVE;
 @Slf4j
 public class MediaServiceImpl implements MediaService {
 
-    FirebaseStorageClient firebaseStorageClient;
+    MediaObjectService mediaObjectService;
+    ParallelImageUploader parallelImageUploader;
+    ImageDerivativeService imageDerivativeService;
+    TrainingCorpusService trainingCorpusService;
+    ContentSnapshots contentSnapshots;
+    IncentiveProgramLifecycleService incentiveProgramLifecycleService;
+    MongoTemplate mongoTemplate;
     RoomSalePostRepository roomSalePostRepository;
     CarouselRepository carouselRepository;
     NewsRepository newsRepository;
@@ -37,138 +57,221 @@ public class MediaServiceImpl implements MediaService {
     RealEstateExperienceRepository realEstateExperienceRepository;
     HospitalRoomRepository hospitalRoomRepository;
     @Override
-    public Set<PostImage> uploadImagesRoomSalePosts(String postId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesRoomSalePosts(String postId, List<MultipartFile> files) {
         var roomSalePostEntity = roomSalePostRepository.findById(postId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
             log.info("No files to upload for postId: {}", postId);
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> postImages = uploadImagesToFolder(files, BucketConstants.MARKETING_FOLDER.getValue());
-        roomSalePostEntity.getRoomInfo().getPostImages().addAll(postImages);
-        roomSalePostEntity.setStatus(ACTIVE.name());
-           roomSalePostRepository.save(roomSalePostEntity);
+        MediaUploadResult postImages = uploadImagesToFolder(files, BucketConstants.MARKETING_FOLDER.getValue());
+        roomSalePostEntity.getRoomInfo().getPostImages().addAll(postImages.getImages());
+        // Chỉ kích hoạt bài chưa có trạng thái: PENDING (chưa trừ tiền), EXPIRED, REJECTED giữ nguyên
+        if (roomSalePostEntity.getStatus() == null) {
+            roomSalePostEntity.setStatus(ACTIVE.name());
+        }
+        roomSalePostRepository.save(roomSalePostEntity);
+        scheduleDerivatives(RoomSalePostEntity.class, postId, MediaOwner.ROOM_POST_IMAGES, postImages);
         return postImages;
     }
     @Override
-    public Set<PostImage> uploadImagesHospitalRoom(String postId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesHospitalRoom(String postId, List<MultipartFile> files) {
         var hospitalRoomEntity = hospitalRoomRepository.findById(postId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
             log.info("No files to upload for postId: {}", postId);
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> postImages = uploadImagesToFolder(files, BucketConstants.MARKETING_FOLDER.getValue());
-        hospitalRoomEntity.getPostImages().addAll(postImages);
+        MediaUploadResult postImages = uploadImagesToFolder(files, BucketConstants.MARKETING_FOLDER.getValue());
+        hospitalRoomEntity.getPostImages().addAll(postImages.getImages());
         hospitalRoomRepository.save(hospitalRoomEntity);
+        scheduleDerivatives(HospitalRoomEntity.class, postId, MediaOwner.POST_IMAGES, postImages);
         return postImages;
     }
 
     @Override
-    public Set<PostImage> uploadImagesCarousel(String carouselId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesCarousel(String carouselId, List<MultipartFile> files) {
         var carouselEntity = carouselRepository.findById(carouselId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> carouselImages = uploadImagesToFolder(files, BucketConstants.CAROUSEL_FOLDER.getValue());
-        carouselEntity.getPostImages().addAll(carouselImages);
+        MediaUploadResult carouselImages = uploadImagesToFolder(files, BucketConstants.CAROUSEL_FOLDER.getValue());
+        carouselEntity.getPostImages().addAll(carouselImages.getImages());
         carouselRepository.save(carouselEntity);
+        scheduleDerivatives(CarouselEntity.class, carouselId, MediaOwner.POST_IMAGES, carouselImages);
         return carouselImages;
     }
 
     @Override
-    public Set<PostImage> uploadImagesNews(String newId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesNews(String newId, List<MultipartFile> files) {
         var newsEntity = newsRepository.findById(newId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> newsImages = uploadImagesToFolder(files, BucketConstants.MARKET_AND_TREND_FOLDER.getValue());
-        newsEntity.getPostImages().addAll(newsImages);
+        MediaUploadResult newsImages = uploadImagesToFolder(files, BucketConstants.MARKET_AND_TREND_FOLDER.getValue());
+        newsEntity.getPostImages().addAll(newsImages.getImages());
         newsRepository.save(newsEntity);
+        scheduleDerivatives(NewsEntity.class, newId, MediaOwner.POST_IMAGES, newsImages);
         return newsImages;
     }
 
     @Override
-    public Set<PostImage> uploadImagesCategory(String categoryId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesCategory(String categoryId, List<MultipartFile> files) {
         var categoryEntity = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> categoryImages = uploadImagesToFolder(files, BucketConstants.CATEGORY_FOLDER.getValue());
-        categoryEntity.getPostImages().addAll(categoryImages);
+        MediaUploadResult categoryImages = uploadImagesToFolder(files, BucketConstants.CATEGORY_FOLDER.getValue());
+        categoryEntity.getPostImages().addAll(categoryImages.getImages());
         categoryRepository.save(categoryEntity);
+        scheduleDerivatives(CategoryEntity.class, categoryId, MediaOwner.POST_IMAGES, categoryImages);
         return categoryImages;
     }
 
     @Override
-    public Set<PostImage> uploadImagesIncentiveProgram(String incentiveId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesIncentiveProgram(String incentiveId, List<MultipartFile> files) {
         var incentiveProgramEntity = incentiveProgramRepository.findById(incentiveId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
             log.info("No files to upload for incentiveId: {}", incentiveId);
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> incentiveImages = uploadImagesToFolder(files, BucketConstants.INCENTIVE_FOLDER.getValue());
-        incentiveProgramEntity.getPostImages().addAll(incentiveImages);
-        incentiveProgramEntity.setStatus(ACTIVE);
+        MediaUploadResult incentiveImages = uploadImagesToFolder(files, BucketConstants.INCENTIVE_FOLDER.getValue());
+        incentiveProgramEntity.getPostImages().addAll(incentiveImages.getImages());
+        // Có ảnh rồi, lifecycle quyết định ACTIVE hay chờ tới startDate
+        incentiveProgramLifecycleService.apply(incentiveProgramEntity);
         incentiveProgramRepository.save(incentiveProgramEntity);
+        scheduleDerivatives(IncentiveProgramEntity.class, incentiveId, MediaOwner.POST_IMAGES, incentiveImages);
         return incentiveImages;
     }
 
     @Override
-    public Set<PostImage> uploadImagesRealEstateExperience(String realEstateExperienceId, List<MultipartFile> files) {
+    public MediaUploadResult uploadImagesRealEstateExperience(String realEstateExperienceId, List<MultipartFile> files) {
         var realEstateExperienceEntity = realEstateExperienceRepository.findById(realEstateExperienceId)
                 .orElseThrow(() -> new AppException(ErrorCode.POST_NOT_FOUND));
 
         if (files == null || files.isEmpty()) {
             log.info("No files to upload for realEstateExperienceId: {}", realEstateExperienceId);
-            return Set.of();
+            return MediaUploadResult.empty();
         }
 
-        Set<PostImage> experienceImages = uploadImagesToFolder(files, BucketConstants.REAL_ESTATE_EXPERIENCE_FOLDER.getValue());
-        realEstateExperienceEntity.getPostImages().addAll(experienceImages);
+        MediaUploadResult experienceImages = uploadImagesToFolder(files, BucketConstants.REAL_ESTATE_EXPERIENCE_FOLDER.getValue());
+        realEstateExperienceEntity.getPostImages().addAll(experienceImages.getImages());
         realEstateExperienceRepository.save(realEstateExperienceEntity);
+        scheduleDerivatives(RealEstateExperienceEntity.class, realEstateExperienceId, MediaOwner.POST_IMAGES, experienceImages);
         return experienceImages;
     }
 
+    @Override
+    public MediaUploadResult storeImages(MediaTarget target, List<MultipartFile> files) {
+        return uploadImagesToFolder(files, target.getFolder());
+    }
+
+    @Override
+    public void attachImages(MediaTarget target, String targetId, Collection<PostImage> images) {
+        Update update = new Update().push(target.getImagesPath()).each(images.toArray());
+        long matched = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(targetId)), update,
+                target.getEntityType()).getMatchedCount();
+        if (matched == 0) {
+            throw new AppException(ErrorCode.POST_NOT_FOUND);
+        }
+        if (target.isActivateOnUpload()) {
+            // Giống upload multipart: chỉ kích hoạt document chưa có trạng thái
+            long activated = mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(targetId).and("status").is(null)),
+                    Update.update("status", ACTIVE.name()), target.getEntityType()).getModifiedCount();
+            if (activated > 0 && target.getEntityType() == RoomSalePostEntity.class) {
+                // Update trực tiếp không đi qua repository nên listener không thấy thay đổi status
+                refreshTrainingCorpus(targetId);
+            }
+        }
+        if (target.getEntityType() == IncentiveProgramEntity.class) {
+            incentiveProgramLifecycleService.evaluate(targetId);
+        }
+        contentSnapshots.changed(target.getEntityType());
+        scheduleDerivatives(target.getEntityType(), targetId, target.getImagesPath(), images);
+    }
+
+    private void refreshTrainingCorpus(String postId) {
+        try {
+            trainingCorpusService.refresh(postId);
+        } catch (Exception e) {
+            log.warn("Could not refresh training intents of post {}", postId, e);
+        }
+    }
+
+    /**
+     * Queues thumbnail/WebP/placeholder generation for the images just attached to a document.
+     */
+    private void scheduleDerivatives(Class<?> entityType, String id, String imagesPath, MediaUploadResult uploaded) {
+        scheduleDerivatives(entityType, id, imagesPath, uploaded.getImages());
+    }
+
+    private void scheduleDerivatives(Class<?> entityType, String id, String imagesPath, Collection<PostImage> images) {
+        // Ảnh trùng nội dung với object đã có thì dùng lại variants, không cần xử lý lại
+        List<PostImage> pending = images.stream()
+                .filter(image -> image.getVariants() == null)
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        MediaOwner owner = new MediaOwner(mongoTemplate.getCollectionName(entityType), id, imagesPath);
+        imageDerivativeService.scheduleDerivatives(owner, pending);
+    }
+
     /**
      * Generic method to upload multiple files to a specified folder.
+     * Files are uploaded concurrently; the result keeps the order of {@code files}.
      */
-    private Set<PostImage> uploadImagesToFolder(List<MultipartFile> files, String folder) {
-        return files.stream()
-                .map(file -> uploadSingleImage(file, folder))
-                .collect(Collectors.toSet());
+    private MediaUploadResult uploadImagesToFolder(List<MultipartFile> files, String folder) {
+        MediaUploadResult result = parallelImageUploader.uploadAll(files, file -> uploadSingleImage(file, folder));
+        // Cùng một file chọn hai lần trong một request trỏ về cùng object: chỉ gắn một ảnh,
+        // reference thừa do store() tăng được trả lại
+        Set<String> urls = new HashSet<>();
+        List<PostImage> duplicates = new ArrayList<>();
+        for (PostImage image : result.getImages()) {
+            if (!urls.add(image.getUrlImagePost())) {
+                duplicates.add(image);
+            }
+        }
+        if (!duplicates.isEmpty()) {
+            duplicates.forEach(result.getImages()::remove);
+            mediaObjectService.release(duplicates);
+        }
+        return result;
     }
 
     /**
      * Uploads a single file to a specified folder and returns a PostImage object.
      */
     private PostImage uploadSingleImage(MultipartFile file, String folder) {
-        String storedFileName = firebaseStorageClient.uploadFileToBucket(
-                BucketConstants.BUCKET_NAME.getValue(),
-                folder,
-                file
-        );
+        // Kiểm tra content type trước khi upload để không để lại file mồ côi trên bucket
+        String contentType = Optional.ofNullable(file.getContentType())
+                .orElseThrow(() -> new AppException(ErrorCode.FILE_UPLOAD_FAILED));
+
+        MediaObjectEntity stored = mediaObjectService.store(folder, file);
 
         return PostImage.builder()
                 .name(file.getOriginalFilename())
-                .type(Optional.ofNullable(file.getContentType()).orElseThrow(() -> new AppException(ErrorCode.FILE_UPLOAD_FAILED)))
-                .urlImagePost(storedFileName)
+                .type(contentType)
+                .urlImagePost(stored.getUrl())
+                .variants(stored.getVariants())
+                .placeholder(stored.getPlaceholder())
                 .build();
     }
 
@@ -1,32 +1,41 @@
 package com.roomfinder.marketing.services.impl;
 
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
 import com.roomfinder.marketing.dto.response.PostImageResponse;
 import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.repositories.NewsRepository;
 import com.roomfinder.marketing.repositories.entities.NewsEntity;
+import com.roomfinder.marketing.services.MediaObjectService;
 import com.roomfinder.marketing.services.NewsService;
+import com.roomfinder.marketing.services.helper.ArticleFeed;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.List;
 
 @AllArgsConstructor
 @Service
 public class NewsServiceImpl implements NewsService {
     NewsRepository newsRepository;
+    ArticleFeed articleFeed;
+    MediaObjectService mediaObjectService;
 
     @Override
     public NewsResponse createNews(NewsRequest newsRequest) {
         NewsEntity newsEntity = NewsEntity.builder()
                 .title(newsRequest.getTitle())
                 .description(newsRequest.getDescription())
+                .createdDate(Instant.now())
                 .build();
         newsRepository.save(newsEntity);
         return NewsResponse.builder()
@@ -38,7 +47,8 @@ public class NewsServiceImpl implements NewsService {
 
     @Override
     public PageResponse<NewsResponse> getAllNews(int page, int size) {
-        Pageable pageable = PageRequest.of(page-1, size);
+        // Sắp xếp cố định để các trang không trùng/sót bài
+        Pageable pageable = PageRequest.of(page-1, size, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
         Page<NewsEntity> newsPage = newsRepository.findAll(pageable);
 
         List<NewsResponse> newsResponses = newsPage.getContent().stream()
@@ -65,6 +75,11 @@ public class NewsServiceImpl implements NewsService {
                 .build();
     }
 
+    @Override
+    public CursorPageResponse<ArticleSummaryResponse> getNewsFeed(String cursor, int size) {
+        return articleFeed.page(NewsEntity.class, cursor, size);
+    }
+
     @Override
     public NewsResponse getNewsById(String id) {
         return newsRepository.findById(id)
@@ -80,7 +95,7 @@ public class NewsServiceImpl implements NewsService {
                                         .build())
                                 .toList())
                         .build())
-                .orElseThrow(() -> new RuntimeException("Market and trend not found"));
+                .orElseThrow(() -> new AppException(ErrorCode.NEWS_NOT_FOUND));
 
     }
 
@@ -102,7 +117,10 @@ public class NewsServiceImpl implements NewsService {
 
     @Override
     public String deleteNewsById(String id) {
-        newsRepository.deleteById(id);
+        newsRepository.findById(id).ifPresent(news -> {
+            newsRepository.delete(news);
+            mediaObjectService.release(news.getPostImages());
+        });
         return "Delete Successful";
     }
 }
@@ -0,0 +1,342 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.constants.OutboxStatus;
+import com.roomfinder.marketing.constants.PaymentReason;
+import com.roomfinder.marketing.repositories.FeaturedRepository;
+import com.roomfinder.marketing.repositories.PaymentOutboxRepository;
+import com.roomfinder.marketing.repositories.PaymentRepository;
+import com.roomfinder.marketing.repositories.datamodel.BalanceDeduction;
+import com.roomfinder.marketing.repositories.entities.FeaturedRoomEntity;
+import com.roomfinder.marketing.repositories.entities.PaymentOutboxEntity;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.PaymentOutboxService;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import feign.FeignException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.roomfinder.marketing.constants.Status.PENDING;
+
+/**
+ * Transactional outbox for balance deductions. Request paths only insert an outbox entry;
+ * the scheduled dispatcher claims due entries in batches, calls the payment service with the
+ * service credential and the entry id as idempotency key, retries transient failures with backoff
+ * and compensates (post back to PENDING, featured change rolled back) when the deduction finally fails.
+ * Every update after the claim is conditional on it, so a dispatcher whose lease ran out cannot
+ * overwrite the outcome of the one that took the entry over.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PaymentOutboxServiceImpl implements PaymentOutboxService {
+    PaymentOutboxRepository paymentOutboxRepository;
+    PaymentRepository paymentRepository;
+    FeaturedRepository featuredRepository;
+    MongoTemplate mongoTemplate;
+    TrainingCorpusService trainingCorpusService;
+
+    @NonFinal
+    @Value("${payment.outbox.batch-size:50}")
+    int batchSize;
+
+    @NonFinal
+    @Value("${payment.outbox.max-attempts:6}")
+    int maxAttempts;
+
+    @NonFinal
+    @Value("${payment.outbox.base-backoff:PT5S}")
+    Duration baseBackoff;
+
+    @NonFinal
+    @Value("${payment.outbox.lease:PT1M}")
+    Duration lease;
+
+    // Thời gian chờ bài đăng/featured được ghi sau entry outbox trước khi coi như không tồn tại
+    @NonFinal
+    @Value("${payment.outbox.target-grace:PT1M}")
+    Duration targetGrace;
+
+    @Override
+    public PaymentOutboxEntity enqueuePostPackage(int userId, String roomId, int typePackage) {
+        return paymentOutboxRepository.insert(newEntry(PaymentReason.POST_PACKAGE, userId, roomId, typePackage)
+                .build());
+    }
+
+    // Bulk import: cả batch là một entry, được trừ tiền bằng một giao dịch
+    @Override
+    public PaymentOutboxEntity enqueuePostPackages(int userId, Map<String, Integer> typePackageByRoomId) {
+        return paymentOutboxRepository.insert(newEntry(PaymentReason.POST_PACKAGES, userId, null, 0)
+                .items(typePackageByRoomId.entrySet().stream()
+                        .map(entry -> new PaymentOutboxEntity.PackageItem(entry.getKey(), entry.getValue()))
+                        .toList())
+                .build());
+    }
+
+    @Override
+    public PaymentOutboxEntity enqueueFeaturedAds(int userId, String roomId, int typePackage,
+                                                  boolean featuredCreated, Instant previousExpiry) {
+        return paymentOutboxRepository.insert(newEntry(PaymentReason.FEATURED_ADS, userId, roomId, typePackage)
+                .featuredCreated(featuredCreated)
+                .previousFeaturedExpiry(previousExpiry)
+                .build());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval:2000}")
+    public void dispatchPending() {
+        try {
+            for (PaymentOutboxEntity entry : claimBatch()) {
+                // Lease hết hạn trước khi tới lượt: dispatcher khác có thể đã claim lại entry này
+                if (!entry.getNextAttemptAt().isAfter(Instant.now())) {
+                    log.debug("Lease of payment outbox entry {} ran out before delivery", entry.getId());
+                    continue;
+                }
+                deliver(entry);
+            }
+        } catch (Exception e) {
+            log.error("Payment outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private PaymentOutboxEntity.PaymentOutboxEntityBuilder newEntry(PaymentReason reason, int userId,
+                                                                    String roomId, int typePackage) {
+        Instant now = Instant.now();
+        return PaymentOutboxEntity.builder()
+                .id(UUID.randomUUID().toString())
+                .reason(reason.name())
+                .userId(userId)
+                .roomId(roomId)
+                .typePackage(typePackage)
+                .status(OutboxStatus.NEW.name())
+                .nextAttemptAt(now)
+                .createdDate(now);
+    }
+
+    /**
+     * Leases up to batchSize due entries in three round trips: due ids, one updateMulti tagging
+     * them with a new claim id, and a read of what that claim actually got. PROCESSING entries
+     * whose lease ran out (dispatcher crashed mid-call) become due again.
+     */
+    private List<PaymentOutboxEntity> claimBatch() {
+        Instant now = Instant.now();
+        Query candidates = new Query(due(Criteria.where("status"), now))
+                .with(Sort.by(Sort.Order.asc("nextAttemptAt")))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, PaymentOutboxEntity.class).stream()
+                .map(PaymentOutboxEntity::getId)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Điều kiện due được kiểm lại: entry mà dispatcher khác vừa claim sẽ không bị claim lần nữa
+        String claim = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(new Query(due(Criteria.where("_id").in(ids).and("status"), now)), new Update()
+                        .set("status", OutboxStatus.PROCESSING.name())
+                        .set("nextAttemptAt", now.plus(lease))
+                        .set("claim", claim),
+                PaymentOutboxEntity.class);
+        return mongoTemplate.find(new Query(Criteria.where("claim").is(claim))
+                .with(Sort.by(Sort.Order.asc("createdDate"))), PaymentOutboxEntity.class);
+    }
+
+    private static Criteria due(Criteria status, Instant now) {
+        return status.in(OutboxStatus.NEW.name(), OutboxStatus.PROCESSING.name()).and("nextAttemptAt").lte(now);
+    }
+
+    private void deliver(PaymentOutboxEntity entry) {
+        boolean graceOver = entry.getCreatedDate().plus(targetGrace).isBefore(Instant.now());
+        if (isBatch(entry)) {
+            List<PaymentOutboxEntity.PackageItem> persisted = persistedItems(entry);
+            if (persisted.size() < entry.getItems().size()) {
+                if (!graceOver) {
+                    reschedule(entry, entry.getAttempts(), baseBackoff, null);
+                    return;
+                }
+                if (persisted.isEmpty()) {
+                    finish(entry, OutboxStatus.COMPENSATED, "Target was never persisted");
+                    return;
+                }
+                // Chỉ trừ tiền các bài đã ghi được; lưu lại để mọi lần retry gửi cùng một danh sách
+                if (!updateClaimed(entry, new Update().set("items", persisted))) {
+                    return;
+                }
+                entry.setItems(persisted);
+            }
+        } else if (!targetExists(entry)) {
+            if (graceOver) {
+                // Bài đăng chưa bao giờ được lưu: không trừ tiền, không cần bù trừ
+                finish(entry, OutboxStatus.COMPENSATED, "Target was never persisted");
+            } else {
+                reschedule(entry, entry.getAttempts(), baseBackoff, null);
+            }
+            return;
+        }
+
+        try {
+            charge(entry);
+            finish(entry, OutboxStatus.SENT, null);
+        } catch (FeignException e) {
+            int attempts = entry.getAttempts() + 1;
+            if (isPermanent(e) || attempts >= maxAttempts) {
+                compensate(entry, e.getMessage());
+            } else {
+                reschedule(entry, attempts, backoff(attempts), e.getMessage());
+            }
+        } catch (Exception e) {
+            int attempts = entry.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                compensate(entry, e.getMessage());
+            } else {
+                reschedule(entry, attempts, backoff(attempts), e.getMessage());
+            }
+        }
+    }
+
+    private void charge(PaymentOutboxEntity entry) {
+        if (isBatch(entry)) {
+            paymentRepository.minusBalances(entry.getUserId(), entry.getItems().stream()
+                    .map(item -> new BalanceDeduction.Item(item.getRoomId(), item.getTypePackage()))
+                    .toList(), entry.getId());
+        } else {
+            paymentRepository.minusBalance(entry.getUserId(), entry.getTypePackage(), entry.getRoomId(),
+                    entry.getId());
+        }
+    }
+
+    private static boolean isBatch(PaymentOutboxEntity entry) {
+        return PaymentReason.POST_PACKAGES.name().equals(entry.getReason());
+    }
+
+    private static List<String> roomIdsOf(PaymentOutboxEntity entry) {
+        return entry.getItems().stream().map(PaymentOutboxEntity.PackageItem::getRoomId).toList();
+    }
+
+    // Các item có bài đăng đã được ghi, đọc bằng một query
+    private List<PaymentOutboxEntity.PackageItem> persistedItems(PaymentOutboxEntity entry) {
+        Query query = new Query(Criteria.where("roomId").in(roomIdsOf(entry)));
+        query.fields().include("roomId");
+        Set<String> persisted = mongoTemplate.find(query, RoomSalePostEntity.class).stream()
+                .map(RoomSalePostEntity::getRoomId)
+                .collect(Collectors.toSet());
+        return entry.getItems().stream().filter(item -> persisted.contains(item.getRoomId())).toList();
+    }
+
+    private boolean targetExists(PaymentOutboxEntity entry) {
+        Criteria byRoomId = Criteria.where("roomId").is(entry.getRoomId());
+        if (PaymentReason.FEATURED_ADS.name().equals(entry.getReason())) {
+            if (!entry.isFeaturedCreated() && entry.getPreviousFeaturedExpiry() != null) {
+                // Gia hạn: featuredRoom đã tồn tại từ trước, chỉ trừ tiền khi expiry mới đã được lưu
+                byRoomId = byRoomId.and("expiry").gt(entry.getPreviousFeaturedExpiry());
+            }
+            return mongoTemplate.exists(new Query(byRoomId), FeaturedRoomEntity.class);
+        }
+        return mongoTemplate.exists(new Query(byRoomId), RoomSalePostEntity.class);
+    }
+
+    // Lỗi 4xx là lỗi nghiệp vụ, ví dụ không đủ số dư: không retry. Trừ 408/429 và 401/403:
+    // service token bị từ chối (đang rotate, cấu hình sai) không có nghĩa là giao dịch không hợp lệ
+    private static boolean isPermanent(FeignException e) {
+        int status = e.status();
+        return status >= 400 && status < 500
+                && status != 401 && status != 403 && status != 408 && status != 429;
+    }
+
+    private Duration backoff(int attempts) {
+        return baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 10));
+    }
+
+    private void compensate(PaymentOutboxEntity entry, String error) {
+        // Giữ chỗ trước khi bù trừ: nếu entry đã thuộc claim khác thì để claim đó quyết định
+        if (!renew(entry)) {
+            log.warn("Payment outbox entry {} was claimed again, skipping compensation", entry.getId());
+            return;
+        }
+        log.warn("Payment deduction {} for room {} failed, compensating: {}", entry.getId(),
+                isBatch(entry) ? roomIdsOf(entry) : entry.getRoomId(), error);
+        Query byRoomId = new Query(Criteria.where("roomId").is(entry.getRoomId()));
+        if (isBatch(entry)) {
+            // Chỉ các bài của entry này quay về PENDING, corpus được cập nhật bằng một lần đọc/ghi
+            Query byRoomIds = new Query(Criteria.where("roomId").in(roomIdsOf(entry)));
+            mongoTemplate.updateMulti(byRoomIds, Update.update("status", PENDING.name()), RoomSalePostEntity.class);
+            try {
+                trainingCorpusService.refresh(mongoTemplate.find(byRoomIds, RoomSalePostEntity.class));
+            } catch (Exception e) {
+                log.warn("Could not refresh training intents of {} rooms", entry.getItems().size(), e);
+            }
+        } else if (PaymentReason.FEATURED_ADS.name().equals(entry.getReason())) {
+            featuredRepository.findByRoomId(entry.getRoomId()).ifPresent(featured -> {
+                if (entry.isFeaturedCreated()) {
+                    featuredRepository.delete(featured);
+                    return;
+                }
+                LinkedList<Integer> types = new LinkedList<>(featured.getTypes());
+                types.removeLastOccurrence(entry.getTypePackage());
+                featured.setTypes(types);
+                featured.setExpiry(entry.getPreviousFeaturedExpiry());
+                featuredRepository.save(featured);
+            });
+        } else {
+            mongoTemplate.updateMulti(byRoomId, Update.update("status", PENDING.name()), RoomSalePostEntity.class);
+            try {
+                trainingCorpusService.refreshByRoomId(entry.getRoomId());
+            } catch (Exception e) {
+                log.warn("Could not refresh training intents of room {}", entry.getRoomId(), e);
+            }
+        }
+        finish(entry, OutboxStatus.COMPENSATED, error);
+    }
+
+    private boolean renew(PaymentOutboxEntity entry) {
+        return updateClaimed(entry, new Update().set("nextAttemptAt", Instant.now().plus(lease)));
+    }
+
+    private void reschedule(PaymentOutboxEntity entry, int attempts, Duration delay, String error) {
+        updateClaimed(entry, new Update()
+                .set("status", OutboxStatus.NEW.name())
+                .set("attempts", attempts)
+                .set("nextAttemptAt", Instant.now().plus(delay))
+                .set("lastError", error)
+                .unset("claim"));
+    }
+
+    private void finish(PaymentOutboxEntity entry, OutboxStatus status, String error) {
+        updateClaimed(entry, new Update()
+                .set("status", status.name())
+                .set("lastError", error)
+                .unset("nextAttemptAt")
+                .unset("claim"));
+    }
+
+    private boolean updateClaimed(PaymentOutboxEntity entry, Update update) {
+        boolean updated = mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(entry.getId())
+                        .and("claim").is(entry.getClaim())), update, PaymentOutboxEntity.class)
+                .getModifiedCount() > 0;
+        if (!updated) {
+            log.warn("Payment outbox entry {} is no longer held by claim {}", entry.getId(), entry.getClaim());
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,215 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.PostArchiveService;
+import com.roomfinder.marketing.services.helper.JobLock;
+import com.roomfinder.marketing.services.helper.PostsArchivedEvent;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.roomfinder.marketing.constants.Status.EXPIRED;
+import static com.roomfinder.marketing.constants.Status.REJECTED;
+import static com.roomfinder.marketing.repositories.entities.RoomSalePostEntity.ARCHIVE_COLLECTION;
+
+/**
+ * Moves dead posts out of roomSalePosts so the hot collection and its indexes only hold live
+ * inventory.
+ * <p>
+ * Mỗi batch copy nguyên document sang roomSalePostsArchive (upsert theo _id nên chạy lại sau khi
+ * crash không tạo bản trùng) rồi mới xoá khỏi collection chính. Lệnh xoá chỉ khớp bài vẫn còn
+ * EXPIRED/REJECTED; bài được kích hoạt lại giữa chừng được giữ ở collection chính và bản copy
+ * trong archive bị bỏ. Chủ bài vẫn xem được bài đã lưu trữ qua {@link #findByUser}, và xem chi
+ * tiết, sửa, xoá qua {@link #findArchived}, {@link #saveArchived}, {@link #deleteArchived}.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PostArchiveServiceImpl implements PostArchiveService {
+    private static final String JOB_NAME = "post-archive";
+    private static final List<String> ARCHIVED_STATUSES = List.of(EXPIRED.name(), REJECTED.name());
+
+    MongoTemplate mongoTemplate;
+    JobLock jobLock;
+    ApplicationEventPublisher eventPublisher;
+
+    AtomicBoolean archiveIndexed = new AtomicBoolean();
+
+    @NonFinal
+    @Value("${post.archive.enabled:true}")
+    boolean enabled;
+
+    @NonFinal
+    @Value("${post.archive.retention:P90D}")
+    Duration retention;
+
+    @NonFinal
+    @Value("${post.archive.batch-size:500}")
+    int batchSize;
+
+    @NonFinal
+    @Value("${post.archive.max-batches:100}")
+    int maxBatches;
+
+    @NonFinal
+    @Value("${post.archive.lease:PT1H}")
+    Duration lease;
+
+    @Scheduled(cron = "${post.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (!enabled || !jobLock.tryAcquire(JOB_NAME, lease)) {
+            return;
+        }
+        try {
+            log.info("Post archive: {} posts moved to {}", archive(), ARCHIVE_COLLECTION);
+        } catch (Exception e) {
+            log.error("Post archive failed", e);
+        } finally {
+            jobLock.release(JOB_NAME);
+        }
+    }
+
+    @Override
+    public int archive() {
+        ensureArchiveIndexes();
+        Instant cutoff = Instant.now().minus(retention);
+        // Tính từ lúc hết hạn; bài cũ không có expiresAt thì tính từ lúc tạo
+        Query due = Query.query(Criteria.where("status").in(ARCHIVED_STATUSES).orOperator(
+                        Criteria.where("expiresAt").lte(cutoff),
+                        Criteria.where("expiresAt").exists(false).and("createdDate").lte(cutoff)))
+                .limit(batchSize);
+        String hot = mongoTemplate.getCollectionName(RoomSalePostEntity.class);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Document> posts = mongoTemplate.find(due, Document.class, hot);
+            if (posts.isEmpty()) {
+                break;
+            }
+            archived += moveToArchive(posts);
+            if (posts.size() < batchSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private int moveToArchive(List<Document> posts) {
+        BulkOperations copy = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ARCHIVE_COLLECTION);
+        List<Object> ids = new ArrayList<>(posts.size());
+        for (Document post : posts) {
+            Object id = post.get("_id");
+            ids.add(id);
+            copy.replaceOne(Query.query(Criteria.where("_id").is(id)), post, FindAndReplaceOptions.options().upsert());
+        }
+        copy.execute();
+
+        mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids).and("status").in(ARCHIVED_STATUSES)),
+                RoomSalePostEntity.class);
+        Query stillLive = Query.query(Criteria.where("_id").in(ids));
+        stillLive.fields().include("_id");
+        Set<Object> kept = new HashSet<>();
+        mongoTemplate.find(stillLive, Document.class, mongoTemplate.getCollectionName(RoomSalePostEntity.class))
+                .forEach(post -> kept.add(post.get("_id")));
+        if (!kept.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(kept)), ARCHIVE_COLLECTION);
+        }
+
+        List<String> moved = ids.stream()
+                .filter(id -> !kept.contains(id))
+                .map(Object::toString)
+                .toList();
+        if (!moved.isEmpty()) {
+            eventPublisher.publishEvent(new PostsArchivedEvent(moved));
+        }
+        return moved.size();
+    }
+
+    @Override
+    public Page<RoomSalePostEntity> findByUser(int userId, String status, Pageable pageable) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (StringUtils.hasText(status)) {
+            criteria = criteria.and("status").is(status);
+        }
+        // Archive chỉ chứa EXPIRED/REJECTED: lọc theo status khác thì không cần đọc archive
+        boolean withArchive = !StringUtils.hasText(status) || ARCHIVED_STATUSES.contains(status);
+        if (withArchive) {
+            ensureArchiveIndexes();
+        }
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(criteria));
+        if (withArchive) {
+            operations.add(UnionWithOperation.unionWith(ARCHIVE_COLLECTION).pipeline(Aggregation.match(criteria)));
+        }
+        operations.add(Aggregation.sort(Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("_id"))));
+        operations.add(Aggregation.skip(pageable.getOffset()));
+        operations.add(Aggregation.limit(pageable.getPageSize()));
+        List<RoomSalePostEntity> posts = mongoTemplate.aggregate(Aggregation.newAggregation(operations),
+                mongoTemplate.getCollectionName(RoomSalePostEntity.class), RoomSalePostEntity.class).getMappedResults();
+
+        long total = mongoTemplate.count(Query.query(criteria), RoomSalePostEntity.class);
+        if (withArchive) {
+            total += mongoTemplate.count(Query.query(criteria), ARCHIVE_COLLECTION);
+        }
+        return new PageImpl<>(posts, pageable, total);
+    }
+
+    @Override
+    public Optional<RoomSalePostEntity> findArchived(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, RoomSalePostEntity.class, ARCHIVE_COLLECTION));
+    }
+
+    @Override
+    public RoomSalePostEntity saveArchived(RoomSalePostEntity post) {
+        return mongoTemplate.save(post, ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public void deleteArchived(RoomSalePostEntity post) {
+        mongoTemplate.remove(post, ARCHIVE_COLLECTION);
+    }
+
+    // Archive không có @Document nên MongoIndexes không tạo được index cho nó; tạo lần đầu dùng tới
+    private void ensureArchiveIndexes() {
+        if (archiveIndexed.get()) {
+            return;
+        }
+        mongoTemplate.indexOps(ARCHIVE_COLLECTION).ensureIndex(new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("createdDate", Sort.Direction.DESC)
+                .named("userId_status_createdDate"));
+        archiveIndexed.set(true);
+    }
+}
@@ -0,0 +1,162 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.PostExpiryService;
+import com.roomfinder.marketing.services.helper.CalculateExpiry;
+import com.roomfinder.marketing.services.helper.JobLock;
+import com.roomfinder.marketing.services.helper.PostsExpiredEvent;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.roomfinder.marketing.constants.Status.ACTIVE;
+import static com.roomfinder.marketing.constants.Status.EXPIRED;
+import static com.roomfinder.marketing.constants.Status.PENDING;
+
+/**
+ * Expires room sale posts once their package runs out.
+ * <p>
+ * Mỗi bài đăng lưu {@code expiresAt} (tính lúc tạo từ typePackage và createdDate), có index chung
+ * với status, nên job chỉ đọc đúng các bài đã hết hạn thay vì quét toàn bộ collection. Bài hết hạn
+ * được chuyển EXPIRED theo từng batch bằng một lệnh updateMulti, sau đó phát
+ * {@link PostsExpiredEvent} để các cache phụ thuộc (training corpus, ...) cập nhật lại.
+ * <p>
+ * Bài cũ chưa có expiresAt được backfill với hạn không sớm hơn {@code post.expiry.legacy-grace} kể
+ * từ lúc backfill, để lần chạy đầu không chuyển EXPIRED hàng loạt mọi bài cũ đã quá hạn theo gói.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PostExpiryServiceImpl implements PostExpiryService {
+    private static final String JOB_NAME = "post-expiry";
+    private static final List<String> LIVE_STATUSES = List.of(ACTIVE.name(), PENDING.name());
+
+    MongoTemplate mongoTemplate;
+    CalculateExpiry calculateExpiry;
+    JobLock jobLock;
+    ApplicationEventPublisher eventPublisher;
+
+    @NonFinal
+    @Value("${post.expiry.enabled:true}")
+    boolean enabled;
+
+    @NonFinal
+    @Value("${post.expiry.free-lifetime:P30D}")
+    Duration freeLifetime;
+
+    @NonFinal
+    @Value("${post.expiry.legacy-grace:P7D}")
+    Duration legacyGrace;
+
+    @NonFinal
+    @Value("${post.expiry.batch-size:500}")
+    int batchSize;
+
+    @NonFinal
+    @Value("${post.expiry.max-batches:20}")
+    int maxBatches;
+
+    @NonFinal
+    @Value("${post.expiry.lease:PT10M}")
+    Duration lease;
+
+    @Override
+    public Instant expiryOf(RoomSalePostEntity post) {
+        Instant created = post.getCreatedDate() != null ? post.getCreatedDate() : Instant.now();
+        int typePackage = post.getTypePackage();
+        if (typePackage >= 1 && typePackage <= 3) {
+            return calculateExpiry.calculateExpiryFromType(typePackage, created);
+        }
+        return created.plus(freeLifetime);
+    }
+
+    @Scheduled(fixedDelayString = "${post.expiry.interval:PT5M}",
+            initialDelayString = "${post.expiry.initial-delay:PT1M}")
+    public void scheduledExpiry() {
+        if (!enabled || !jobLock.tryAcquire(JOB_NAME, lease)) {
+            return;
+        }
+        try {
+            int backfilled = backfill();
+            int expired = expireDue();
+            if (backfilled > 0 || expired > 0) {
+                log.info("Post expiry: {} expiries backfilled, {} posts expired", backfilled, expired);
+            }
+        } catch (Exception e) {
+            log.error("Post expiry run failed", e);
+        } finally {
+            jobLock.release(JOB_NAME);
+        }
+    }
+
+    @Override
+    public int expireDue() {
+        Query due = Query.query(Criteria.where("status").in(LIVE_STATUSES).and("expiresAt").lte(Instant.now()))
+                .limit(batchSize);
+        due.fields().include("_id");
+        int expired = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<String> ids = mongoTemplate.find(due, RoomSalePostEntity.class).stream()
+                    .map(RoomSalePostEntity::getId)
+                    .toList();
+            if (ids.isEmpty()) {
+                break;
+            }
+            // Điều kiện status lặp lại để không ghi đè bài vừa bị đổi status giữa find và update
+            expired += (int) mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(ids).and("status").in(LIVE_STATUSES)),
+                    Update.update("status", EXPIRED.name()),
+                    RoomSalePostEntity.class).getModifiedCount();
+            eventPublisher.publishEvent(new PostsExpiredEvent(ids));
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public int backfill() {
+        Query missing = Query.query(Criteria.where("status").in(LIVE_STATUSES).and("expiresAt").exists(false))
+                .limit(batchSize);
+        missing.fields().include("createdDate", "typePackage");
+        int updated = 0;
+        Instant earliest = Instant.now().plus(legacyGrace);
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<RoomSalePostEntity> posts = mongoTemplate.find(missing, RoomSalePostEntity.class);
+            if (posts.isEmpty()) {
+                break;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomSalePostEntity.class);
+            for (RoomSalePostEntity post : posts) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(post.getId())),
+                        Update.update("expiresAt", latest(expiryOf(post), earliest)));
+            }
+            updated += bulk.execute().getModifiedCount();
+            if (posts.size() < batchSize) {
+                break;
+            }
+        }
+        return updated;
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,253 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomfinder.marketing.dto.request.RoomSalePostRequest;
+import com.roomfinder.marketing.dto.response.PostImportResponse;
+import com.roomfinder.marketing.mappers.MarketingMapper;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.PaymentOutboxService;
+import com.roomfinder.marketing.services.PostExpiryService;
+import com.roomfinder.marketing.services.PostImportService;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
+import com.roomfinder.marketing.services.helper.RoomIdGenerator;
+import com.roomfinder.marketing.services.helper.TrainingCorpusListener;
+import com.roomfinder.marketing.utility.RoomSalePostRequestValidator;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.roomfinder.marketing.constants.Status.ACTIVE;
+
+/**
+ * Bulk post import for agencies.
+ * <p>
+ * Payload được đọc từng dòng bằng Jackson streaming (mảng JSON hoặc NDJSON), dòng hợp lệ được
+ * gom thành batch. Mỗi batch cấp một khối roomId bằng một lệnh, ghi một entry outbox trừ tiền cho
+ * cả batch rồi mới insert bài đăng bằng BulkOperations UNORDERED, nên một dòng lỗi (ví dụ trùng
+ * key) không chặn các dòng còn lại. Giống {@code createPost}: entry outbox được ghi trước bài đăng,
+ * bài không ghi được sẽ bị dispatcher bỏ khỏi entry trước khi trừ tiền.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class PostImportServiceImpl implements PostImportService {
+
+    ObjectMapper objectMapper;
+    MongoTemplate mongoTemplate;
+    MarketingMapper marketingMapper;
+    RoomIdGenerator roomIdGenerator;
+    PaymentOutboxService paymentOutboxService;
+    PostExpiryService postExpiryService;
+    TrainingCorpusService trainingCorpusService;
+    CurrentUserResolver currentUserResolver;
+    AuditorAware<String> auditorAware;
+
+    @NonFinal
+    @Value("${post.import.batch-size:500}")
+    int batchSize;
+
+    @NonFinal
+    @Value("${post.import.max-rows:50000}")
+    int maxRows;
+
+    @Override
+    public PostImportResponse importPosts(InputStream body) {
+        Batch batch = new Batch(currentUserResolver.getCurrentUserId(), auditorAware.getCurrentAuditor().orElse(null));
+        List<PostImportResponse.RowResult> results = new ArrayList<>();
+        boolean complete = true;
+        int row = 0;
+        try (MappingIterator<RoomSalePostRequest> rows = objectMapper.readerFor(RoomSalePostRequest.class).readValues(body)) {
+            while (true) {
+                RoomSalePostRequest request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    if (row > maxRows) {
+                        results.add(failure(row, "Import is limited to " + maxRows + " rows"));
+                        complete = false;
+                        break;
+                    }
+                    request = rows.nextValue();
+                } catch (DatabindException e) {
+                    // Sai kiểu dữ liệu ở một dòng: bỏ qua dòng đó, iterator tự đồng bộ lại
+                    results.add(failure(row, e.getOriginalMessage()));
+                    continue;
+                } catch (JsonProcessingException e) {
+                    // Lỗi cú pháp: không xác định được dòng tiếp theo, dừng import
+                    results.add(failure(Math.max(row, 1), "Malformed JSON: " + e.getOriginalMessage()));
+                    complete = false;
+                    break;
+                }
+                String error = RoomSalePostRequestValidator.firstImportError(request);
+                if (error != null) {
+                    results.add(failure(row, error));
+                    continue;
+                }
+                batch.add(row, request);
+                if (batch.size() >= batchSize) {
+                    results.addAll(write(batch));
+                }
+            }
+        } catch (IOException e) {
+            // Kết nối bị ngắt giữa chừng: trả kết quả của các dòng đã đọc, complete=false báo payload chưa hết
+            log.warn("Post import stream broke after row {}", row, e);
+            complete = false;
+        } finally {
+            // Các dòng đã đọc vẫn được ghi khi payload bị cắt giữa chừng
+            results.addAll(write(batch));
+        }
+
+        results.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        int imported = (int) results.stream().filter(PostImportResponse.RowResult::isSuccess).count();
+        return PostImportResponse.builder()
+                .total(results.size())
+                .imported(imported)
+                .failed(results.size() - imported)
+                .complete(complete)
+                .rows(results)
+                .build();
+    }
+
+    private List<PostImportResponse.RowResult> write(Batch batch) {
+        if (batch.size() == 0) {
+            return List.of();
+        }
+        List<RoomSalePostEntity> posts = toPosts(batch);
+        List<Integer> rowNumbers = List.copyOf(batch.rows);
+        batch.clear();
+
+        Map<Integer, String> errors = new HashMap<>();
+        try {
+            Map<String, Integer> packages = new LinkedHashMap<>();
+            posts.stream()
+                    .filter(post -> post.getTypePackage() > 0)
+                    .forEach(post -> packages.put(post.getRoomId(), post.getTypePackage()));
+            if (!packages.isEmpty()) {
+                paymentOutboxService.enqueuePostPackages(batch.userId, packages);
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomSalePostEntity.class);
+            bulk.insert(posts);
+            // Bulk insert phát AfterSaveEvent cho từng bài: tắt refresh theo từng bài, cập nhật corpus một lần cho cả batch
+            TrainingCorpusListener.withoutRefresh(bulk::execute);
+            refreshTrainingCorpus(posts);
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+            List<RoomSalePostEntity> written = new ArrayList<>(posts.size());
+            for (int i = 0; i < posts.size(); i++) {
+                if (!errors.containsKey(i)) {
+                    written.add(posts.get(i));
+                }
+            }
+            refreshTrainingCorpus(written);
+        } catch (DataAccessException e) {
+            log.error("Post import batch of {} rows failed", posts.size(), e);
+            for (int i = 0; i < posts.size(); i++) {
+                errors.put(i, "Write failed");
+            }
+        }
+
+        List<PostImportResponse.RowResult> results = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            String error = errors.get(i);
+            results.add(error != null
+                    ? failure(rowNumbers.get(i), error)
+                    : PostImportResponse.RowResult.builder()
+                            .row(rowNumbers.get(i))
+                            .success(true)
+                            .postId(posts.get(i).getId())
+                            .roomId(posts.get(i).getRoomId())
+                            .build());
+        }
+        return results;
+    }
+
+    private List<RoomSalePostEntity> toPosts(Batch batch) {
+        List<String> roomIds = roomIdGenerator.nextBlock(batch.size());
+        Instant now = Instant.now();
+        List<RoomSalePostEntity> posts = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            RoomSalePostRequest request = batch.requests.get(i);
+            RoomSalePostEntity post = marketingMapper.toCreateRoomSalePost(request);
+            // Id gán trước để trả về cho từng dòng; document có id không được auditing coi là mới
+            // nên các field created* cũng được gán ở đây
+            post.setId(new ObjectId().toHexString());
+            post.setRoomId(roomIds.get(i));
+            post.setUserId(batch.userId);
+            post.setStatus(ACTIVE.name());
+            post.setStatusShow(MarketingServiceImpl.statusShowOf(request.getStatusShow()));
+            post.setCreatedDate(now);
+            post.setCreatedBy(batch.auditor);
+            post.setExpiresAt(postExpiryService.expiryOf(post));
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    private void refreshTrainingCorpus(List<RoomSalePostEntity> posts) {
+        try {
+            trainingCorpusService.refresh(posts);
+        } catch (Exception e) {
+            log.warn("Could not refresh training intents of {} imported posts", posts.size(), e);
+        }
+    }
+
+    private static PostImportResponse.RowResult failure(int row, String error) {
+        return PostImportResponse.RowResult.builder()
+                .row(row)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private static final class Batch {
+        private final int userId;
+        private final String auditor;
+        private final List<Integer> rows = new ArrayList<>();
+        private final List<RoomSalePostRequest> requests = new ArrayList<>();
+
+        private Batch(int userId, String auditor) {
+            this.userId = userId;
+            this.auditor = auditor;
+        }
+
+        private void add(int row, RoomSalePostRequest request) {
+            rows.add(row);
+            requests.add(request);
+        }
+
+        private int size() {
+            return rows.size();
+        }
+
+        private void clear() {
+            rows.clear();
+            requests.clear();
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.roomfinder.marketing.services.impl;
 
+import com.roomfinder.marketing.dto.CursorPageResponse;
 import com.roomfinder.marketing.dto.PageResponse;
 import com.roomfinder.marketing.dto.request.NewsRequest;
+import com.roomfinder.marketing.dto.response.ArticleSummaryResponse;
 import com.roomfinder.marketing.dto.response.NewsResponse;
 import com.roomfinder.marketing.dto.response.PostImageResponse;
 import com.roomfinder.marketing.exception.AppException;
 import com.roomfinder.marketing.exception.ErrorCode;
 import com.roomfinder.marketing.repositories.RealEstateExperienceRepository;
 import com.roomfinder.marketing.repositories.entities.RealEstateExperienceEntity;
+import com.roomfinder.marketing.services.MediaObjectService;
 import com.roomfinder.marketing.services.RealEstateExperienceService;
+import com.roomfinder.marketing.services.helper.ArticleFeed;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -16,7 +20,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -26,12 +32,15 @@ import java.util.List;
 public class RealEstateExperienceServiceImpl implements RealEstateExperienceService {
 
     RealEstateExperienceRepository realEstateExperienceRepository;
+    ArticleFeed articleFeed;
+    MediaObjectService mediaObjectService;
 
     @Override
     public NewsResponse createNews(NewsRequest newsRequest) {
         RealEstateExperienceEntity newsEntity = RealEstateExperienceEntity.builder()
                 .title(newsRequest.getTitle())
                 .description(newsRequest.getDescription())
+                .createdDate(Instant.now())
                 .build();
         realEstateExperienceRepository.save(newsEntity);
         return NewsResponse.builder()
@@ -43,7 +52,8 @@ public class RealEstateExperienceServiceImpl implements RealEstateExperienceServ
 
     @Override
     public PageResponse<NewsResponse> getAllNews(int page, int size) {
-        Pageable pageable = PageRequest.of(page-1, size);
+        // Sắp xếp cố định để các trang không trùng/sót bài
+        Pageable pageable = PageRequest.of(page-1, size, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.desc("id")));
         Page<RealEstateExperienceEntity> newsPage = realEstateExperienceRepository.findAll(pageable);
 
         List<NewsResponse> newsResponses = newsPage.getContent().stream()
@@ -70,6 +80,11 @@ public class RealEstateExperienceServiceImpl implements RealEstateExperienceServ
                 .build();
     }
 
+    @Override
+    public CursorPageResponse<ArticleSummaryResponse> getNewsFeed(String cursor, int size) {
+        return articleFeed.page(RealEstateExperienceEntity.class, cursor, size);
+    }
+
     @Override
     public NewsResponse getNewsById(String id) {
         return realEstateExperienceRepository.findById(id)
@@ -85,7 +100,7 @@ public class RealEstateExperienceServiceImpl implements RealEstateExperienceServ
                                         .build())
                                 .toList())
                         .build())
-                .orElseThrow(() -> new RuntimeException("Market and trend not found"));
+                .orElseThrow(() -> new AppException(ErrorCode.NEWS_NOT_FOUND));
 
     }
 
@@ -107,7 +122,10 @@ public class RealEstateExperienceServiceImpl implements RealEstateExperienceServ
 
     @Override
     public String deleteNewsById(String id) {
-        realEstateExperienceRepository.deleteById(id);
+        realEstateExperienceRepository.findById(id).ifPresent(experience -> {
+            realEstateExperienceRepository.delete(experience);
+            mediaObjectService.release(experience.getPostImages());
+        });
         return "Delete Successful";
     }
 }
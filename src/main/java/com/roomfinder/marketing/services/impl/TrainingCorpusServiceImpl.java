@@ -0,0 +1,323 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import com.roomfinder.marketing.constants.TrainingIntentType;
+import com.roomfinder.marketing.dto.GenericResponseAI;
+import com.roomfinder.marketing.dto.response.TrainingDeltaResponse;
+import com.roomfinder.marketing.repositories.TrainingIntentRepository;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.repositories.entities.TrainingIntentEntity;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import com.roomfinder.marketing.services.helper.JobLock;
+import com.roomfinder.marketing.services.helper.ObjectNameSet;
+import com.roomfinder.marketing.services.helper.PendingVersions;
+import com.roomfinder.marketing.services.helper.SequenceGenerator;
+import com.roomfinder.marketing.services.helper.TrainingIntents;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the materialized trainingIntents collection in sync with roomSalePosts.
+ * <p>
+ * Bài đăng được lưu/xoá qua repository sẽ kích hoạt refresh qua TrainingCorpusListener; các chỗ
+ * update trực tiếp bằng MongoTemplate gọi refresh thủ công. Job reconcile hằng đêm bắt các thay
+ * đổi bị sót và cũng dùng để build corpus lần đầu.
+ * <p>
+ * Version được cấp trước khi ghi nên hai writer song song có thể commit lệch thứ tự. Delta chỉ
+ * trả các version dưới {@link PendingVersions#readableCeiling}, tức là dưới mọi version đã reserve
+ * mà chưa ghi xong, để trainer không nhảy qua một version còn đang được ghi. Một intent chỉ bị ghi
+ * đè bởi version lớn hơn, nên bản của writer chậm không đè lên bản mới hơn.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class TrainingCorpusServiceImpl implements TrainingCorpusService {
+    private static final String SEQUENCE = "trainingIntents";
+    private static final String JOB_NAME = "training-corpus-reconcile";
+    private static final List<String> POST_FIELDS = List.of("roomInfo.name", "roomInfo.address", "roomInfo.totalArea",
+            "roomInfo.width", "roomInfo.height", "status", "createdBy", "contactInfo", "roomUtility", "pricingDetails");
+
+    TrainingIntentRepository trainingIntentRepository;
+    MongoTemplate mongoTemplate;
+    SequenceGenerator sequenceGenerator;
+    PendingVersions pendingVersions;
+    JobLock jobLock;
+
+    @NonFinal
+    @Value("${training.corpus.enabled:true}")
+    boolean enabled;
+
+    @NonFinal
+    @Value("${training.corpus.write-timeout:PT5M}")
+    Duration writeTimeout;
+
+    @NonFinal
+    @Value("${training.corpus.max-delta-size:1000}")
+    int maxDeltaSize;
+
+    @NonFinal
+    @Value("${training.corpus.reconcile-lease:PT1H}")
+    Duration reconcileLease;
+
+    @Override
+    public void refresh(RoomSalePostEntity post) {
+        if (!enabled || post.getId() == null) {
+            return;
+        }
+        Map<String, TrainingIntentEntity> existing = trainingIntentRepository.findByPostId(post.getId()).stream()
+                .collect(Collectors.toMap(TrainingIntentEntity::getId, Function.identity()));
+        List<TrainingIntentEntity> changes = new ArrayList<>();
+        collectChanges(post, existing, changes);
+        write(changes);
+    }
+
+    // Bulk import: một lần đọc intent hiện có và một lần ghi cho cả batch
+    @Override
+    public void refresh(Collection<RoomSalePostEntity> posts) {
+        if (!enabled || posts.isEmpty()) {
+            return;
+        }
+        List<String> postIds = posts.stream().map(RoomSalePostEntity::getId).filter(Objects::nonNull).toList();
+        Map<String, Map<String, TrainingIntentEntity>> existingByPost = trainingIntentRepository.findByPostIdIn(postIds)
+                .stream()
+                .collect(Collectors.groupingBy(TrainingIntentEntity::getPostId,
+                        Collectors.toMap(TrainingIntentEntity::getId, Function.identity())));
+        List<TrainingIntentEntity> changes = new ArrayList<>();
+        for (RoomSalePostEntity post : posts) {
+            if (post.getId() != null) {
+                collectChanges(post, existingByPost.getOrDefault(post.getId(), new HashMap<>()), changes);
+            }
+        }
+        write(changes);
+    }
+
+    private static void collectChanges(RoomSalePostEntity post, Map<String, TrainingIntentEntity> existing,
+                                       List<TrainingIntentEntity> changes) {
+        TrainingIntents.forRoom(post).forEach((type, intent) -> {
+            String id = intentId(post.getId(), type);
+            String fingerprint = fingerprint(intent);
+            TrainingIntentEntity current = existing.remove(id);
+            if (current != null && !current.isDeleted() && fingerprint.equals(current.getFingerprint())) {
+                return;
+            }
+            changes.add(TrainingIntentEntity.builder()
+                    .id(id)
+                    .postId(post.getId())
+                    .type(type.name())
+                    .tag(intent.getTag())
+                    .patterns(intent.getPatterns())
+                    .responses(intent.getResponses())
+                    .fingerprint(fingerprint)
+                    .build());
+        });
+        // Intent không còn sinh ra được (vd. bỏ pricingDetails) thì thành tombstone
+        existing.values().stream()
+                .filter(entity -> !entity.isDeleted())
+                .map(TrainingCorpusServiceImpl::tombstone)
+                .forEach(changes::add);
+    }
+
+    @Override
+    public void refresh(String postId) {
+        if (!enabled) {
+            return;
+        }
+        Query query = Query.query(Criteria.where("_id").is(postId));
+        query.fields().include(POST_FIELDS.toArray(String[]::new));
+        RoomSalePostEntity post = mongoTemplate.findOne(query, RoomSalePostEntity.class);
+        if (post == null) {
+            remove(postId);
+        } else {
+            refresh(post);
+        }
+    }
+
+    @Override
+    public void refreshByRoomId(String roomId) {
+        if (!enabled) {
+            return;
+        }
+        Query query = Query.query(Criteria.where("roomId").is(roomId));
+        query.fields().include(POST_FIELDS.toArray(String[]::new));
+        mongoTemplate.find(query, RoomSalePostEntity.class).forEach(this::refresh);
+    }
+
+    @Override
+    public void remove(String postId) {
+        if (!enabled) {
+            return;
+        }
+        write(trainingIntentRepository.findByPostId(postId).stream()
+                .filter(entity -> !entity.isDeleted())
+                .map(TrainingCorpusServiceImpl::tombstone)
+                .toList());
+    }
+
+    @Override
+    public TrainingDeltaResponse getDelta(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxDeltaSize));
+        Criteria versions = Criteria.where("version").gt(since)
+                .lt(pendingVersions.readableCeiling(SEQUENCE, writeTimeout));
+        Query query = Query.query(versions)
+                .with(Sort.by(Sort.Order.asc("version")))
+                .limit(pageSize + 1);
+        List<TrainingIntentEntity> entries = mongoTemplate.find(query, TrainingIntentEntity.class);
+        // Version đang ghi dở sẽ có ở lần poll sau; hasMore chỉ báo trang bị cắt để trainer không poll dồn
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+
+        List<TrainingDeltaResponse.TrainingIntentResponse> changed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (TrainingIntentEntity entry : entries) {
+            if (entry.isDeleted()) {
+                removed.add(entry.getId());
+            } else {
+                changed.add(TrainingDeltaResponse.TrainingIntentResponse.builder()
+                        .id(entry.getId())
+                        .postId(entry.getPostId())
+                        .type(entry.getType())
+                        .version(entry.getVersion())
+                        .tag(entry.getTag())
+                        .patterns(entry.getPatterns())
+                        .responses(entry.getResponses())
+                        .build());
+            }
+        }
+        return TrainingDeltaResponse.builder()
+                .since(since)
+                .nextSince(entries.isEmpty() ? since : entries.get(entries.size() - 1).getVersion())
+                .hasMore(hasMore)
+                .changed(changed)
+                .removed(removed)
+                .build();
+    }
+
+    @Override
+    public long currentVersion() {
+        return sequenceGenerator.current(SEQUENCE);
+    }
+
+    @Scheduled(cron = "${training.corpus.reconcile-cron:0 0 4 * * *}")
+    public void scheduledReconcile() {
+        if (!enabled || !jobLock.tryAcquire(JOB_NAME, reconcileLease)) {
+            return;
+        }
+        try {
+            log.info("Training corpus reconciled: {} posts", reconcile());
+        } catch (Exception e) {
+            log.error("Training corpus reconcile failed", e);
+        } finally {
+            jobLock.release(JOB_NAME);
+        }
+    }
+
+    @Override
+    public long reconcile() {
+        ObjectNameSet livePosts = new ObjectNameSet(1024);
+        Query posts = new Query();
+        posts.fields().include(POST_FIELDS.toArray(String[]::new));
+        long processed = 0;
+        try (Stream<RoomSalePostEntity> stream = mongoTemplate.stream(posts, RoomSalePostEntity.class)) {
+            Iterator<RoomSalePostEntity> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                RoomSalePostEntity post = iterator.next();
+                livePosts.add(post.getId());
+                refresh(post);
+                processed++;
+            }
+        }
+
+        Query liveIntents = Query.query(Criteria.where("deleted").is(false));
+        liveIntents.fields().include("postId");
+        Set<String> orphaned = new HashSet<>();
+        try (Stream<TrainingIntentEntity> stream = mongoTemplate.stream(liveIntents, TrainingIntentEntity.class)) {
+            stream.map(TrainingIntentEntity::getPostId)
+                    .filter(postId -> !livePosts.contains(postId))
+                    .forEach(orphaned::add);
+        }
+        orphaned.forEach(this::remove);
+        return processed;
+    }
+
+    private void write(List<TrainingIntentEntity> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        PendingVersions.Reservation reservation = pendingVersions.reserve(SEQUENCE, changes.size());
+        long version = reservation.firstVersion();
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainingIntentEntity.class);
+        for (TrainingIntentEntity change : changes) {
+            change.setVersion(version++);
+            change.setUpdatedAt(now);
+            // Chỉ ghi đè bản cũ hơn: writer song song đã ghi version mới hơn thì bản này bị bỏ
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(change.getId()).and("version").lt(change.getVersion())),
+                    change, FindAndReplaceOptions.options().upsert());
+        }
+        boolean completed;
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Không khớp điều kiện version nên upsert thử insert trùng _id: đó là bản ghi đã cũ
+            List<BulkWriteError> failures = e.getErrors().stream()
+                    .filter(error -> error.getCategory() != ErrorCategory.DUPLICATE_KEY)
+                    .toList();
+            if (!failures.isEmpty()) {
+                throw e;
+            }
+            log.debug("Skipped {} stale training intent writes", e.getErrors().size());
+        } finally {
+            completed = pendingVersions.complete(reservation);
+        }
+        if (!completed) {
+            // Ghi quá write-timeout: trainer có thể đã đi qua các version này, ghi lại với version mới
+            log.warn("Training intent write outlived its reservation, writing {} intents again", changes.size());
+            write(changes);
+        }
+    }
+
+    private static TrainingIntentEntity tombstone(TrainingIntentEntity entity) {
+        return TrainingIntentEntity.builder()
+                .id(entity.getId())
+                .postId(entity.getPostId())
+                .type(entity.getType())
+                .deleted(true)
+                .build();
+    }
+
+    private static String intentId(String postId, TrainingIntentType type) {
+        return postId + ":" + type.name();
+    }
+
+    private static String fingerprint(GenericResponseAI.Intent intent) {
+        String content = intent.getTag() + '\u0000' + String.join("\u0001", intent.getPatterns())
+                + '\u0000' + String.join("\u0001", intent.getResponses());
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
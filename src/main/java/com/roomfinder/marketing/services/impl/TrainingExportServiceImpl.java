@@ -0,0 +1,213 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomfinder.marketing.dto.response.TrainingExportManifest;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import com.roomfinder.marketing.services.TrainingExportService;
+import com.roomfinder.marketing.services.TrainingService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the full intent stream as a gzip-compressed JSONL file on local disk.
+ * <p>
+ * Export chạy định kỳ nhưng bỏ qua khi version của trainingIntents không đổi, nên tải lại file
+ * chỉ tốn disk I/O, không đọc Mongo hay encode JSON. File được ghi ra file tạm rồi rename atomic,
+ * manifest ghi sau cùng; reader luôn thấy một cặp file + manifest hoàn chỉnh. Giữ lại bản export
+ * trước đó để download đang chạy không bị mất file.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class TrainingExportServiceImpl implements TrainingExportService {
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final String EXPORT_PREFIX = "intents-";
+    private static final String EXPORT_SUFFIX = ".jsonl.gz";
+    private static final String FORMAT = "jsonl+gzip";
+    private static final int KEEP_EXPORTS = 2;
+
+    TrainingService trainingService;
+    TrainingCorpusService trainingCorpusService;
+    ObjectMapper objectMapper;
+
+    AtomicReference<Artifact> current = new AtomicReference<>();
+    ReentrantLock exportLock = new ReentrantLock();
+
+    @NonFinal
+    @Value("${training.export.enabled:true}")
+    boolean enabled;
+
+    @NonFinal
+    @Value("${training.export.dir:./training-export}")
+    Path dir;
+
+    @NonFinal
+    @Value("${training.export.max-age:P1D}")
+    Duration maxAge;
+
+    @NonFinal
+    @Value("${training.export.buffer-size:64KB}")
+    DataSize bufferSize;
+
+    @Override
+    public Optional<Artifact> current() {
+        Artifact artifact = current.get();
+        if (artifact == null) {
+            // Sau khi restart: dùng lại export đã có trên disk
+            artifact = loadFromDisk();
+            if (artifact != null) {
+                current.compareAndSet(null, artifact);
+            }
+        }
+        return Optional.ofNullable(current.get());
+    }
+
+    @Scheduled(fixedDelayString = "${training.export.interval:PT1H}",
+            initialDelayString = "${training.export.initial-delay:PT2M}")
+    public void scheduledExport() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (isStale()) {
+                TrainingExportManifest manifest = export();
+                log.info("Training export written: {} ({} bytes)", manifest.getFileName(), manifest.getSize());
+            }
+        } catch (Exception e) {
+            log.error("Training export failed", e);
+        }
+    }
+
+    @Override
+    public TrainingExportManifest export() {
+        exportLock.lock();
+        try {
+            return write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            exportLock.unlock();
+        }
+    }
+
+    private boolean isStale() {
+        Artifact artifact = current().orElse(null);
+        if (artifact == null) {
+            return true;
+        }
+        TrainingExportManifest manifest = artifact.manifest();
+        return manifest.getCreatedAt().plus(maxAge).isBefore(Instant.now())
+                || manifest.getCorpusVersion() != trainingCorpusService.currentVersion();
+    }
+
+    private TrainingExportManifest write() throws IOException {
+        Files.createDirectories(dir);
+        // Đọc version trước khi export: thay đổi trong lúc export sẽ kích hoạt lần export sau
+        long corpusVersion = trainingCorpusService.currentVersion();
+        Instant createdAt = Instant.now();
+        String fileName = EXPORT_PREFIX + createdAt.toEpochMilli() + EXPORT_SUFFIX;
+        Path tmp = Files.createTempFile(dir, EXPORT_PREFIX, ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            int buffer = (int) bufferSize.toBytes();
+            try (OutputStream file = Files.newOutputStream(tmp);
+                 DigestOutputStream digest = new DigestOutputStream(new BufferedOutputStream(file, buffer), sha256);
+                 GZIPOutputStream gzip = new GZIPOutputStream(digest, buffer)) {
+                trainingService.streamIntents(gzip);
+            }
+            Path target = dir.resolve(fileName);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+
+            TrainingExportManifest manifest = TrainingExportManifest.builder()
+                    .fileName(fileName)
+                    .format(FORMAT)
+                    .size(Files.size(target))
+                    .sha256(HexFormat.of().formatHex(sha256.digest()))
+                    .corpusVersion(corpusVersion)
+                    .createdAt(createdAt)
+                    .build();
+            Path manifestTmp = Files.createTempFile(dir, "manifest-", ".tmp");
+            objectMapper.writeValue(manifestTmp.toFile(), manifest);
+            Files.move(manifestTmp, dir.resolve(MANIFEST_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+
+            current.set(new Artifact(target, manifest));
+            deleteOldExports();
+            return manifest;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Artifact loadFromDisk() {
+        Path manifestFile = dir.resolve(MANIFEST_FILE);
+        if (!Files.isRegularFile(manifestFile)) {
+            return null;
+        }
+        try {
+            TrainingExportManifest manifest = objectMapper.readValue(manifestFile.toFile(), TrainingExportManifest.class);
+            Path file = dir.resolve(manifest.getFileName());
+            if (!Files.isRegularFile(file) || Files.size(file) != manifest.getSize()) {
+                log.warn("Training export manifest does not match {}, ignoring it", file);
+                return null;
+            }
+            return new Artifact(file, manifest);
+        } catch (IOException e) {
+            log.warn("Could not read training export manifest {}", manifestFile, e);
+            return null;
+        }
+    }
+
+    private void deleteOldExports() throws IOException {
+        List<Path> exports;
+        try (Stream<Path> files = Files.list(dir)) {
+            exports = files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(EXPORT_PREFIX) && name.endsWith(EXPORT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                    .toList();
+        }
+        for (Path old : exports.subList(Math.min(KEEP_EXPORTS, exports.size()), exports.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,221 +1,153 @@
 package com.roomfinder.marketing.services.impl;
 
-import com.roomfinder.marketing.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.roomfinder.marketing.dto.*;
 import com.roomfinder.marketing.dto.response.FeeDetailResponse;
 import com.roomfinder.marketing.repositories.RoomSalePostRepository;
 import com.roomfinder.marketing.repositories.entities.RoomInfo;
 import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
 import com.roomfinder.marketing.services.TrainingService;
+import com.roomfinder.marketing.services.helper.TrainingIntents;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class TrainingServiceImpl implements TrainingService {
+    private static final String ROOM_NAME_FIELD = "roomInfo.name";
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     RoomSalePostRepository roomSalePostRepository;
+    MongoTemplate mongoTemplate;
+    ObjectMapper objectMapper;
 
     @Override
     public GenericResponseAI getRoomIntents() {
-        List<String> roomNames = getAllRoomNames();
-
-        GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-        intent.setTag("Danh sách các loại phòng");
-        intent.setPatterns(List.of(
-                "Có những loại phòng nào?",
-                "Hãy cho tôi biết các loại phòng",
-                "Danh sách các phòng hiện có",
-                "Liệt kê tất cả các loại phòng"
-        ));
-        intent.setResponses(roomNames.stream()
-                .map(name -> "Phòng: " + name)
-                .collect(Collectors.toList()));
-
-        GenericResponseAI response = new GenericResponseAI();
-        response.setIntents(List.of(intent));
-
-        return response;
+        return response(List.of(TrainingIntents.roomList(getAllRoomNames())));
     }
 
 
     @Override
     public GenericResponseAI getRoomIntentsWithAddress() {
-        List<RoomWithAddressDto> roomNamesWithAddresses = getAllRoomNamesWithAddress();
-
-        List<GenericResponseAI.Intent> intents = roomNamesWithAddresses.stream()
-                .map(room -> {
-                    GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-                    intent.setTag("Địa chỉ phòng " + room.getName());
-                    intent.setPatterns(List.of(
-                            room.getName() + " địa chỉ ở đâu?",
-                            "Địa chỉ của phòng " + room.getName() + " là gì?",
-                            "Tôi muốn biết địa chỉ phòng " + room.getName()
-                    ));
-                    intent.setResponses(List.of(
-                            room.getName() + " - Địa chỉ: " + room.getAddress()
-                    ));
-                    return intent;
-                })
-                .collect(Collectors.toList());
-
-        GenericResponseAI response = new GenericResponseAI();
-        response.setIntents(intents);
-
-        return response;
+        return response(getAllRoomNamesWithAddress().stream()
+                .map(room -> TrainingIntents.address(room.getName(), room.getAddress()))
+                .collect(Collectors.toList()));
     }
 
 
     @Override
     public GenericResponseAI getRoomIntentsStatus() {
-        List<RoomWithStatusDto> roomWithStatusDtos = getAllRoomNamesWithStatus();
-
-        List<GenericResponseAI.Intent> intents = roomWithStatusDtos.stream()
-                .map(roomWithStatusDto -> {
-                    GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-                    intent.setTag("Trạng thái phòng " + roomWithStatusDto.getName());
-                    intent.setPatterns(List.of(
-                            roomWithStatusDto.getName() + " còn phòng không?",
-                            "Phòng " + roomWithStatusDto.getName() + " có còn trống không?",
-                            "Trạng thái của phòng " + roomWithStatusDto.getName()
-                    ));
-                    intent.setResponses(List.of(
-                            roomWithStatusDto.getName() + " - Trạng thái: " + roomWithStatusDto.getStatus()
-                    ));
-                    return intent;
-                })
-                .collect(Collectors.toList());
-
-        GenericResponseAI response = new GenericResponseAI();
-        response.setIntents(intents);
-
-        return response;
+        return response(getAllRoomNamesWithStatus().stream()
+                .map(room -> TrainingIntents.status(room.getName(), room.getStatus()))
+                .collect(Collectors.toList()));
     }
 
 
     @Override
     public GenericResponseAI getRoomIntentsTotalArea() {
-        List<RoomWithTotalArea> roomWithTotalAreas = getAllRoomNamesWithTotalArea();
-
-        List<GenericResponseAI.Intent> intents = roomWithTotalAreas.stream()
-                .map(roomWithTotalArea -> {
-                    GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-                    intent.setTag("Diện tích phòng " + roomWithTotalArea.getName());
-                    intent.setPatterns(List.of(
-                            roomWithTotalArea.getName() + " diện tích như thế nào?",
-                            "Diện tích phòng " + roomWithTotalArea.getName() + " là bao nhiêu?",
-                            "Kích thước phòng " + roomWithTotalArea.getName()
-                    ));
-                    intent.setResponses(List.of(
-                            roomWithTotalArea.getName() + " - có chiều dài: " + roomWithTotalArea.getHeight() +
-                                    "m, chiều rộng: " + roomWithTotalArea.getWidth() + "m, diện tích tổng: " + roomWithTotalArea.getTotalArea() + "m²"
-                    ));
-                    return intent;
-                })
-                .collect(Collectors.toList());
-
-        GenericResponseAI responseAI = new GenericResponseAI();
-        responseAI.setIntents(intents);
-
-        return responseAI;
+        return response(getAllRoomNamesWithTotalArea().stream()
+                .map(room -> TrainingIntents.area(room.getName(), room.getTotalArea(), room.getWidth(), room.getHeight()))
+                .collect(Collectors.toList()));
     }
 
 
     @Override
     public GenericResponseAI getRoomIntentsInfoUser() {
-        List<RoomWithInfoUser> roomWithInfoUsers = getAllRoomNamesWithInfoUser();
-
-        List<GenericResponseAI.Intent> intents = roomWithInfoUsers.stream()
-                .map(roomWithInfoUser -> {
-                    GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-                    intent.setTag("Thông tin chủ phòng " + roomWithInfoUser.getName());
-                    intent.setPatterns(List.of(
-                            "Cho tôi thông tin chủ phòng " + roomWithInfoUser.getName(),
-                            "Ai là người quản lý phòng " + roomWithInfoUser.getName() + "?",
-                            "Thông tin liên lạc chủ phòng " + roomWithInfoUser.getName()
-                    ));
-                    intent.setResponses(List.of(
-                            "Phòng " + roomWithInfoUser.getName() + " do ông " + roomWithInfoUser.getCreatedBy() + " làm đại diện. " +
-                                    "Số điện thoại: " + roomWithInfoUser.getContactInfo()
-                    ));
-                    return intent;
-                })
-                .collect(Collectors.toList());
-
-        GenericResponseAI genericResponseAI = new GenericResponseAI();
-        genericResponseAI.setIntents(intents);
-
-        return genericResponseAI;
+        return response(getAllRoomNamesWithInfoUser().stream()
+                .map(room -> TrainingIntents.owner(room.getName(), room.getCreatedBy(), room.getContactInfo()))
+                .collect(Collectors.toList()));
     }
 
 
     @Override
     public GenericResponseAI getRoomIntentsUtility() {
-        List<RoomUtilityDto> roomUtilityDtos = getAllRoomNamesWithUtility();
-
-        List<GenericResponseAI.Intent> intents = roomUtilityDtos.stream()
-                .map(RoomUtilityDto -> {
-                    GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-                    intent.setTag("Tiện ích phòng " + RoomUtilityDto.getName());
-                    intent.setPatterns(List.of(
-                            "Cho tôi thông tin tiện ích của phòng " + RoomUtilityDto.getName(),
-                            "Phòng " + RoomUtilityDto.getName() + " có tiện ích gì?",
-                            "Tiện ích phòng " + RoomUtilityDto.getName()
-                    ));
-                    intent.setResponses(List.of(
-                            "Phòng " + RoomUtilityDto.getName() + " có các tiện ích: " +
-                                    RoomUtilityDto.getAmenitiesAvailability() + ", nội thất: " + RoomUtilityDto.getFurnitureAvailability()
-                    ));
-                    return intent;
-                })
-                .collect(Collectors.toList());
-
-        GenericResponseAI genericResponseAI = new GenericResponseAI();
-        genericResponseAI.setIntents(intents);
-
-        return genericResponseAI;
+        return response(getAllRoomNamesWithUtility().stream()
+                .map(room -> TrainingIntents.utility(room.getName(), room.getAmenitiesAvailability(), room.getFurnitureAvailability()))
+                .collect(Collectors.toList()));
     }
 
 
     @Override
     public GenericResponseAI getRoomIntentsPricingDetails() {
-        List<PricingDetailsDto> pricingDetailsDtos = getAllRoomNamesWithPricingDetails();
-
-        List<GenericResponseAI.Intent> intents = pricingDetailsDtos.stream().map(
-                PricingDetailsDto -> {
-                    String additionalFees = PricingDetailsDto.getAdditionalFees().stream()
-                            .map(fee -> "Loại phí: " + fee.getType() + ", Số tiền: " + fee.getAmount() + " VNĐ")
-                            .collect(Collectors.joining("; "));
+        return response(getAllRoomNamesWithPricingDetails().stream()
+                .map(room -> TrainingIntents.pricing(room.getName(), room.getBasePrice(), room.getWaterCost(),
+                        room.getElectricityCost(), room.getAdditionalFees().stream()
+                                .map(fee -> TrainingIntents.fee(fee.getType(), fee.getAmount()))
+                                .collect(Collectors.joining("; "))))
+                .collect(Collectors.toList()));
+    }
 
-                    GenericResponseAI.Intent intent = new GenericResponseAI.Intent();
-                    intent.setTag("Chi tiết phí phòng " + PricingDetailsDto.getName());
-                    intent.setPatterns(List.of(
-                            "Cho tôi thông tin các loại phí của phòng " + PricingDetailsDto.getName(),
-                            "Phòng " + PricingDetailsDto.getName() + " có các loại phí gì?",
-                            "Thông tin giá cả phòng " + PricingDetailsDto.getName()
-                    ));
-                    intent.setResponses(List.of(
-                            "Phòng " + PricingDetailsDto.getName() + " có các loại phí như sau: " +
-                                    "Phí nhà hàng tháng: " + PricingDetailsDto.getBasePrice() + " VNĐ, " +
-                                    "Phí nước sinh hoạt: " + PricingDetailsDto.getWaterCost() + " VNĐ, " +
-                                    "Phí điện: " + PricingDetailsDto.getElectricityCost() + " VNĐ, " +
-                                    "Các phí bổ sung: " + additionalFees
-                    ));
-                    return intent;
+    /**
+     * Writes every intent family as NDJSON (one intent per line) from a single projected cursor
+     * over roomSalePosts. Posts are read sorted by room name, so duplicates (the old endpoints'
+     * {@code distinct()}) are detected within one name group and memory does not grow with the
+     * catalog. The room list is emitted as one line per distinct name under the same tag.
+     */
+    @Override
+    public void streamIntents(OutputStream out) throws IOException {
+        Query query = new Query()
+                .with(Sort.by(Sort.Order.asc(ROOM_NAME_FIELD)))
+                .allowDiskUse(true)
+                .cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().include(ROOM_NAME_FIELD, "roomInfo.address", "roomInfo.totalArea", "roomInfo.width",
+                "roomInfo.height", "status", "createdBy", "contactInfo", "roomUtility", "pricingDetails");
+
+        ObjectWriter writer = objectMapper.writerFor(GenericResponseAI.Intent.class)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, STREAM_BUFFER_SIZE);
+        try (Stream<RoomSalePostEntity> posts = mongoTemplate.stream(query, RoomSalePostEntity.class)) {
+            String currentName = null;
+            // Intent đã ghi của nhóm tên hiện tại, xoá khi sang tên khác
+            Set<String> written = new HashSet<>();
+            Iterator<RoomSalePostEntity> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                RoomSalePostEntity post = iterator.next();
+                Collection<GenericResponseAI.Intent> intents = TrainingIntents.forRoom(post).values();
+                if (intents.isEmpty()) {
+                    continue;
                 }
-        ).collect(Collectors.toList());
-
-        GenericResponseAI genericResponseAI = new GenericResponseAI();
-        genericResponseAI.setIntents(intents);
+                String name = post.getRoomInfo().getName();
+                if (!name.equals(currentName)) {
+                    currentName = name;
+                    written.clear();
+                }
+                for (GenericResponseAI.Intent intent : intents) {
+                    if (written.add(intent.getTag() + '\n' + intent.getResponses())) {
+                        buffered.write(writer.writeValueAsBytes(intent));
+                        buffered.write('\n');
+                    }
+                }
+            }
+        }
+        buffered.flush();
+    }
 
-        return genericResponseAI;
+    private static GenericResponseAI response(List<GenericResponseAI.Intent> intents) {
+        GenericResponseAI response = new GenericResponseAI();
+        response.setIntents(intents);
+        return response;
     }
 
 
@@ -0,0 +1,211 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.dto.request.UploadSessionRequest;
+import com.roomfinder.marketing.dto.response.UploadSessionResponse;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.UploadSessionRepository;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.repositories.entities.UploadSessionEntity;
+import com.roomfinder.marketing.repositories.entities.UploadSessionEntity.UploadSessionFile;
+import com.roomfinder.marketing.services.MediaService;
+import com.roomfinder.marketing.services.MediaStorage;
+import com.roomfinder.marketing.services.UploadSessionService;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
+import com.roomfinder.marketing.services.helper.MediaTargetAccess;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Upload sessions let clients send image bytes straight to storage. The service only issues
+ * URLs and, on completion, checks object metadata and attaches the images, so upload bandwidth
+ * and memory no longer pass through our pods.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    UploadSessionRepository uploadSessionRepository;
+    MediaStorage mediaStorage;
+    MediaService mediaService;
+    MongoTemplate mongoTemplate;
+    CurrentUserResolver currentUserResolver;
+    MediaTargetAccess mediaTargetAccess;
+
+    @NonFinal
+    @Value("${media.upload-session.ttl:PT15M}")
+    Duration sessionTtl;
+
+    @NonFinal
+    @Value("${media.upload-session.max-files:20}")
+    int maxFiles;
+
+    @NonFinal
+    @Value("${spring.servlet.multipart.max-file-size:50MB}")
+    DataSize maxFileSize;
+
+    @Override
+    public UploadSessionResponse createSession(UploadSessionRequest request) {
+        MediaTarget target = MediaTarget.parse(request.getTarget());
+        List<UploadSessionRequest.UploadFileRequest> files = request.getFiles();
+        if (files == null || files.isEmpty() || files.size() > maxFiles) {
+            throw new AppException(ErrorCode.INVALID_UPLOAD_REQUEST);
+        }
+        mediaTargetAccess.checkWritable(target, request.getTargetId());
+
+        String sessionId = UUID.randomUUID().toString();
+        Instant expiresAt = Instant.now().plus(sessionTtl);
+        List<UploadSessionFile> sessionFiles = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            UploadSessionRequest.UploadFileRequest file = files.get(i);
+            if (!isImage(file.getContentType()) || file.getSize() <= 0 || file.getSize() > maxFileSize.toBytes()) {
+                throw new AppException(ErrorCode.INVALID_UPLOAD_REQUEST);
+            }
+            String name = sanitizeFileName(file.getName());
+            sessionFiles.add(UploadSessionFile.builder()
+                    .fileId(i)
+                    .name(name)
+                    .contentType(file.getContentType())
+                    .maxSize(file.getSize())
+                    .objectName(MediaStorage.newObjectName(target.getFolder(), name))
+                    .build());
+        }
+
+        uploadSessionRepository.insert(UploadSessionEntity.builder()
+                .id(sessionId)
+                .target(target.name())
+                .targetId(request.getTargetId())
+                .userId(currentUserResolver.findCurrentUserId().orElse(null))
+                .files(sessionFiles)
+                .expiresAt(expiresAt)
+                .build());
+
+        List<UploadSessionResponse.UploadSlot> slots = sessionFiles.stream()
+                .map(file -> {
+                    MediaStorage.UploadTarget uploadTarget = mediaStorage.createUploadTarget(
+                            file.getObjectName(), file.getContentType(), file.getMaxSize(), sessionTtl, sessionId);
+                    return UploadSessionResponse.UploadSlot.builder()
+                            .fileId(file.getFileId())
+                            .name(file.getName())
+                            .uploadUrl(uploadTarget.url())
+                            .method(uploadTarget.method())
+                            .headers(uploadTarget.headers())
+                            .build();
+                })
+                .toList();
+
+        return UploadSessionResponse.builder()
+                .sessionId(sessionId)
+                .expiresAt(expiresAt)
+                .files(slots)
+                .build();
+    }
+
+    @Override
+    public MediaUploadResult completeSession(String sessionId) {
+        UploadSessionEntity session = findLiveSession(sessionId);
+        if (session.getUserId() != null
+                && !session.getUserId().equals(currentUserResolver.findCurrentUserId().orElse(null))) {
+            throw new AppException(ErrorCode.UNAUTHORIZED);
+        }
+
+        Set<PostImage> images = new LinkedHashSet<>();
+        List<MediaUploadResult.FailedUpload> failures = new ArrayList<>();
+        for (UploadSessionFile file : session.getFiles()) {
+            String reason = verify(file);
+            if (reason == null) {
+                images.add(PostImage.builder()
+                        .name(file.getName())
+                        .type(file.getContentType())
+                        .urlImagePost(mediaStorage.publicUrl(file.getObjectName()))
+                        .build());
+            } else {
+                failures.add(MediaUploadResult.FailedUpload.builder()
+                        .index(file.getFileId())
+                        .name(file.getName())
+                        .reason(reason)
+                        .build());
+            }
+        }
+        if (images.isEmpty()) {
+            throw new AppException(ErrorCode.FILE_UPLOAD_FAILED);
+        }
+
+        // Chỉ một request completion được gắn ảnh, các request lặp lại nhận 409
+        UploadSessionEntity claimed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(sessionId).and("completed").is(false)),
+                Update.update("completed", true),
+                UploadSessionEntity.class);
+        if (claimed == null) {
+            throw new AppException(ErrorCode.UPLOAD_SESSION_COMPLETED);
+        }
+
+        mediaService.attachImages(MediaTarget.valueOf(session.getTarget()), session.getTargetId(), images);
+        return MediaUploadResult.builder().images(images).failures(failures).build();
+    }
+
+    @Override
+    public long authorizeDirectUpload(String sessionId, String objectName) {
+        return findLiveSession(sessionId).getFiles().stream()
+                .filter(file -> file.getObjectName().equals(objectName))
+                .findFirst()
+                .map(UploadSessionFile::getMaxSize)
+                .orElseThrow(() -> new AppException(ErrorCode.UNAUTHORIZED));
+    }
+
+    private UploadSessionEntity findLiveSession(String sessionId) {
+        UploadSessionEntity session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new AppException(ErrorCode.UPLOAD_SESSION_NOT_FOUND));
+        if (session.isCompleted()) {
+            throw new AppException(ErrorCode.UPLOAD_SESSION_COMPLETED);
+        }
+        if (session.getExpiresAt().isBefore(Instant.now())) {
+            throw new AppException(ErrorCode.UPLOAD_SESSION_EXPIRED);
+        }
+        return session;
+    }
+
+    /**
+     * @return null if the object is acceptable, otherwise the failure reason
+     */
+    private String verify(UploadSessionFile file) {
+        Optional<MediaStorage.StoredObject> stored = mediaStorage.stat(file.getObjectName());
+        if (stored.isEmpty()) {
+            return "File was not uploaded";
+        }
+        if (stored.get().size() > file.getMaxSize() || !isImage(stored.get().contentType())) {
+            mediaStorage.deleteObjects(List.of(file.getObjectName()));
+            return "Uploaded file does not match the declared size or type";
+        }
+        return null;
+    }
+
+    private static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    // Tên file do client gửi được dùng trong object name: bỏ đường dẫn và ký tự lạ
+    private static String sanitizeFileName(String name) {
+        String fileName = name == null ? "" : name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        fileName = fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return fileName.isBlank() || fileName.startsWith(".") ? "image" + fileName : fileName;
+    }
+}
@@ -0,0 +1,117 @@
+package com.roomfinder.marketing.utility;
+
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import java.awt.geom.AffineTransform;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the EXIF orientation tag of a JPEG and maps it to the transform that displays the
+ * image upright. ImageIO decodes the pixels as stored, so a portrait photo taken with the
+ * phone turned comes out sideways without this.
+ */
+public class ExifOrientation {
+    public static final int NORMAL = 1;
+
+    private static final String JPEG_METADATA = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1 = 0xE1;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    /**
+     * Orientation (1-8) of the first image of {@code reader}, {@link #NORMAL} when the image has
+     * no EXIF data or it cannot be read. The reader must have been given its input with metadata.
+     */
+    public static int of(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !Arrays.asList(metadata.getMetadataFormatNames()).contains(JPEG_METADATA)) {
+                return NORMAL;
+            }
+            Node markers = child(metadata.getAsTree(JPEG_METADATA), "markerSequence");
+            for (Node marker = markers == null ? null : markers.getFirstChild(); marker != null;
+                 marker = marker.getNextSibling()) {
+                if (marker instanceof IIOMetadataNode unknown && "unknown".equals(unknown.getNodeName())
+                        && String.valueOf(APP1).equals(unknown.getAttribute("MarkerTag"))
+                        && unknown.getUserObject() instanceof byte[] data) {
+                    int orientation = parse(data);
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // Metadata hỏng không được làm hỏng việc tạo variant
+        }
+        return NORMAL;
+    }
+
+    /**
+     * Whether the upright image has width and height swapped compared to the stored pixels.
+     */
+    public static boolean swapsDimensions(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /**
+     * Transform from stored pixel coordinates to upright coordinates for an image of
+     * {@code width} x {@code height} stored pixels.
+     */
+    public static AffineTransform transform(int orientation, int width, int height) {
+        return switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> new AffineTransform();
+        };
+    }
+
+    // APP1 = "Exif\0\0" + TIFF header + IFD0; tìm tag orientation trong IFD0, 0 nếu không có
+    private static int parse(byte[] data) {
+        if (data.length < EXIF_HEADER.length + 8
+                || !Arrays.equals(data, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, EXIF_HEADER.length, data.length - EXIF_HEADER.length).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return 0;
+        }
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+                int value = tiff.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    private static Node child(Node parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return node;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,36 @@
+package com.roomfinder.marketing.utility;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Deadline of the current HTTP request, stored as a request attribute by RequestDeadlineFilter.
+ */
+public class RequestDeadline {
+    public static final String HEADER = "X-Request-Timeout";
+    private static final String ATTRIBUTE = RequestDeadline.class.getName();
+
+    private RequestDeadline() {
+    }
+
+    public static void start(RequestAttributes attributes, Duration budget) {
+        attributes.setAttribute(ATTRIBUTE, System.nanoTime() + budget.toNanos(), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Time left before the current request's deadline, or null when there is no current request.
+     */
+    public static Duration remaining() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object deadline = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (!(deadline instanceof Long deadlineNanos)) {
+            return null;
+        }
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+}
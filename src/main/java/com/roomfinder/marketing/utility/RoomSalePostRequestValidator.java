@@ -6,32 +6,54 @@ import org.springframework.util.StringUtils;
 public class RoomSalePostRequestValidator {
 
     public static boolean validate(RoomSalePostRequest request) {
+        return firstError(request) != null;
+    }
+
+    /**
+     * Describes the first missing or invalid field of {@code request}, or returns null if the
+     * request is valid.
+     */
+    public static String firstError(RoomSalePostRequest request) {
         if (request == null) {
-            return true;
+            return "Post is empty";
         }
         if (!StringUtils.hasText(request.getTitle())) {
-            return true;
+            return "title is required";
         }
         if (request.getRoomInfo() == null) {
-            return true;
+            return "roomInfo is required";
+        }
+        if (request.getPricingDetails() == null) {
+            return "pricingDetails is required";
         }
         if (request.getPricingDetails().getBasePrice() == null) {
-            return true;
+            return "pricingDetails.basePrice is required";
         }
         if (request.getPricingDetails().getElectricityCost() == null) {
-            return true;
+            return "pricingDetails.electricityCost is required";
         }
         if (request.getPricingDetails().getWaterCost() == null) {
-            return true;
+            return "pricingDetails.waterCost is required";
         }
         if (!StringUtils.hasText(request.getContactInfo())) {
-            return true;
+            return "contactInfo is required";
         }
         if (!StringUtils.hasText(request.getStatusShow())) {
-            return true;
+            return "statusShow is required";
         }
+        return null;
+    }
 
-        return false;
+    /**
+     * Same as {@link #firstError} plus the checks only bulk import applies: imported rows are
+     * charged without going through createPost, so an unknown typePackage is rejected up front.
+     */
+    public static String firstImportError(RoomSalePostRequest request) {
+        String error = firstError(request);
+        if (error == null && (request.getTypePackage() < 0 || request.getTypePackage() > 3)) {
+            return "typePackage must be between 0 and 3";
+        }
+        return error;
     }
 
 }
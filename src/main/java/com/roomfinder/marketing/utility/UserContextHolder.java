@@ -2,6 +2,7 @@ package com.roomfinder.marketing.utility;
 
 public class UserContextHolder {
     private static final ThreadLocal<Integer> currentUserId = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentAuditor = new ThreadLocal<>();
 
     public static void setCurrentUserId(Integer userId) {
         currentUserId.set(userId);
@@ -11,7 +12,16 @@ public class UserContextHolder {
         return currentUserId.get();
     }
 
+    public static void setCurrentAuditor(String auditor) {
+        currentAuditor.set(auditor);
+    }
+
+    public static String getCurrentAuditor() {
+        return currentAuditor.get();
+    }
+
     public static void clear() {
         currentUserId.remove();
+        currentAuditor.remove();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,72 @@
+package com.roomfinder.marketing.benchmark;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.roomfinder.marketing.configuration.security.CustomJwtDecoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost of a reused token with and without the decoded-JWT cache.
+ * Run the main method on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    private String token;
+    private CustomJwtDecoder cachedDecoder;
+    private CustomJwtDecoder uncachedDecoder;
+
+    @Setup
+    public void setUp() throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("broker@roomfinder.vn")
+                .issuer("roomfinder")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(1, ChronoUnit.HOURS)))
+                .claim("userId", 42)
+                .claim("scope", List.of("ROLE_USER"))
+                .build();
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claims);
+        signedJWT.sign(new MACSigner("benchmark-secret-benchmark-secret-benchmark-secret-benchmark-key"));
+        token = signedJWT.serialize();
+
+        cachedDecoder = new CustomJwtDecoder(new SimpleMeterRegistry(), 10_000);
+        uncachedDecoder = new CustomJwtDecoder(new SimpleMeterRegistry(), 0);
+    }
+
+    @Benchmark
+    public Jwt decodeWithCache() {
+        return cachedDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeWithoutCache() {
+        return uncachedDecoder.decode(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtDecoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.roomfinder.marketing.benchmark;
+
+import com.roomfinder.marketing.services.impl.LocalMediaStorage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload and read throughput of the local media storage, without the cloud bucket.
+ * Run the main method on the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalMediaStorageBenchmark {
+
+    @Param({"65536", "2097152"})
+    private int fileSize;
+
+    private Path root;
+    private LocalMediaStorage storage;
+    private MockMultipartFile file;
+    private String storedObject;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("media-benchmark");
+        storage = new LocalMediaStorage(root.toString(), "/media/files/", DataSize.ofKilobytes(256), 2048);
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        file = new MockMultipartFile("files", "photo.jpg", "image/jpeg", content);
+        storedObject = storage.objectNameOf(storage.upload("marketing/", file));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public String upload() {
+        String url = storage.upload("marketing/", file);
+        storage.deleteObjects(List.of(storage.objectNameOf(url)));
+        return url;
+    }
+
+    @Benchmark
+    public long read() throws IOException {
+        try (InputStream in = storage.openObject(storedObject)) {
+            return in.transferTo(OutputStreamSink.INSTANCE);
+        }
+    }
+
+    private static final class OutputStreamSink extends java.io.OutputStream {
+        static final OutputStreamSink INSTANCE = new OutputStreamSink();
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LocalMediaStorageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
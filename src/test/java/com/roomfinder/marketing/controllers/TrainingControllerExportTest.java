@@ -0,0 +1,157 @@
+package com.roomfinder.marketing.controllers;
+
+import com.roomfinder.marketing.dto.response.TrainingExportManifest;
+import com.roomfinder.marketing.facade.TrainingFacade;
+import com.roomfinder.marketing.services.TrainingExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrainingControllerExportTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final String ETAG = "\"abc123\"";
+
+    @TempDir
+    Path tempDir;
+
+    private TrainingController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = Files.write(tempDir.resolve("intents.jsonl.gz"), CONTENT);
+        TrainingExportManifest manifest = TrainingExportManifest.builder()
+                .fileName("intents.jsonl.gz")
+                .size(CONTENT.length)
+                .sha256("abc123")
+                .build();
+        TrainingFacade trainingFacade = mock(TrainingFacade.class);
+        when(trainingFacade.getExport()).thenReturn(new TrainingExportService.Artifact(file, manifest));
+        controller = new TrainingController(trainingFacade);
+    }
+
+    @Test
+    void withoutRangeSendsTheWholeFile() throws IOException {
+        MockHttpServletResponse response = download(null, null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getContentLengthLong()).isEqualTo(CONTENT.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void singleRangeSendsOnlyThoseBytes() throws IOException {
+        MockHttpServletResponse response = download("bytes=2-5", null);
+
+        assertPartial(response, 2, 6);
+    }
+
+    @Test
+    void openEndedRangeRunsToTheEnd() throws IOException {
+        MockHttpServletResponse response = download("bytes=7-", null);
+
+        assertPartial(response, 7, 10);
+    }
+
+    @Test
+    void suffixRangeSendsTheLastBytes() throws IOException {
+        MockHttpServletResponse response = download("bytes=-3", null);
+
+        assertPartial(response, 7, 10);
+    }
+
+    @Test
+    void rangePastTheEndIsClamped() throws IOException {
+        MockHttpServletResponse response = download("bytes=8-100", null);
+
+        assertPartial(response, 8, 10);
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws IOException {
+        MockHttpServletResponse response = download("bytes=10-20", null);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void malformedRangeIs416() throws IOException {
+        MockHttpServletResponse response = download("bytes=abc", null);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    void multipleRangesSendTheWholeFile() throws IOException {
+        MockHttpServletResponse response = download("bytes=0-1,4-5", null);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void rangeIsHonouredWhileIfRangeMatches() throws IOException {
+        MockHttpServletResponse response = download("bytes=2-5", ETAG);
+
+        assertPartial(response, 2, 6);
+    }
+
+    @Test
+    void staleIfRangeSendsTheWholeFile() throws IOException {
+        MockHttpServletResponse response = download("bytes=2-5", "\"older\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void matchingIfNoneMatchIs304() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/train/export");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.downloadExport(request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private MockHttpServletResponse download(String range, String ifRange) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/train/export");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.downloadExport(request, response);
+        return response;
+    }
+
+    private static void assertPartial(MockHttpServletResponse response, int start, int end) {
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE))
+                .isEqualTo("bytes " + start + "-" + (end - 1) + "/" + CONTENT.length);
+        assertThat(response.getContentLengthLong()).isEqualTo(end - start);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(CONTENT, start, end));
+    }
+}
@@ -0,0 +1,77 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.entities.ArticleSummary;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArticleFeedTest {
+    private static final String ID = "66f1c2a9e4b0a1b2c3d4e5f6";
+
+    @Test
+    void cursorCarriesCreatedDateAndId() {
+        Instant createdDate = Instant.parse("2025-03-01T08:15:30.123Z");
+        String cursor = ArticleFeed.encode(ArticleSummary.builder().id(ID).createdDate(createdDate).build());
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(decode(cursor)).isEqualTo(createdDate.toEpochMilli() + "|" + ID);
+    }
+
+    @Test
+    void cursorAfterDatedArticleKeepsOlderAndUndatedArticles() {
+        Instant createdDate = Instant.parse("2025-03-01T08:15:30.123Z");
+        String cursor = ArticleFeed.encode(ArticleSummary.builder().id(ID).createdDate(createdDate).build());
+
+        Document criteria = ArticleFeed.after(cursor).getCriteriaObject();
+        Date date = Date.from(createdDate);
+        assertThat(criteria.getList("$or", Document.class)).containsExactly(
+                new Document("createdDate", new Document("$lt", date)),
+                new Document("createdDate", date).append("_id", new Document("$lt", new ObjectId(ID))),
+                new Document("createdDate", null));
+    }
+
+    @Test
+    void cursorAfterUndatedArticleStaysAmongUndatedArticles() {
+        String cursor = ArticleFeed.encode(ArticleSummary.builder().id(ID).build());
+
+        assertThat(decode(cursor)).isEqualTo("|" + ID);
+        assertThat(ArticleFeed.after(cursor).getCriteriaObject()).isEqualTo(
+                new Document("createdDate", null).append("_id", new Document("$lt", new ObjectId(ID))));
+    }
+
+    @Test
+    void nonObjectIdIsComparedAsString() {
+        String cursor = ArticleFeed.encode(ArticleSummary.builder().id("legacy-42").build());
+
+        assertThat(ArticleFeed.after(cursor).getCriteriaObject().get("_id"))
+                .isEqualTo(new Document("$lt", "legacy-42"));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        for (String cursor : List.of("not base64!", encode("no-separator"), encode("abc|" + ID), encode("123|"))) {
+            assertThatThrownBy(() -> ArticleFeed.after(cursor))
+                    .isInstanceOfSatisfying(AppException.class,
+                            e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR));
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
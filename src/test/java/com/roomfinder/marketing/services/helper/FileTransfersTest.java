@@ -0,0 +1,51 @@
+package com.roomfinder.marketing.services.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileTransfersTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sendfileConnectorGetsTheRangeAsAttributes() throws IOException {
+        Path file = Files.write(tempDir.resolve("export.gz"), new byte[64]);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileTransfers.send(request, response, file, 10, 42);
+
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(10L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(42L);
+        assertThat(response.getContentLengthLong()).isEqualTo(32);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void otherConnectorsGetTheRangeCopiedThroughTheChannel() throws IOException {
+        byte[] content = new byte[300_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.write(tempDir.resolve("export.gz"), content);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FileTransfers.send(new MockHttpServletRequest(), response, file, 1_000, 250_000);
+
+        assertThat(response.getContentLengthLong()).isEqualTo(249_000);
+        assertThat(response.getContentAsByteArray())
+                .isEqualTo(Arrays.copyOfRange(content, 1_000, 250_000));
+    }
+}
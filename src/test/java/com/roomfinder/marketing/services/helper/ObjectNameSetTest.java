@@ -0,0 +1,60 @@
+package com.roomfinder.marketing.services.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObjectNameSetTest {
+
+    @Test
+    void containsOnlyAddedNames() {
+        ObjectNameSet names = new ObjectNameSet(4);
+        names.add("posts/a.png");
+        names.add("posts/b.png");
+
+        assertThat(names.contains("posts/a.png")).isTrue();
+        assertThat(names.contains("posts/b.png")).isTrue();
+        assertThat(names.contains("posts/c.png")).isFalse();
+        assertThat(names.contains("")).isFalse();
+        assertThat(names.size()).isEqualTo(2);
+    }
+
+    @Test
+    void addingTheSameNameTwiceKeepsOneEntry() {
+        ObjectNameSet names = new ObjectNameSet(4);
+        names.add("posts/a.png");
+        names.add("posts/a.png");
+
+        assertThat(names.size()).isEqualTo(1);
+    }
+
+    @Test
+    void growsPastTheExpectedSizeWithoutLosingNames() {
+        ObjectNameSet names = new ObjectNameSet(16);
+        for (int i = 0; i < 50_000; i++) {
+            names.add("posts/" + i + ".webp");
+        }
+
+        assertThat(names.size()).isEqualTo(50_000);
+        for (int i = 0; i < 50_000; i++) {
+            assertThat(names.contains("posts/" + i + ".webp")).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 50_000; i < 100_000; i++) {
+            if (names.contains("posts/" + i + ".webp")) {
+                falsePositives++;
+            }
+        }
+        // 64-bit hash: trùng hash giữa vài chục nghìn tên gần như không xảy ra
+        assertThat(falsePositives).isZero();
+    }
+
+    @Test
+    void nonAsciiNamesAreHashedByTheirBytes() {
+        ObjectNameSet names = new ObjectNameSet(4);
+        names.add("posts/phòng trọ.png");
+
+        assertThat(names.contains("posts/phòng trọ.png")).isTrue();
+        assertThat(names.contains("posts/phong tro.png")).isFalse();
+    }
+}
@@ -0,0 +1,115 @@
+package com.roomfinder.marketing.services.helper;
+
+import com.mongodb.client.result.DeleteResult;
+import com.roomfinder.marketing.repositories.entities.PendingVersionEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PendingVersionsTest {
+    private static final String SEQUENCE = "trainingIntents";
+
+    private MongoTemplate mongoTemplate;
+    private SequenceGenerator sequenceGenerator;
+    private PendingVersions pendingVersions;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        sequenceGenerator = mock(SequenceGenerator.class);
+        pendingVersions = new PendingVersions(mongoTemplate, sequenceGenerator);
+    }
+
+    @Test
+    void registersBeforeReservingWithTheCurrentValueAsFloor() {
+        when(sequenceGenerator.current(SEQUENCE)).thenReturn(5L);
+        when(sequenceGenerator.reserve(SEQUENCE, 3)).thenReturn(9L);
+        when(mongoTemplate.insert(any(PendingVersionEntity.class))).thenAnswer(invocation -> {
+            PendingVersionEntity pending = invocation.getArgument(0);
+            pending.setId("pending-1");
+            return pending;
+        });
+
+        PendingVersions.Reservation reservation = pendingVersions.reserve(SEQUENCE, 3);
+
+        assertThat(reservation).isEqualTo(new PendingVersions.Reservation("pending-1", 9L));
+        ArgumentCaptor<PendingVersionEntity> pending = ArgumentCaptor.forClass(PendingVersionEntity.class);
+        InOrder order = inOrder(sequenceGenerator, mongoTemplate);
+        order.verify(sequenceGenerator).current(SEQUENCE);
+        order.verify(mongoTemplate).insert(pending.capture());
+        order.verify(sequenceGenerator).reserve(SEQUENCE, 3);
+        assertThat(pending.getValue().getSequence()).isEqualTo(SEQUENCE);
+        assertThat(pending.getValue().getFloor()).isEqualTo(5L);
+    }
+
+    @Test
+    void completeReportsWhetherTheRegistrationWasStillThere() {
+        when(mongoTemplate.remove(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(DeleteResult.acknowledged(1), DeleteResult.acknowledged(0));
+        PendingVersions.Reservation reservation = new PendingVersions.Reservation("pending-1", 9L);
+
+        assertThat(pendingVersions.complete(reservation)).isTrue();
+        assertThat(pendingVersions.complete(reservation)).isFalse();
+    }
+
+    @Test
+    void withoutPendingWritersEverythingUpToTheCurrentValueIsReadable() {
+        when(sequenceGenerator.current(SEQUENCE)).thenReturn(10L);
+        when(mongoTemplate.remove(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+
+        assertThat(pendingVersions.readableCeiling(SEQUENCE, Duration.ofMinutes(5))).isEqualTo(11L);
+    }
+
+    @Test
+    void pendingWriterHoldsBackEverythingAboveItsFloor() {
+        when(sequenceGenerator.current(SEQUENCE)).thenReturn(10L);
+        when(mongoTemplate.remove(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+        when(mongoTemplate.findOne(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(PendingVersionEntity.builder().sequence(SEQUENCE).floor(6L).build());
+
+        assertThat(pendingVersions.readableCeiling(SEQUENCE, Duration.ofMinutes(5))).isEqualTo(7L);
+
+        InOrder order = inOrder(sequenceGenerator, mongoTemplate);
+        order.verify(sequenceGenerator).current(SEQUENCE);
+        order.verify(mongoTemplate).findOne(any(Query.class), eq(PendingVersionEntity.class));
+    }
+
+    @Test
+    void writerRegisteredAfterTheSequenceWasReadDoesNotRaiseTheCeiling() {
+        when(sequenceGenerator.current(SEQUENCE)).thenReturn(10L);
+        when(mongoTemplate.remove(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(DeleteResult.acknowledged(0));
+        when(mongoTemplate.findOne(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(PendingVersionEntity.builder().sequence(SEQUENCE).floor(12L).build());
+
+        assertThat(pendingVersions.readableCeiling(SEQUENCE, Duration.ofMinutes(5))).isEqualTo(11L);
+    }
+
+    @Test
+    void abandonedWritersAreDroppedBeforeLookingForTheLowestFloor() {
+        when(sequenceGenerator.current(SEQUENCE)).thenReturn(10L);
+        when(mongoTemplate.remove(any(Query.class), eq(PendingVersionEntity.class)))
+                .thenReturn(DeleteResult.acknowledged(2));
+
+        pendingVersions.readableCeiling(SEQUENCE, Duration.ofMinutes(5));
+
+        ArgumentCaptor<Query> dropped = ArgumentCaptor.forClass(Query.class);
+        InOrder order = inOrder(mongoTemplate);
+        order.verify(mongoTemplate).remove(dropped.capture(), eq(PendingVersionEntity.class));
+        order.verify(mongoTemplate).findOne(any(Query.class), eq(PendingVersionEntity.class));
+        assertThat(dropped.getValue().getQueryObject().get("sequence")).isEqualTo(SEQUENCE);
+        assertThat(dropped.getValue().getQueryObject().containsKey("createdAt")).isTrue();
+    }
+}
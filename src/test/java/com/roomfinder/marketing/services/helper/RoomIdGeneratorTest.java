@@ -0,0 +1,82 @@
+package com.roomfinder.marketing.services.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RoomIdGeneratorTest {
+    private static final long EPOCH = 1735689600000L;
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    private final AtomicLong now = new AtomicLong(EPOCH + 1);
+
+    @Test
+    void stringOrderFollowsTimeOrder() {
+        RoomIdGenerator generator = new RoomIdGenerator(mock(JobLock.class), 7, LEASE, now::get);
+        List<String> roomIds = new ArrayList<>();
+        // Mốc cách xa nhau để đi qua nhiều vị trí ký tự của bản encode
+        for (long offset : new long[]{0, 1, 31, 32, 1023, 1024, 86_400_000L, 365L * 86_400_000L, 40L * 365 * 86_400_000L}) {
+            now.set(EPOCH + 1 + offset);
+            roomIds.add(generator.next());
+            roomIds.add(generator.next());
+        }
+
+        assertThat(roomIds).isSorted().doesNotHaveDuplicates();
+        assertThat(roomIds).allSatisfy(roomId -> assertThat(roomId).matches("room[0-9A-HJKMNP-TV-Z]{13}"));
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsOrder() {
+        RoomIdGenerator generator = new RoomIdGenerator(mock(JobLock.class), 7, LEASE, now::get);
+        now.set(EPOCH + 10_000);
+        String before = generator.next();
+        now.set(EPOCH + 5_000);
+
+        assertThat(generator.next()).isGreaterThan(before);
+    }
+
+    @Test
+    void sequenceRolloverBorrowsTheNextMillisecond() {
+        RoomIdGenerator generator = new RoomIdGenerator(mock(JobLock.class), 7, LEASE, now::get);
+        List<String> sameMillisecond = generator.nextBlock(4096);
+        String borrowed = generator.next();
+
+        RoomIdGenerator nextMillisecond = new RoomIdGenerator(mock(JobLock.class), 7, LEASE, () -> now.get() + 1);
+        assertThat(sameMillisecond).isSorted().doesNotHaveDuplicates();
+        assertThat(borrowed).isGreaterThan(sameMillisecond.get(4095));
+        // Id thứ 4097 chính là id đầu tiên của mili giây kế tiếp
+        assertThat(borrowed).isEqualTo(nextMillisecond.next());
+    }
+
+    @Test
+    void nodeIsDroppedOnceTheLeaseRunsOutWithoutRenewal() {
+        JobLock jobLock = mock(JobLock.class);
+        when(jobLock.tryAcquire(anyString(), any())).thenReturn(true);
+        RoomIdGenerator generator = new RoomIdGenerator(jobLock, -1, LEASE, now::get);
+        generator.next();
+        verify(jobLock, times(1)).tryAcquire(anyString(), any());
+
+        // Gia hạn lỗi nhưng lease còn hạn: vẫn dùng node cũ
+        when(jobLock.tryAcquire(anyString(), any())).thenThrow(new IllegalStateException("lock store down"));
+        now.addAndGet(LEASE.toMillis() / 2);
+        generator.renewNode();
+        now.addAndGet(1);
+        generator.next();
+        verify(jobLock, times(2)).tryAcquire(anyString(), any());
+
+        // Hết lease mà chưa gia hạn được: không sinh id với node cũ nữa
+        now.addAndGet(LEASE.toMillis());
+        generator.renewNode();
+        assertThatThrownBy(generator::next).isInstanceOf(IllegalStateException.class);
+        verify(jobLock, times(4)).tryAcquire(anyString(), any());
+    }
+}
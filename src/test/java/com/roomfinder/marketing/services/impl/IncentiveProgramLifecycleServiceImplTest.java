@@ -0,0 +1,96 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.constants.Status;
+import com.roomfinder.marketing.repositories.entities.IncentiveProgramEntity;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static com.roomfinder.marketing.services.impl.IncentiveProgramLifecycleServiceImpl.nextTransition;
+import static com.roomfinder.marketing.services.impl.IncentiveProgramLifecycleServiceImpl.statusAt;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncentiveProgramLifecycleServiceImplTest {
+    private static final Instant START = Instant.parse("2025-06-01T00:00:00Z");
+    private static final Instant END = Instant.parse("2025-07-01T00:00:00Z");
+
+    @Test
+    void pendingUntilStartDate() {
+        IncentiveProgramEntity program = program(Status.PENDING, true);
+        Instant justBefore = START.minusMillis(1);
+
+        assertThat(statusAt(program, justBefore)).isEqualTo(Status.PENDING);
+        assertThat(nextTransition(program, Status.PENDING, justBefore)).isEqualTo(START);
+    }
+
+    @Test
+    void activeExactlyAtStartDate() {
+        IncentiveProgramEntity program = program(Status.PENDING, true);
+
+        assertThat(statusAt(program, START)).isEqualTo(Status.ACTIVE);
+        assertThat(nextTransition(program, Status.ACTIVE, START)).isEqualTo(END);
+    }
+
+    @Test
+    void activeUntilEndDate() {
+        IncentiveProgramEntity program = program(Status.ACTIVE, true);
+
+        assertThat(statusAt(program, END.minusMillis(1))).isEqualTo(Status.ACTIVE);
+    }
+
+    @Test
+    void expiredExactlyAtEndDate() {
+        IncentiveProgramEntity program = program(Status.ACTIVE, true);
+
+        assertThat(statusAt(program, END)).isEqualTo(Status.EXPIRED);
+        assertThat(nextTransition(program, Status.EXPIRED, END)).isNull();
+    }
+
+    @Test
+    void staysPendingWithoutImagesAndOnlyWaitsForEndDate() {
+        IncentiveProgramEntity program = program(Status.PENDING, false);
+
+        assertThat(statusAt(program, START.minusMillis(1))).isEqualTo(Status.PENDING);
+        assertThat(statusAt(program, START)).isEqualTo(Status.PENDING);
+        assertThat(nextTransition(program, Status.PENDING, START)).isEqualTo(END);
+        assertThat(statusAt(program, END)).isEqualTo(Status.EXPIRED);
+    }
+
+    @Test
+    void legacyActiveProgramWithoutImagesStaysActiveUntilEndDate() {
+        IncentiveProgramEntity program = program(Status.ACTIVE, false);
+
+        assertThat(statusAt(program, START)).isEqualTo(Status.ACTIVE);
+        assertThat(statusAt(program, END)).isEqualTo(Status.EXPIRED);
+    }
+
+    @Test
+    void programWithoutDatesIsActiveOnceItHasImages() {
+        IncentiveProgramEntity program = IncentiveProgramEntity.builder()
+                .status(Status.PENDING)
+                .postImages(Set.of(PostImage.builder().name("banner.png").build()))
+                .build();
+
+        assertThat(statusAt(program, START)).isEqualTo(Status.ACTIVE);
+        assertThat(nextTransition(program, Status.ACTIVE, START)).isNull();
+    }
+
+    @Test
+    void rejectedIsKept() {
+        IncentiveProgramEntity program = program(Status.REJECTED, true);
+
+        assertThat(statusAt(program, START)).isEqualTo(Status.REJECTED);
+        assertThat(nextTransition(program, Status.REJECTED, START)).isNull();
+    }
+
+    private static IncentiveProgramEntity program(Status status, boolean withImages) {
+        return IncentiveProgramEntity.builder()
+                .status(status)
+                .startDate(START)
+                .endDate(END)
+                .postImages(withImages ? Set.of(PostImage.builder().name("banner.png").build()) : Set.of())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalMediaStorageTest {
+    private static final byte[] CONTENT = "image".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private LocalMediaStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        root = tempDir.resolve("media-store");
+        storage = new LocalMediaStorage(root.toString(), "/media/files/", DataSize.ofKilobytes(256), 16);
+    }
+
+    @Test
+    void objectsStayUnderTheRoot() throws IOException {
+        String url = storage.uploadBytes("posts/room 1.png", "image/png", CONTENT);
+
+        assertThat(url).isEqualTo("/media/files/posts/room%201.png");
+        assertThat(storage.objectNameOf(url)).isEqualTo("posts/room 1.png");
+        assertThat(root.resolve("posts/room 1.png")).hasBinaryContent(CONTENT);
+        try (InputStream in = storage.openObject("posts/room 1.png")) {
+            assertThat(in.readAllBytes()).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    void writesOutsideTheRootAreRejected() {
+        for (String objectName : List.of("../outside.png", "posts/../../outside.png",
+                "../media-store-sibling/outside.png", tempDir.resolve("outside.png").toString())) {
+            assertRejected(() -> storage.uploadBytes(objectName, "image/png", CONTENT));
+            assertRejected(() -> storage.receive(objectName, new ByteArrayInputStream(CONTENT), CONTENT.length));
+        }
+        assertThat(tempDir.resolve("outside.png")).doesNotExist();
+        assertThat(tempDir.resolve("media-store-sibling")).doesNotExist();
+    }
+
+    @Test
+    void readsOutsideTheRootAreRejected() throws IOException {
+        Files.write(tempDir.resolve("secret.txt"), CONTENT);
+
+        assertRejected(() -> storage.openObject("../secret.txt"));
+        assertRejected(() -> storage.existingPath("posts/../../secret.txt"));
+        assertRejected(() -> storage.mappedContent(tempDir.resolve("secret.txt").toString()));
+        assertRejected(() -> storage.stat("../secret.txt"));
+    }
+
+    @Test
+    void encodedTraversalInStoredUrlIsRejected() throws IOException {
+        Files.write(tempDir.resolve("secret.txt"), CONTENT);
+        String objectName = storage.objectNameOf("/media/files/..%2Fsecret.txt");
+
+        assertThat(objectName).isEqualTo("../secret.txt");
+        assertRejected(() -> storage.openObject(objectName));
+    }
+
+    @Test
+    void rootItselfIsNotAnObject() {
+        assertRejected(() -> storage.existingPath(""));
+        assertRejected(() -> storage.existingPath("posts/.."));
+    }
+
+    @Test
+    void deleteOutsideTheRootIsRejected() throws IOException {
+        Path secret = Files.write(tempDir.resolve("secret.txt"), CONTENT);
+
+        assertRejected(() -> storage.deleteObjects(List.of("../secret.txt")));
+        assertThat(secret).exists();
+    }
+
+    private static void assertRejected(Runnable action) {
+        assertThatThrownBy(action::run)
+                .isInstanceOfSatisfying(AppException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo(ErrorCode.IMAGE_NOT_FOUND));
+    }
+}
@@ -0,0 +1,254 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.mongodb.client.result.UpdateResult;
+import com.roomfinder.marketing.constants.MediaJobStatus;
+import com.roomfinder.marketing.constants.MediaTarget;
+import com.roomfinder.marketing.dto.MediaUploadResult;
+import com.roomfinder.marketing.exception.AppException;
+import com.roomfinder.marketing.exception.ErrorCode;
+import com.roomfinder.marketing.repositories.MediaJobRepository;
+import com.roomfinder.marketing.repositories.entities.MediaJobEntity;
+import com.roomfinder.marketing.repositories.entities.MediaJobEntity.StagedFile;
+import com.roomfinder.marketing.repositories.entities.PostImage;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.MediaObjectService;
+import com.roomfinder.marketing.services.MediaService;
+import com.roomfinder.marketing.services.helper.CurrentUserResolver;
+import com.roomfinder.marketing.services.helper.MediaTargetAccess;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MediaJobServiceImplTest {
+    private static final String CLAIM = "claim-1";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private MediaService mediaService;
+    private MediaObjectService mediaObjectService;
+    private MongoTemplate mongoTemplate;
+    private GridFsTemplate gridFsTemplate;
+    private MediaJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        mediaService = mock(MediaService.class);
+        mediaObjectService = mock(MediaObjectService.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        gridFsTemplate = mock(GridFsTemplate.class);
+        service = newService(Duration.ofMinutes(5));
+        claimHeld(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void storesAttachesAndCompletes() {
+        MediaJobEntity job = job(0, file("f1"), file("f2"));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList())).thenReturn(stored(List.of(image("a"), image("b"))));
+
+        service.process(job);
+
+        verify(mediaService).attachImages(eq(MediaTarget.POST), eq("post-1"), anyList());
+        List<Query> queries = new ArrayList<>();
+        List<Update> updates = jobUpdates(queries);
+        assertThat(queries).allSatisfy(query -> assertThat(query.getQueryObject()).containsEntry("claim", CLAIM));
+        assertThat(setOf(updates.get(updates.size() - 1))).containsEntry("status", MediaJobStatus.COMPLETED.name());
+        assertThat(job.getImages()).extracting(PostImage::getUrlImagePost).containsExactly("url-a", "url-b");
+        // Dọn GridFS theo jobId khi job xong
+        ArgumentCaptor<Query> staged = ArgumentCaptor.forClass(Query.class);
+        verify(gridFsTemplate, atLeastOnce()).delete(staged.capture());
+        assertThat(staged.getAllValues()).anySatisfy(query ->
+                assertThat(query.getQueryObject()).containsEntry("metadata.jobId", "job-1"));
+    }
+
+    @Test
+    void failedFilesStayQueuedWhileStoredOnesAreAttached() {
+        MediaJobEntity job = job(0, file("f1"), file("f2"));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList()))
+                .thenReturn(stored(List.of(image("a")), new MediaUploadResult.FailedUpload(1, "f2", "timeout")));
+
+        service.process(job);
+
+        verify(mediaService).attachImages(eq(MediaTarget.POST), eq("post-1"), eq(List.of(job.getImages().get(0))));
+        assertThat(job.getFiles()).extracting(StagedFile::getName).containsExactly("f2");
+        List<Update> updates = jobUpdates(null);
+        assertThat(setOf(updates.get(updates.size() - 1))).containsEntry("status", MediaJobStatus.QUEUED.name()).containsEntry("attempts", 1);
+        // Chỉ file đã lưu bị xoá khỏi GridFS, file lỗi được giữ để retry
+        ArgumentCaptor<Query> staged = ArgumentCaptor.forClass(Query.class);
+        verify(gridFsTemplate).delete(staged.capture());
+        assertThat(staged.getValue().getQueryObject().toJson()).contains(gridFsId("f1")).doesNotContain(gridFsId("f2"));
+    }
+
+    @Test
+    void retryOnlyUploadsTheFilesThatFailedBefore() {
+        MediaJobEntity job = job(1, file("f2"));
+        job.setImages(List.of(image("a")));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList())).thenReturn(stored(List.of(image("b"))));
+
+        service.process(job);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MultipartFile>> files = ArgumentCaptor.forClass(List.class);
+        verify(mediaService).storeImages(eq(MediaTarget.POST), files.capture());
+        assertThat(files.getValue()).extracting(MultipartFile::getOriginalFilename).containsExactly("f2");
+        assertThat(job.getImages()).extracting(PostImage::getUrlImagePost).containsExactly("url-a", "url-b");
+    }
+
+    @Test
+    void filesStillFailingAfterTheLastAttemptCompleteWithFailuresWhenSomeImagesWereAttached() {
+        MediaJobEntity job = job(MAX_ATTEMPTS - 1, file("f2"));
+        job.setImages(List.of(image("a")));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList()))
+                .thenReturn(stored(List.of(), new MediaUploadResult.FailedUpload(0, "f2", "timeout")));
+
+        service.process(job);
+
+        List<Update> updates = jobUpdates(null);
+        assertThat(setOf(updates.get(updates.size() - 1))).containsEntry("status", MediaJobStatus.COMPLETED.name());
+    }
+
+    @Test
+    void imagesStoredByAnEarlierRunAreAttachedWithoutUploadingAgain() {
+        MediaJobEntity job = job(1);
+        job.setPendingImages(List.of(image("a")));
+        when(mongoTemplate.exists(any(Query.class), eq(RoomSalePostEntity.class))).thenReturn(true);
+
+        service.process(job);
+
+        verify(mediaService, never()).storeImages(any(), anyList());
+        verify(mediaService, never()).attachImages(any(), any(), any());
+        List<Update> updates = jobUpdates(null);
+        assertThat(setOf(updates.get(updates.size() - 1))).containsEntry("status", MediaJobStatus.COMPLETED.name());
+    }
+
+    @Test
+    void workerThatLostItsClaimReleasesWhatItStoredAndStops() {
+        MediaJobEntity job = job(0, file("f1"));
+        List<PostImage> images = List.of(image("a"));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList())).thenReturn(stored(images));
+        claimHeld(false);
+
+        service.process(job);
+
+        verify(mediaObjectService).release(anyList());
+        verify(mediaService, never()).attachImages(any(), any(), any());
+        verifyNoInteractions(gridFsTemplate);
+    }
+
+    @Test
+    void deletedTargetReleasesThePendingImages() {
+        MediaJobEntity job = job(0, file("f1"));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList())).thenReturn(stored(List.of(image("a"))));
+        doThrow(new AppException(ErrorCode.POST_NOT_FOUND)).when(mediaService).attachImages(any(), any(), any());
+
+        service.process(job);
+
+        verify(mediaObjectService).release(job.getPendingImages());
+        List<Update> updates = jobUpdates(null);
+        assertThat(setOf(updates.get(updates.size() - 1))).containsEntry("status", MediaJobStatus.FAILED.name());
+    }
+
+    @Test
+    void leaseIsRenewedWhileALongUploadRuns() {
+        service.shutdown();
+        service = newService(Duration.ofMillis(300));
+        MediaJobEntity job = job(0, file("f1"));
+        when(mediaService.storeImages(eq(MediaTarget.POST), anyList())).thenAnswer(invocation -> {
+            Thread.sleep(600);
+            return stored(List.of(image("a")));
+        });
+
+        service.process(job);
+
+        long renewals = jobUpdates(null).stream()
+                .filter(update -> update.getUpdateObject().keySet().equals(Set.of("$set"))
+                        && setOf(update).keySet().equals(Set.of("nextAttemptAt")))
+                .count();
+        // Một lần gia hạn trước khi gắn ảnh, còn lại do heartbeat trong lúc upload
+        assertThat(renewals).isGreaterThanOrEqualTo(3);
+    }
+
+    private MediaJobServiceImpl newService(Duration lease) {
+        return new MediaJobServiceImpl(mock(MediaJobRepository.class), mediaService, mediaObjectService, mongoTemplate,
+                gridFsTemplate, mock(CurrentUserResolver.class), mock(MediaTargetAccess.class),
+                1, 20, MAX_ATTEMPTS, Duration.ofSeconds(10), lease);
+    }
+
+    private void claimHeld(boolean held) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(MediaJobEntity.class)))
+                .thenReturn(held ? UpdateResult.acknowledged(1, 1L, null) : UpdateResult.acknowledged(0, 0L, null));
+    }
+
+    private List<Update> jobUpdates(List<Query> queries) {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(query.capture(), update.capture(), eq(MediaJobEntity.class));
+        if (queries != null) {
+            queries.addAll(query.getAllValues());
+        }
+        return update.getAllValues();
+    }
+
+    private static Document setOf(Update update) {
+        Object set = update.getUpdateObject().get("$set");
+        return set == null ? new Document() : (Document) set;
+    }
+
+    private static MediaUploadResult stored(List<PostImage> images, MediaUploadResult.FailedUpload... failures) {
+        return MediaUploadResult.builder()
+                .images(new LinkedHashSet<>(images))
+                .failures(List.of(failures))
+                .build();
+    }
+
+    private static MediaJobEntity job(int attempts, StagedFile... files) {
+        return MediaJobEntity.builder()
+                .id("job-1")
+                .target(MediaTarget.POST.name())
+                .targetId("post-1")
+                .status(MediaJobStatus.PROCESSING.name())
+                .files(new ArrayList<>(List.of(files)))
+                .attempts(attempts)
+                .claim(CLAIM)
+                .build();
+    }
+
+    private static StagedFile file(String name) {
+        return StagedFile.builder()
+                .gridFsId(gridFsId(name))
+                .name(name)
+                .contentType("image/png")
+                .size(10)
+                .build();
+    }
+
+    private static String gridFsId(String name) {
+        return "0".repeat(24 - name.length()) + name;
+    }
+
+    private static PostImage image(String name) {
+        return PostImage.builder().name(name).type("image/png").urlImagePost("url-" + name).build();
+    }
+}
@@ -0,0 +1,384 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.mongodb.client.result.UpdateResult;
+import com.roomfinder.marketing.constants.OutboxStatus;
+import com.roomfinder.marketing.constants.PaymentReason;
+import com.roomfinder.marketing.repositories.FeaturedRepository;
+import com.roomfinder.marketing.repositories.PaymentOutboxRepository;
+import com.roomfinder.marketing.repositories.PaymentRepository;
+import com.roomfinder.marketing.repositories.datamodel.BalanceDeduction;
+import com.roomfinder.marketing.repositories.entities.FeaturedRoomEntity;
+import com.roomfinder.marketing.repositories.entities.PaymentOutboxEntity;
+import com.roomfinder.marketing.repositories.entities.RoomSalePostEntity;
+import com.roomfinder.marketing.services.TrainingCorpusService;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PaymentOutboxServiceImplTest {
+    private static final String CLAIM = "claim-1";
+
+    private PaymentOutboxRepository paymentOutboxRepository;
+    private PaymentRepository paymentRepository;
+    private FeaturedRepository featuredRepository;
+    private MongoTemplate mongoTemplate;
+    private TrainingCorpusService trainingCorpusService;
+    private PaymentOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        paymentOutboxRepository = mock(PaymentOutboxRepository.class);
+        paymentRepository = mock(PaymentRepository.class);
+        featuredRepository = mock(FeaturedRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        trainingCorpusService = mock(TrainingCorpusService.class);
+        service = new PaymentOutboxServiceImpl(paymentOutboxRepository, paymentRepository,
+                featuredRepository, mongoTemplate, trainingCorpusService);
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "baseBackoff", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "lease", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "targetGrace", Duration.ofMinutes(1));
+        when(mongoTemplate.exists(any(Query.class), eq(RoomSalePostEntity.class))).thenReturn(true);
+        when(mongoTemplate.exists(any(Query.class), eq(FeaturedRoomEntity.class))).thenReturn(true);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(PaymentOutboxEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    void claimsTheWholeBatchWithOneUpdateAndChargesEachOwnerWithTheEntryIdAsKey() {
+        PaymentOutboxEntity first = entry("e1", PaymentReason.POST_PACKAGE, 0);
+        PaymentOutboxEntity second = entry("e2", PaymentReason.POST_PACKAGE, 0);
+        second.setUserId(8);
+        claimed(first, second);
+
+        service.dispatchPending();
+
+        ArgumentCaptor<Query> claim = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> tag = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(claim.capture(), tag.capture(), eq(PaymentOutboxEntity.class));
+        assertThat(claim.getValue().getQueryObject().get("_id")).isEqualTo(new Document("$in", List.of("e1", "e2")));
+        assertThat(claim.getValue().getQueryObject()).containsKeys("status", "nextAttemptAt");
+        assertThat(setOf(tag.getValue())).containsEntry("status", OutboxStatus.PROCESSING.name()).containsKey("claim");
+        verify(paymentRepository).minusBalance(7, 1, "room-e1", "e1");
+        verify(paymentRepository).minusBalance(8, 1, "room-e2", "e2");
+        assertThat(outcomes()).extracting(update -> setOf(update).get("status"))
+                .containsExactly(OutboxStatus.SENT.name(), OutboxStatus.SENT.name());
+    }
+
+    @Test
+    void nothingDueMeansNoClaim() {
+        when(mongoTemplate.find(any(Query.class), eq(PaymentOutboxEntity.class))).thenReturn(List.of());
+
+        service.dispatchPending();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(PaymentOutboxEntity.class));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void outcomesOnlyApplyWhileTheClaimIsHeld() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 0));
+
+        service.dispatchPending();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateFirst(query.capture(), any(Update.class), eq(PaymentOutboxEntity.class));
+        assertThat(query.getValue().getQueryObject()).containsEntry("_id", "e1").containsEntry("claim", CLAIM);
+    }
+
+    @Test
+    void entryWhoseLeaseRanOutBeforeItsTurnIsLeftForTheNextClaim() {
+        PaymentOutboxEntity expired = entry("e1", PaymentReason.POST_PACKAGE, 0);
+        expired.setNextAttemptAt(Instant.now().minusSeconds(1));
+        claimed(expired);
+
+        service.dispatchPending();
+
+        verifyNoInteractions(paymentRepository);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(PaymentOutboxEntity.class));
+    }
+
+    @Test
+    void transientFailureIsRetriedWithBackoff() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 1));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(503));
+
+        Instant before = Instant.now();
+        service.dispatchPending();
+
+        Map<String, Object> set = setOf(outcomes().get(0));
+        assertThat(set).containsEntry("status", OutboxStatus.NEW.name()).containsEntry("attempts", 2);
+        // Lần thử thứ 2: backoff = base * 2
+        assertThat((Instant) set.get("nextAttemptAt")).isAfterOrEqualTo(before.plusSeconds(10));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(RoomSalePostEntity.class));
+    }
+
+    @Test
+    void rejectedServiceCredentialIsRetriedNotCompensated() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 0));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(401));
+
+        service.dispatchPending();
+
+        assertThat(setOf(outcomes().get(0))).containsEntry("status", OutboxStatus.NEW.name());
+    }
+
+    @Test
+    void permanentFailureSetsThePostBackToPending() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 0));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(400));
+
+        service.dispatchPending();
+
+        ArgumentCaptor<Update> post = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), post.capture(), eq(RoomSalePostEntity.class));
+        assertThat(setOf(post.getValue())).containsEntry("status", "PENDING");
+        verify(trainingCorpusService).refreshByRoomId("room-e1");
+        assertThat(outcomes()).last().extracting(update -> setOf(update).get("status"))
+                .isEqualTo(OutboxStatus.COMPENSATED.name());
+    }
+
+    @Test
+    void exhaustedAttemptsAreCompensated() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 2));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(503));
+
+        service.dispatchPending();
+
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(RoomSalePostEntity.class));
+        assertThat(outcomes()).last().extracting(update -> setOf(update).get("status"))
+                .isEqualTo(OutboxStatus.COMPENSATED.name());
+    }
+
+    @Test
+    void compensationIsSkippedOnceAnotherClaimHoldsTheEntry() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 0));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(400));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(PaymentOutboxEntity.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        service.dispatchPending();
+
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(RoomSalePostEntity.class));
+        verifyNoInteractions(trainingCorpusService);
+    }
+
+    @Test
+    void failedFeaturedCreationDeletesTheFeaturedEntry() {
+        PaymentOutboxEntity entry = entry("e1", PaymentReason.FEATURED_ADS, 0);
+        entry.setFeaturedCreated(true);
+        claimed(entry);
+        FeaturedRoomEntity featured = new FeaturedRoomEntity();
+        when(featuredRepository.findByRoomId("room-e1")).thenReturn(Optional.of(featured));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(400));
+
+        service.dispatchPending();
+
+        verify(featuredRepository).delete(featured);
+    }
+
+    @Test
+    void failedFeaturedRenewalRestoresThePreviousExpiry() {
+        Instant previousExpiry = Instant.parse("2026-01-01T00:00:00Z");
+        PaymentOutboxEntity entry = entry("e1", PaymentReason.FEATURED_ADS, 0);
+        entry.setPreviousFeaturedExpiry(previousExpiry);
+        claimed(entry);
+        FeaturedRoomEntity featured = new FeaturedRoomEntity();
+        featured.setTypes(new LinkedList<>(List.of(1, 2, 1)));
+        featured.setExpiry(previousExpiry.plus(Duration.ofDays(7)));
+        when(featuredRepository.findByRoomId("room-e1")).thenReturn(Optional.of(featured));
+        when(paymentRepository.minusBalance(anyInt(), anyInt(), anyString(), anyString())).thenThrow(feignError(400));
+
+        service.dispatchPending();
+
+        verify(featuredRepository).save(featured);
+        assertThat(featured.getExpiry()).isEqualTo(previousExpiry);
+        assertThat(featured.getTypes()).containsExactly(1, 2);
+    }
+
+    @Test
+    void targetNeverPersistedIsClosedWithoutCharging() {
+        PaymentOutboxEntity entry = entry("e1", PaymentReason.POST_PACKAGE, 0);
+        entry.setCreatedDate(Instant.now().minus(Duration.ofMinutes(5)));
+        claimed(entry);
+        when(mongoTemplate.exists(any(Query.class), eq(RoomSalePostEntity.class))).thenReturn(false);
+
+        service.dispatchPending();
+
+        verifyNoInteractions(paymentRepository);
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(RoomSalePostEntity.class));
+        assertThat(setOf(outcomes().get(0))).containsEntry("status", OutboxStatus.COMPENSATED.name());
+    }
+
+    @Test
+    void targetNotWrittenYetIsRetriedWithoutCountingAnAttempt() {
+        claimed(entry("e1", PaymentReason.POST_PACKAGE, 0));
+        when(mongoTemplate.exists(any(Query.class), eq(RoomSalePostEntity.class))).thenReturn(false);
+
+        service.dispatchPending();
+
+        verifyNoInteractions(paymentRepository);
+        assertThat(setOf(outcomes().get(0)))
+                .containsEntry("status", OutboxStatus.NEW.name())
+                .containsEntry("attempts", 0);
+    }
+
+    @Test
+    void importBatchIsEnqueuedAsOneEntry() {
+        Map<String, Integer> packages = new LinkedHashMap<>();
+        packages.put("r1", 1);
+        packages.put("r2", 3);
+
+        service.enqueuePostPackages(7, packages);
+
+        ArgumentCaptor<PaymentOutboxEntity> inserted = ArgumentCaptor.forClass(PaymentOutboxEntity.class);
+        verify(paymentOutboxRepository).insert(inserted.capture());
+        assertThat(inserted.getValue().getReason()).isEqualTo(PaymentReason.POST_PACKAGES.name());
+        assertThat(inserted.getValue().getUserId()).isEqualTo(7);
+        assertThat(inserted.getValue().getItems()).extracting(PaymentOutboxEntity.PackageItem::getRoomId,
+                PaymentOutboxEntity.PackageItem::getTypePackage).containsExactly(tuple("r1", 1), tuple("r2", 3));
+    }
+
+    @Test
+    void importBatchIsChargedInOneCall() {
+        claimed(batch("e1", "r1", "r2"));
+        persisted("r1", "r2");
+
+        service.dispatchPending();
+
+        verify(paymentRepository).minusBalances(7, List.of(new BalanceDeduction.Item("r1", 1),
+                new BalanceDeduction.Item("r2", 1)), "e1");
+        assertThat(setOf(outcomes().get(0))).containsEntry("status", OutboxStatus.SENT.name());
+    }
+
+    @Test
+    void importBatchWaitsForRowsThatMayStillBeWritten() {
+        claimed(batch("e1", "r1", "r2"));
+        persisted("r1");
+
+        service.dispatchPending();
+
+        verifyNoInteractions(paymentRepository);
+        assertThat(setOf(outcomes().get(0))).containsEntry("status", OutboxStatus.NEW.name());
+    }
+
+    @Test
+    void rowsThatWereNeverWrittenAreDroppedFromTheBatchBeforeCharging() {
+        PaymentOutboxEntity entry = batch("e1", "r1", "r2");
+        entry.setCreatedDate(Instant.now().minus(Duration.ofMinutes(5)));
+        claimed(entry);
+        persisted("r2");
+
+        service.dispatchPending();
+
+        // Danh sách thu hẹp được lưu trước khi gọi payment để retry gửi cùng nội dung
+        assertThat(outcomes().get(0).getUpdateObject().get("$set", Document.class)).containsKey("items");
+        verify(paymentRepository).minusBalances(7, List.of(new BalanceDeduction.Item("r2", 1)), "e1");
+    }
+
+    @Test
+    void failedImportBatchOnlySetsItsOwnRowsBackToPending() {
+        claimed(batch("e1", "r1", "r2"));
+        persisted("r1", "r2");
+        when(paymentRepository.minusBalances(anyInt(), any(), anyString())).thenThrow(feignError(400));
+
+        service.dispatchPending();
+
+        ArgumentCaptor<Query> rows = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(rows.capture(), any(Update.class), eq(RoomSalePostEntity.class));
+        assertThat(rows.getValue().getQueryObject().get("roomId")).isEqualTo(new Document("$in", List.of("r1", "r2")));
+        verify(trainingCorpusService).refresh(anyCollection());
+        assertThat(outcomes()).last().extracting(update -> setOf(update).get("status"))
+                .isEqualTo(OutboxStatus.COMPENSATED.name());
+    }
+
+    private void persisted(String... roomIds) {
+        when(mongoTemplate.find(any(Query.class), eq(RoomSalePostEntity.class))).thenReturn(Arrays.stream(roomIds)
+                .map(roomId -> {
+                    RoomSalePostEntity post = new RoomSalePostEntity();
+                    post.setRoomId(roomId);
+                    return post;
+                })
+                .toList());
+    }
+
+    private static PaymentOutboxEntity batch(String id, String... roomIds) {
+        PaymentOutboxEntity entry = entry(id, PaymentReason.POST_PACKAGES, 0);
+        entry.setRoomId(null);
+        entry.setTypePackage(0);
+        entry.setItems(Arrays.stream(roomIds).map(roomId -> new PaymentOutboxEntity.PackageItem(roomId, 1)).toList());
+        return entry;
+    }
+
+    private void claimed(PaymentOutboxEntity... entries) {
+        List<PaymentOutboxEntity> ids = Arrays.stream(entries)
+                .map(entry -> PaymentOutboxEntity.builder().id(entry.getId()).build())
+                .toList();
+        when(mongoTemplate.find(any(Query.class), eq(PaymentOutboxEntity.class))).thenReturn(ids, List.of(entries));
+    }
+
+    private List<Update> outcomes() {
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateFirst(any(Query.class), update.capture(), eq(PaymentOutboxEntity.class));
+        return update.getAllValues();
+    }
+
+    private static Document setOf(Update update) {
+        return (Document) update.getUpdateObject().get("$set");
+    }
+
+    private static FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "/userPayment/minusBalance", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("PaymentClient#minusBalance", Response.builder()
+                .status(status)
+                .reason("error")
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+
+    private static PaymentOutboxEntity entry(String id, PaymentReason reason, int attempts) {
+        Instant now = Instant.now();
+        return PaymentOutboxEntity.builder()
+                .id(id)
+                .reason(reason.name())
+                .userId(7)
+                .roomId("room-" + id)
+                .typePackage(1)
+                .status(OutboxStatus.PROCESSING.name())
+                .attempts(attempts)
+                .nextAttemptAt(now.plus(Duration.ofMinutes(1)))
+                .claim(CLAIM)
+                .createdDate(now)
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.roomfinder.marketing.services.impl;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.roomfinder.marketing.dto.response.TrainingDeltaResponse;
+import com.roomfinder.marketing.repositories.TrainingIntentRepository;
+import com.roomfinder.marketing.repositories.entities.TrainingIntentEntity;
+import com.roomfinder.marketing.services.helper.JobLock;
+import com.roomfinder.marketing.services.helper.PendingVersions;
+import com.roomfinder.marketing.services.helper.SequenceGenerator;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TrainingCorpusServiceImplTest {
+    private static final String SEQUENCE = "trainingIntents";
+    private static final Duration WRITE_TIMEOUT = Duration.ofMinutes(5);
+
+    private TrainingIntentRepository trainingIntentRepository;
+    private MongoTemplate mongoTemplate;
+    private PendingVersions pendingVersions;
+    private BulkOperations bulk;
+    private TrainingCorpusServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        trainingIntentRepository = mock(TrainingIntentRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        pendingVersions = mock(PendingVersions.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TrainingIntentEntity.class)).thenReturn(bulk);
+        service = new TrainingCorpusServiceImpl(trainingIntentRepository, mongoTemplate, mock(SequenceGenerator.class),
+                pendingVersions, mock(JobLock.class));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "writeTimeout", WRITE_TIMEOUT);
+        ReflectionTestUtils.setField(service, "maxDeltaSize", 1000);
+    }
+
+    @Test
+    void deltaStopsBelowTheReadableCeiling() {
+        when(pendingVersions.readableCeiling(SEQUENCE, WRITE_TIMEOUT)).thenReturn(8L);
+        when(mongoTemplate.find(any(Query.class), eq(TrainingIntentEntity.class)))
+                .thenReturn(List.of(intent("p1:NAME", 4, false), tombstone("p2:NAME", 6)));
+
+        TrainingDeltaResponse delta = service.getDelta(3, 10);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(TrainingIntentEntity.class));
+        assertThat(query.getValue().getQueryObject())
+                .isEqualTo(new Document("version", new Document("$gt", 3L).append("$lt", 8L)));
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("version", 1));
+        assertThat(query.getValue().getLimit()).isEqualTo(11);
+        assertThat(delta.getNextSince()).isEqualTo(6);
+        assertThat(delta.isHasMore()).isFalse();
+        assertThat(delta.getChanged()).extracting(TrainingDeltaResponse.TrainingIntentResponse::getId)
+                .containsExactly("p1:NAME");
+        assertThat(delta.getRemoved()).containsExactly("p2:NAME");
+    }
+
+    @Test
+    void fullPageReportsHasMoreAndResumesAfterItsLastVersion() {
+        when(pendingVersions.readableCeiling(SEQUENCE, WRITE_TIMEOUT)).thenReturn(100L);
+        when(mongoTemplate.find(any(Query.class), eq(TrainingIntentEntity.class)))
+                .thenReturn(List.of(intent("a", 1, false), intent("b", 2, false), intent("c", 3, false)));
+
+        TrainingDeltaResponse delta = service.getDelta(0, 2);
+
+        assertThat(delta.isHasMore()).isTrue();
+        assertThat(delta.getNextSince()).isEqualTo(2);
+        assertThat(delta.getChanged()).hasSize(2);
+    }
+
+    @Test
+    void emptyDeltaKeepsTheCursor() {
+        when(pendingVersions.readableCeiling(SEQUENCE, WRITE_TIMEOUT)).thenReturn(5L);
+        when(mongoTemplate.find(any(Query.class), eq(TrainingIntentEntity.class))).thenReturn(List.of());
+
+        TrainingDeltaResponse delta = service.getDelta(4, 10);
+
+        assertThat(delta.getNextSince()).isEqualTo(4);
+        assertThat(delta.isHasMore()).isFalse();
+    }
+
+    @Test
+    void writeUsesReservedVersionsOnlyOverOlderCopiesAndCompletesAfterwards() {
+        when(trainingIntentRepository.findByPostId("p1"))
+                .thenReturn(List.of(intent("p1:NAME", 2, false), intent("p1:STATUS", 3, false), tombstone("p1:AREA", 4)));
+        when(pendingVersions.reserve(SEQUENCE, 2)).thenReturn(new PendingVersions.Reservation("r1", 20));
+        when(pendingVersions.complete(any())).thenReturn(true);
+
+        service.remove("p1");
+
+        List<TrainingIntentEntity> written = captureReplacements(2);
+        assertThat(written).extracting(TrainingIntentEntity::getVersion).containsExactly(20L, 21L);
+        assertThat(written).allMatch(TrainingIntentEntity::isDeleted);
+        InOrder order = inOrder(pendingVersions, bulk);
+        order.verify(pendingVersions).reserve(SEQUENCE, 2);
+        order.verify(bulk).execute();
+        order.verify(pendingVersions).complete(new PendingVersions.Reservation("r1", 20));
+    }
+
+    @Test
+    void writeThatOutlivesItsReservationIsWrittenAgainWithNewVersions() {
+        when(trainingIntentRepository.findByPostId("p1")).thenReturn(List.of(intent("p1:NAME", 2, false)));
+        when(pendingVersions.reserve(SEQUENCE, 1))
+                .thenReturn(new PendingVersions.Reservation("r1", 20), new PendingVersions.Reservation("r2", 40));
+        when(pendingVersions.complete(any())).thenReturn(false, true);
+
+        service.remove("p1");
+
+        verify(pendingVersions, times(2)).reserve(SEQUENCE, 1);
+        verify(bulk, times(2)).execute();
+        assertThat(captureReplacements(2)).last().extracting(TrainingIntentEntity::getVersion).isEqualTo(40L);
+    }
+
+    @Test
+    void staleWritesRejectedAsDuplicatesAreSkipped() {
+        when(trainingIntentRepository.findByPostId("p1")).thenReturn(List.of(intent("p1:NAME", 2, false)));
+        when(pendingVersions.reserve(SEQUENCE, 1)).thenReturn(new PendingVersions.Reservation("r1", 20));
+        when(pendingVersions.complete(any())).thenReturn(true);
+        when(bulk.execute()).thenThrow(bulkFailure(11000));
+
+        service.remove("p1");
+
+        verify(pendingVersions).complete(any());
+    }
+
+    @Test
+    void otherWriteFailuresPropagateButStillComplete() {
+        when(trainingIntentRepository.findByPostId("p1")).thenReturn(List.of(intent("p1:NAME", 2, false)));
+        when(pendingVersions.reserve(SEQUENCE, 1)).thenReturn(new PendingVersions.Reservation("r1", 20));
+        when(bulk.execute()).thenThrow(bulkFailure(121));
+
+        assertThatThrownBy(() -> service.remove("p1")).isInstanceOf(BulkOperationException.class);
+        verify(pendingVersions).complete(any());
+        verify(pendingVersions, times(1)).reserve(SEQUENCE, 1);
+    }
+
+    private List<TrainingIntentEntity> captureReplacements(int count) {
+        ArgumentCaptor<Object> replacement = ArgumentCaptor.forClass(Object.class);
+        verify(bulk, times(count)).replaceOne(any(Query.class), replacement.capture(), any(FindAndReplaceOptions.class));
+        return replacement.getAllValues().stream().map(TrainingIntentEntity.class::cast).toList();
+    }
+
+    private static BulkOperationException bulkFailure(int code) {
+        BulkWriteError error = new BulkWriteError(code, "write failed", new BsonDocument(), 0);
+        return new BulkOperationException("write failed", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+
+    private static TrainingIntentEntity intent(String id, long version, boolean deleted) {
+        return TrainingIntentEntity.builder()
+                .id(id)
+                .postId(id.split(":")[0])
+                .type("NAME")
+                .version(version)
+                .deleted(deleted)
+                .patterns(List.of())
+                .responses(List.of())
+                .build();
+    }
+
+    private static TrainingIntentEntity tombstone(String id, long version) {
+        return intent(id, version, true);
+    }
+}
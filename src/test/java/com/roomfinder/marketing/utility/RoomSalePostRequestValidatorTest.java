@@ -0,0 +1,45 @@
+package com.roomfinder.marketing.utility;
+
+import com.roomfinder.marketing.dto.request.PricingDetailsRequest;
+import com.roomfinder.marketing.dto.request.RoomInfoRequest;
+import com.roomfinder.marketing.dto.request.RoomSalePostRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomSalePostRequestValidatorTest {
+
+    @Test
+    void reportsTheFirstMissingField() {
+        RoomSalePostRequest request = valid();
+        request.getPricingDetails().setWaterCost(null);
+        request.setContactInfo(null);
+
+        assertThat(RoomSalePostRequestValidator.firstError(request)).isEqualTo("pricingDetails.waterCost is required");
+        assertThat(RoomSalePostRequestValidator.validate(request)).isTrue();
+    }
+
+    @Test
+    void typePackageRangeIsOnlyCheckedOnImport() {
+        RoomSalePostRequest request = valid();
+        request.setTypePackage(7);
+
+        assertThat(RoomSalePostRequestValidator.validate(request)).isFalse();
+        assertThat(RoomSalePostRequestValidator.firstImportError(request)).isEqualTo("typePackage must be between 0 and 3");
+        request.setTypePackage(3);
+        assertThat(RoomSalePostRequestValidator.firstImportError(request)).isNull();
+    }
+
+    private static RoomSalePostRequest valid() {
+        return RoomSalePostRequest.builder()
+                .title("Phòng trọ Cầu Giấy")
+                .roomInfo(new RoomInfoRequest())
+                .pricingDetails(new PricingDetailsRequest(BigDecimal.valueOf(3_000_000), BigDecimal.valueOf(3_500),
+                        BigDecimal.valueOf(100_000), null))
+                .contactInfo("0900000000")
+                .statusShow("PUBLIC")
+                .build();
+    }
+}